@@ -0,0 +1,76 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bridge between the benchmarks and the simulator. The simulator lives in the default package,
+ * which code in a named package cannot refer to, so the benchmarks create this class by reflection
+ * and only see it through the JDK interfaces it implements.
+ *
+ * Each call to get() prepares a fresh scheduler on a copy of a fixed workload, with all output
+ * suppressed; running the returned supplier runs the simulation and returns the number of ticks
+ * or events it handled.
+ */
+public class SimulationFactory implements Supplier<LongSupplier> {
+
+    /** Stream discarding the header and averages printed by every run. */
+    private static final PrintStream NULL_STREAM = new PrintStream(OutputStream.nullOutputStream());
+
+    private final Algorithm algorithm;
+    private final ProcessTable workload;
+    private final int maximumTime;
+    private final int quantum;
+    private final boolean eventDriven;
+
+    /**
+     * Builds a random workload whose arrivals are spread over the horizon and whose bursts keep
+     * the CPU about 90% busy.
+     *
+     * @param algorithm   The name of an Algorithm constant.
+     * @param processes   The number of processes in the workload.
+     * @param maximumTime The horizon of the simulation.
+     * @param quantum     The time slice or aging interval.
+     * @param eventDriven true for the event-driven engine, false for the per-tick loop.
+     * @param seed        The seed of the workload.
+     */
+    public SimulationFactory(String algorithm, int processes, int maximumTime, int quantum,
+                             boolean eventDriven, long seed) {
+
+        this.algorithm = Algorithm.valueOf(algorithm);
+        this.maximumTime = maximumTime;
+        this.quantum = quantum;
+        this.eventDriven = eventDriven;
+
+        Random random = new Random(seed);
+        int[] arrivals = new int[processes];
+        for (int i = 1; i < processes; i++) {
+            arrivals[i] = 1 + random.nextInt(Math.max(maximumTime - 1, 1));
+        }
+        Arrays.sort(arrivals);
+
+        double meanBurst = Math.max(1, 0.9 * maximumTime / processes);
+        workload = new ProcessTable(processes);
+        for (int i = 0; i < processes; i++) {
+            int burst = 1 + (int) Math.min(-meanBurst * Math.log(1 - random.nextDouble()), Integer.MAX_VALUE - 1);
+            workload.add(i + 1, arrivals[i], burst, 1 + random.nextInt(10), random.nextInt(10));
+        }
+    }
+
+    @Override
+    public LongSupplier get() {
+
+        Scheduling scheduler = algorithm.create(workload.copy(), maximumTime, quantum);
+        scheduler.setOutput(NULL_STREAM);
+        scheduler.setGanttSink(NullGanttSink.INSTANCE);
+        scheduler.setPrintingProcesses(false);
+        scheduler.setEventDriven(eventDriven);
+
+        return () -> {
+            scheduler.runAlgorithm();
+            return scheduler.getEventCount();
+        };
+    }
+}
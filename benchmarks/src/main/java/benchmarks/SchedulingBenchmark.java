@@ -0,0 +1,85 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Throughput of runAlgorithm for every algorithm and both engines, over several workload sizes,
+ * horizons and quantum values. Every invocation runs a fresh scheduler on a copy of the same
+ * workload, with the Gantt chart and the per-process output suppressed.
+ *
+ * Besides runs per second, the ticks and events counters report simulated time units and
+ * handled ticks or events per second. Run with -prof gc for the allocation rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Thread)
+public class SchedulingBenchmark {
+
+    @Param({"FCFS", "SJF", "SRTF", "ROUND_ROBIN", "PREEMPTIVE_PRIORITY", "NON_PREEMPTIVE_PRIORITY", "MLFQ", "CFS", "EDF", "RATE_MONOTONIC"})
+    public String algorithm;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int processes;
+
+    @Param({"10000", "1000000"})
+    public int maximumTime;
+
+    @Param({"1", "5", "20"})
+    public int quantum;
+
+    @Param({"tick", "event"})
+    public String engine;
+
+    /** Factory of the simulations, created once per trial. */
+    private Supplier<LongSupplier> factory;
+
+    /** Simulation prepared for the next invocation. */
+    private LongSupplier simulation;
+
+    /**
+     * Simulated time and handled ticks or events, reported as rates.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+
+        public long ticks;
+        public long events;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            ticks = 0;
+            events = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void createWorkload() throws ReflectiveOperationException {
+
+        factory = (Supplier<LongSupplier>) Class.forName("SimulationFactory")
+                .getConstructor(String.class, int.class, int.class, int.class, boolean.class, long.class)
+                .newInstance(algorithm, processes, maximumTime, quantum, engine.equals("event"), 42L);
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareSimulation() {
+        simulation = factory.get();
+    }
+
+    @Benchmark
+    public long runAlgorithm(Counters counters) {
+
+        long events = simulation.getAsLong();
+        counters.ticks += maximumTime;
+        counters.events += events;
+        return events;
+    }
+}
@@ -0,0 +1,323 @@
+import java.util.*;
+
+/**
+ * Ready queue for priority scheduling with aging, where the priority of a process drops by one
+ * for every quantum it spends in the queue.
+ *
+ * Aging is computed lazily: a queued process keeps the priority it had when it entered the queue,
+ * and its effective priority is derived from that priority and the time it has been waiting.
+ * Processes that entered the queue at the same time modulo the quantum age at the same moments,
+ * so each such phase keeps a heap whose order never changes as time passes. Only the heads of the
+ * phases are compared when looking for the next process, and a process is moved once, to the
+ * bucket of priority zero, when its priority cannot drop any further. The heaps are IndexedHeaps
+ * sharing one index, since a process is in one of them at a time.
+ */
+public class AgingQueue extends AbstractQueue<PCB> {
+
+    /** Number of time units a process has to wait for its priority to drop by one. */
+    private final int quantum;
+
+    /** Heaps of processes with a priority above zero, indexed by ready queue time modulo the quantum. */
+    private final List<IndexedHeap> phases;
+
+    /** Indices of the phases that are not empty. */
+    private final int[] activePhases;
+
+    /** Position of every phase in activePhases, or -1 if the phase is empty. */
+    private final int[] activePositions;
+
+    /** Number of phases that are not empty. */
+    private int activeCount;
+
+    /** Processes whose priority reached zero, ordered by ready queue time. */
+    private final IndexedHeap aged;
+
+    /** Positions of the queued processes in their heaps. */
+    private final IndexedHeap.Index index = new IndexedHeap.Index();
+
+    /** Number of processes in the queue. */
+    private int size;
+
+    /** Current time, at which effective priorities are evaluated. */
+    private int time;
+
+    /**
+     * Constructs an empty queue.
+     *
+     * @param quantum The number of time units after which the priority of a waiting process drops by one.
+     */
+    public AgingQueue (int quantum) {
+
+        this.quantum = quantum;
+        phases = new ArrayList<>(Collections.nCopies(quantum, null));
+        activePhases = new int[quantum];
+        activePositions = new int[quantum];
+        Arrays.fill(activePositions, -1);
+        aged = new IndexedHeap(PCB::getReadyQueueTime, index);
+    }
+
+    /**
+     * Gets the number of time units after which the priority of a waiting process drops by one.
+     *
+     * @return The quantum of the queue.
+     */
+    public int getQuantum () {
+        return quantum;
+    }
+
+    /**
+     * Moves the clock of the queue forward. No process is touched.
+     *
+     * @param time The current time.
+     */
+    public void advanceTo (int time) {
+        this.time = time;
+    }
+
+    /**
+     * Gets the priority a queued process has at the current time.
+     *
+     * @param process A process in the queue.
+     * @return The effective priority of the process.
+     */
+    public int effectivePriority (PCB process) {
+
+        int steps = (time - process.getReadyQueueTime()) / quantum;
+        if (steps == 0) {
+            return process.getPriority();
+        }
+        return Math.max(process.getPriority() - steps, 0);
+    }
+
+    /**
+     * Gets the effective priority of the process at the head of the queue.
+     *
+     * @return The effective priority of the head of the queue.
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public int peekPriority () {
+
+        PCB head = peek();
+        if (head == null) {
+            throw new NoSuchElementException();
+        }
+        return effectivePriority(head);
+    }
+
+    /**
+     * Gets the next time after the current one at which the priority of a queued process drops.
+     *
+     * @return The next aging time, or Integer.MAX_VALUE if no queued process can age.
+     */
+    public int nextAgingTime () {
+
+        long next = Integer.MAX_VALUE;
+        for (int i = 0; i < activeCount; i++) {
+            int wait = Math.floorMod(activePhases[i] - time, quantum);
+            next = Math.min(next, (long) time + (wait == 0 ? quantum : wait));
+        }
+        return (int) next;
+    }
+
+    @Override
+    public boolean offer (PCB process) {
+
+        if (process.getPriority() == 0) {
+            aged.offer(process);
+        }
+        else {
+            int phase = process.getReadyQueueTime() % quantum;
+            IndexedHeap heap = phases.get(phase);
+            if (heap == null) {
+                //order never changes within a phase: priority plus the number of quanta already elapsed, then arrival
+                heap = new IndexedHeap(p -> IndexedHeap.key(p.getPriority() + p.getReadyQueueTime() / quantum,
+                        p.getReadyQueueTime()), index);
+                phases.set(phase, heap);
+            }
+            if (heap.isEmpty()) {
+                activePositions[phase] = activeCount;
+                activePhases[activeCount++] = phase;
+            }
+            heap.offer(process);
+        }
+        size++;
+        return true;
+    }
+
+    @Override
+    public PCB peek () {
+
+        IndexedHeap heap = headHeap();
+        return heap == null ? null : heap.peek();
+    }
+
+    /**
+     * Removes the head of the queue and stores its effective priority in it.
+     *
+     * @return The head of the queue, or null if the queue is empty.
+     */
+    @Override
+    public PCB poll () {
+
+        IndexedHeap heap = headHeap();
+        if (heap == null) {
+            return null;
+        }
+        PCB process = heap.poll();
+        process.setPriority(effectivePriority(process));
+        if (heap != aged && heap.isEmpty()) {
+            deactivate(process.getReadyQueueTime() % quantum);
+        }
+        size--;
+        return process;
+    }
+
+    @Override
+    public int size () {
+        return size;
+    }
+
+    /**
+     * Iterates over the queued processes in no particular order. Removal is not supported.
+     *
+     * @return An iterator over the queued processes.
+     */
+    @Override
+    public Iterator<PCB> iterator () {
+
+        List<Iterator<PCB>> iterators = new ArrayList<>();
+        iterators.add(aged.iterator());
+        for (int i = 0; i < activeCount; i++) {
+            iterators.add(phases.get(activePhases[i]).iterator());
+        }
+
+        return new Iterator<>() {
+
+            private int current;
+
+            @Override
+            public boolean hasNext () {
+                while (current < iterators.size() && !iterators.get(current).hasNext()) {
+                    current++;
+                }
+                return current < iterators.size();
+            }
+
+            @Override
+            public PCB next () {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return iterators.get(current).next();
+            }
+        };
+    }
+
+    /**
+     * Saves the layout of the queue: the clock, the aged bucket and every active phase in the
+     * order they are scanned, each heap in its internal order, so restoring it breaks ties the same way.
+     *
+     * @return The clock, the aged bucket as its size followed by table rows, the number of active
+     *         phases, then every active phase as its index, its size and its table rows.
+     */
+    int[] save () {
+
+        int[] saved = new int[3 + 2 * activeCount + size];
+        int k = 0;
+        saved[k++] = time;
+        saved[k++] = aged.size();
+        for (PCB process : aged) {
+            saved[k++] = process.getRow();
+        }
+        saved[k++] = activeCount;
+        for (int i = 0; i < activeCount; i++) {
+            IndexedHeap heap = phases.get(activePhases[i]);
+            saved[k++] = activePhases[i];
+            saved[k++] = heap.size();
+            for (PCB process : heap) {
+                saved[k++] = process.getRow();
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Replaces the content of the queue with a layout saved by save. Offering the elements of a
+     * heap in its internal order rebuilds the same heap, since every element is already in place.
+     *
+     * @param saved The saved layout.
+     * @param table The process table the saved rows belong to.
+     */
+    void restore (int[] saved, ProcessTable table) {
+
+        aged.clear();
+        for (int i = 0; i < activeCount; i++) {
+            phases.get(activePhases[i]).clear();
+            activePositions[activePhases[i]] = -1;
+        }
+        activeCount = 0;
+        size = 0;
+
+        int k = 0;
+        time = saved[k++];
+        int agedCount = saved[k++];
+        for (int i = 0; i < agedCount; i++) {
+            aged.offer(table.view(saved[k++]));
+            size++;
+        }
+        int phaseCount = saved[k++];
+        for (int i = 0; i < phaseCount; i++) {
+            int phase = saved[k++];
+            int count = saved[k++];
+            for (int j = 0; j < count; j++) {
+                offer(table.view(saved[k++])); //each phase comes in one piece, so it keeps its position in activePhases
+            }
+            if (activePhases[i] != phase) {
+                throw new IllegalStateException("Phase " + phase + " does not match the process priorities");
+            }
+        }
+    }
+
+    /**
+     * Moves the heads of the phases whose priority reached zero to the aged bucket, then finds the
+     * heap holding the process with the lowest effective priority and earliest ready queue time.
+     *
+     * @return The heap whose head is the head of the queue, or null if the queue is empty.
+     */
+    private IndexedHeap headHeap () {
+
+        for (int i = 0; i < activeCount; i++) {
+            int phase = activePhases[i];
+            IndexedHeap heap = phases.get(phase);
+            while (!heap.isEmpty() && effectivePriority(heap.peek()) == 0) {
+                aged.offer(heap.poll()); //the stored priority is left alone, poll() writes the aged one
+            }
+            if (heap.isEmpty()) {
+                deactivate(phase);
+                i--; //the last active phase was moved into this position
+            }
+        }
+
+        IndexedHeap best = aged.isEmpty() ? null : aged;
+        int bestPriority = 0;
+        for (int i = 0; i < activeCount; i++) {
+            IndexedHeap heap = phases.get(activePhases[i]);
+            int priority = effectivePriority(heap.peek());
+            if (best == null || priority < bestPriority || (priority == bestPriority
+                    && heap.peek().getReadyQueueTime() < best.peek().getReadyQueueTime())) {
+                best = heap;
+                bestPriority = priority;
+            }
+        }
+        return best;
+    }
+
+    private void deactivate (int phase) {
+
+        int position = activePositions[phase];
+        int last = activePhases[--activeCount];
+        activePhases[position] = last;
+        activePositions[last] = position;
+        activePositions[phase] = -1;
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * The scheduling algorithms that can be run, with a factory for each of them.
+ */
+public enum Algorithm {
+
+    FCFS("First Come First Serve"),
+    SJF("Shortest Job First"),
+    SRTF("Shortest Remaining Time First"),
+    ROUND_ROBIN("Round Robin"),
+    PREEMPTIVE_PRIORITY("Preemptive priority scheduling with aging"),
+    NON_PREEMPTIVE_PRIORITY("Non-preemptive priority scheduling with aging"),
+    MLFQ("Multilevel feedback queue"),
+    CFS("Completely fair scheduler"),
+    EDF("Earliest deadline first"),
+    RATE_MONOTONIC("Rate monotonic");
+
+    /** Name shown to the user. */
+    private final String displayName;
+
+    Algorithm(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Checks whether the algorithm takes a quantum, either as its time slice or as its aging interval.
+     *
+     * @return true if the quantum changes the behaviour of the algorithm, false otherwise.
+     */
+    public boolean usesQuantum() {
+        return this == ROUND_ROBIN || this == PREEMPTIVE_PRIORITY || this == NON_PREEMPTIVE_PRIORITY || this == MLFQ
+                || this == CFS;
+    }
+
+    /**
+     * Creates a scheduler for this algorithm that works on the rows of the given table in place.
+     *
+     * @param table       A table holding one row per process.
+     * @param maximumTime The maximum time for which the algorithm runs.
+     * @param quantum     The time slice for Round Robin, of the top level of MLFQ and the minimum granularity of CFS,
+     *                    or the aging interval for the priority algorithms.
+     * @return A new scheduler.
+     */
+    public Scheduling create(ProcessTable table, int maximumTime, int quantum) {
+        return create(new TableSource(table), maximumTime, quantum);
+    }
+
+    /**
+     * Creates a scheduler for this algorithm that admits the processes of a source as they arrive.
+     *
+     * @param source      The source of the processes, such as a WorkloadFile.
+     * @param maximumTime The maximum time for which the algorithm runs.
+     * @param quantum     The time slice for Round Robin, of the top level of MLFQ and the minimum granularity of CFS,
+     *                    or the aging interval for the priority algorithms.
+     * @return A new scheduler.
+     */
+    public Scheduling create(ProcessSource source, int maximumTime, int quantum) {
+
+        return switch (this) {
+            case FCFS -> new FCFS(source, maximumTime);
+            case SJF -> new SJF(source, maximumTime);
+            case SRTF -> new SRTF(source, maximumTime);
+            case ROUND_ROBIN -> new RoundRobin(source, maximumTime, quantum);
+            case PREEMPTIVE_PRIORITY -> new PreemptivePriority(source, maximumTime, quantum);
+            case NON_PREEMPTIVE_PRIORITY -> new NonPreemptivePriority(source, maximumTime, quantum);
+            case MLFQ -> new MLFQ(source, maximumTime, quantum);
+            case CFS -> new CFS(source, maximumTime, quantum);
+            case EDF -> new EDF(source, maximumTime);
+            case RATE_MONOTONIC -> new RateMonotonic(source, maximumTime);
+        };
+    }
+}
@@ -0,0 +1,130 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs several scheduling algorithms concurrently on the same workload and collects
+ * their results in a single table.
+ */
+public class AlgorithmComparison {
+
+    private AlgorithmComparison() {
+    }
+
+    /**
+     * Runs the given algorithms concurrently, each on its own copy of the workload and with its
+     * output discarded, so the results do not depend on how the threads interleave.
+     *
+     * @param workload    A table holding one row per process; it is not modified.
+     * @param maximumTime The maximum time for which each algorithm runs.
+     * @param quantum     The time slice for Round Robin, or the aging interval for the priority algorithms.
+     * @param algorithms  The algorithms to run.
+     * @return One result per algorithm, in the order the algorithms were given.
+     */
+    public static List<SchedulingResult> run(ProcessTable workload, int maximumTime, int quantum,
+                                             Collection<Algorithm> algorithms) {
+
+        int threads = Math.max(1, Math.min(algorithms.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<SchedulingResult>> futures = new ArrayList<>();
+            for (Algorithm algorithm : algorithms) {
+                Scheduling scheduler = algorithm.create(workload.copy(), maximumTime, quantum);
+                futures.add(pool.submit(() -> run(algorithm, quantum, scheduler)));
+            }
+
+            List<SchedulingResult> results = new ArrayList<>();
+            for (Future<SchedulingResult> future : futures) {
+                results.add(getResult(future));
+            }
+            return results;
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs all the algorithms concurrently.
+     *
+     * @param workload    A table holding one row per process; it is not modified.
+     * @param maximumTime The maximum time for which each algorithm runs.
+     * @param quantum     The time slice for Round Robin, or the aging interval for the priority algorithms.
+     * @return One result per algorithm, in declaration order.
+     */
+    public static List<SchedulingResult> runAll(ProcessTable workload, int maximumTime, int quantum) {
+        return run(workload, maximumTime, quantum, EnumSet.allOf(Algorithm.class));
+    }
+
+    /**
+     * Runs a single scheduler with its output discarded.
+     *
+     * @param algorithm The algorithm the scheduler implements.
+     * @param quantum   The quantum the scheduler was created with.
+     * @param scheduler The scheduler to run.
+     * @return The result of the run.
+     */
+    static SchedulingResult run(Algorithm algorithm, int quantum, Scheduling scheduler) {
+
+        scheduler.setOutput(new PrintStream(OutputStream.nullOutputStream()));
+        scheduler.setGanttSink(NullGanttSink.INSTANCE);
+        scheduler.setPrintingProcesses(false);
+        scheduler.setEventDriven(true);
+        MetricsCollector metrics = new MetricsCollector();
+        scheduler.addListener(metrics);
+        scheduler.runAlgorithm();
+        return new SchedulingResult(algorithm, quantum, scheduler, metrics);
+    }
+
+    /**
+     * Waits for a task and returns its result, rethrowing any failure of the task.
+     *
+     * @param future The task to wait for.
+     * @param <T>    The type of the result.
+     * @return The result of the task.
+     */
+    static <T> T getResult(Future<T> future) {
+
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a simulation", e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Prints the results as a table, one row per algorithm.
+     *
+     * @param results The results to print.
+     * @param out     The stream to print to.
+     */
+    public static void printTable(List<SchedulingResult> results, PrintStream out) {
+
+        out.println("\u001B[31m\u001B[1mComparison\u001B[0m : ");
+        out.println("\u001B[1m" + "_".repeat(129));
+        out.printf("%-46s %8s %8s %11s %9s %8s %10s %8s %8s%n",
+                "Algorithm", "Quantum", "Waiting", "Turnaround", "Response", "Fairness", "Executed", "Switches", "CPU %");
+        for (SchedulingResult result : results) {
+            out.printf("%-46s %8s %8.2f %11.2f %9.2f %8.3f %10d %8d %8.1f%n",
+                    result.getAlgorithm().getDisplayName(),
+                    result.getAlgorithm().usesQuantum() ? String.valueOf(result.getQuantum()) : "-",
+                    result.getAverageWaitingTime(),
+                    result.getAverageTurnaroundTime(),
+                    result.getAverageResponseTime(),
+                    result.getFairnessIndex(),
+                    result.getExecutedProcesses(),
+                    result.getContextSwitches(),
+                    100 * result.getCpuUtilization());
+        }
+        out.println("\u001B[1m" + "_".repeat(129) + "\u001B[0m\n");
+    }
+}
@@ -0,0 +1,72 @@
+import java.util.SplittableRandom;
+
+/**
+ * Random process giving the arrival times of a synthetic workload. An arrival process may keep
+ * state between arrivals, so each workload generator needs its own instance.
+ */
+public interface ArrivalProcess {
+
+    /**
+     * Draws the arrival time that follows the given one.
+     *
+     * @param time   The previous arrival time.
+     * @param random The generator to draw from.
+     * @return The next arrival time, not before the previous one.
+     */
+    double next(double time, SplittableRandom random);
+
+    /**
+     * Poisson arrivals, with exponential gaps between processes.
+     *
+     * @param rate The mean number of arrivals per time unit.
+     * @return A new arrival process.
+     */
+    static ArrivalProcess poisson(double rate) {
+
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("Rate must be positive: " + rate);
+        }
+        Distribution gaps = Distribution.exponential(1 / rate);
+        return (time, random) -> time + gaps.sample(random);
+    }
+
+    /**
+     * Bursty arrivals that alternate between on periods, with Poisson arrivals, and off periods
+     * with none. The lengths of both periods are exponential.
+     *
+     * @param rate    The mean number of arrivals per time unit during an on period.
+     * @param meanOn  The mean length of an on period.
+     * @param meanOff The mean length of an off period.
+     * @return A new arrival process.
+     */
+    static ArrivalProcess onOff(double rate, double meanOn, double meanOff) {
+
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("Rate must be positive: " + rate);
+        }
+        Distribution gaps = Distribution.exponential(1 / rate);
+        Distribution onPeriods = Distribution.exponential(meanOn);
+        Distribution offPeriods = Distribution.exponential(meanOff);
+
+        return new ArrivalProcess() {
+
+            /** End of the current on period, or NaN before the first one. */
+            private double onUntil = Double.NaN;
+
+            @Override
+            public double next(double time, SplittableRandom random) {
+
+                if (Double.isNaN(onUntil)) {
+                    onUntil = time + onPeriods.sample(random);
+                }
+                double next = time + gaps.sample(random);
+                while (next > onUntil) { //no arrival before the end of the period, skip the off period
+                    double onFrom = onUntil + offPeriods.sample(random);
+                    onUntil = onFrom + onPeriods.sample(random);
+                    next = onFrom + gaps.sample(random); //gaps are memoryless, so the wait starts over
+                }
+                return next;
+            }
+        };
+    }
+}
@@ -0,0 +1,189 @@
+import java.io.PrintStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Gantt sink that prints the same chart as ConsoleGanttSink from a background thread.
+ *
+ * The scheduler thread only stores the entries in a batch of primitive values. Full batches are
+ * handed to a writer thread, which formats a whole batch into a reusable buffer and prints it with
+ * a single call, then returns the batch for reuse. The scheduler blocks only when the writer falls
+ * more than a few batches behind, and end() waits until the whole chart has been printed.
+ */
+public class AsyncGanttSink implements GanttSink {
+
+    /** Number of batches that can be in flight between the scheduler and the writer. */
+    private static final int BATCHES = 4;
+
+    private static final String HEADER = "\u001B[31m\u001B[1mGantt Chart\u001B[0m : ";
+    private static final String RULE = "\u001B[1m" + "_".repeat(83);
+
+    private final PrintStream out;
+
+    /** Number of entries held by a batch. */
+    private final int batchSize;
+
+    /** Batches waiting to be printed, in order. */
+    private final BlockingQueue<Batch> full = new ArrayBlockingQueue<>(BATCHES + 1);
+
+    /** Printed batches available for reuse. */
+    private final BlockingQueue<Batch> free = new ArrayBlockingQueue<>(BATCHES);
+
+    /** Batch being filled by the scheduler thread. */
+    private Batch current;
+
+    private Thread writer;
+
+    /** Failure of the writer thread, rethrown by end(). */
+    private volatile RuntimeException failure;
+
+    /**
+     * Constructs a sink printing to the given stream in batches of 4096 entries.
+     *
+     * @param out The stream to print to.
+     */
+    public AsyncGanttSink(PrintStream out) {
+        this(out, 4096);
+    }
+
+    /**
+     * Constructs a sink printing to the given stream.
+     *
+     * @param out       The stream to print to.
+     * @param batchSize The number of entries handed to the writer thread at a time.
+     */
+    public AsyncGanttSink(PrintStream out, int batchSize) {
+
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.out = out;
+        this.batchSize = batchSize;
+        for (int i = 0; i < BATCHES; i++) {
+            free.add(new Batch(batchSize));
+        }
+    }
+
+    @Override
+    public void begin(long entries) {
+
+        if (writer != null) {
+            throw new IllegalStateException("The chart has already begun");
+        }
+        out.println(HEADER);
+        out.println(RULE);
+
+        failure = null;
+        current = take(free);
+        writer = new Thread(() -> write(entries), "gantt-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void entry(int pid, int start, int end) {
+
+        int offset = current.size * 3;
+        current.values[offset] = pid;
+        current.values[offset + 1] = start;
+        current.values[offset + 2] = end;
+        if (++current.size == batchSize) {
+            put(current);
+            current = take(free);
+        }
+    }
+
+    @Override
+    public void end() {
+
+        put(current);
+        put(Batch.END);
+        current = null;
+        try {
+            writer.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the Gantt chart", e);
+        }
+        finally {
+            writer = null;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        out.println("\n" + RULE);
+    }
+
+    /**
+     * Body of the writer thread: formats and prints batches until the end of the chart.
+     * After a failure the remaining batches are still recycled, so the scheduler never blocks.
+     *
+     * @param entries The number of entries already in the chart.
+     */
+    private void write(long entries) {
+
+        StringBuilder buffer = new StringBuilder(batchSize * 48);
+        for (Batch batch = take(full); batch != Batch.END; batch = take(full)) {
+
+            if (failure == null) {
+                try {
+                    buffer.setLength(0);
+                    int[] values = batch.values;
+                    for (int i = 0; i < batch.size * 3; i += 3) {
+                        ConsoleGanttSink.format(buffer, values[i], values[i + 1], values[i + 2], ++entries);
+                    }
+                    out.append(buffer);
+                }
+                catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+            batch.size = 0;
+            free.add(batch);
+        }
+        out.flush();
+    }
+
+    private static Batch take(BlockingQueue<Batch> queue) {
+
+        try {
+            return queue.take();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing the Gantt chart", e);
+        }
+    }
+
+    private static void put(BlockingQueue<Batch> queue, Batch batch) {
+
+        try {
+            queue.put(batch);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing the Gantt chart", e);
+        }
+    }
+
+    private void put(Batch batch) {
+        put(full, batch);
+    }
+
+    /**
+     * Entries of the chart stored as consecutive pid, start and end values.
+     */
+    private static final class Batch {
+
+        /** Marks the end of the chart in the queue of full batches. */
+        static final Batch END = new Batch(0);
+
+        final int[] values;
+        int size;
+
+        Batch(int capacity) {
+            values = new int[capacity * 3];
+        }
+    }
+}
@@ -0,0 +1,332 @@
+import java.util.Arrays;
+
+/**
+ * Represents a Completely Fair Scheduler in the style of Linux CFS.
+ * Extends the generic Scheduling class.
+ *
+ * The ready queue is a FairQueue ordered by virtual runtime, which grows while a process runs,
+ * more slowly the heavier the process is; the weight of a process comes from its priority. The
+ * running process gets a slice of the target latency in proportion to its weight, at least the
+ * minimum granularity, and the latency stretches when there are too many processes to give each
+ * that much. When the slice is used up, the process with the smallest virtual runtime runs next.
+ * A process that arrives or comes back preempts the running one if it is behind by more than
+ * the minimum granularity.
+ *
+ * New processes start one slice after the minimum virtual runtime of the queue, so they queue
+ * behind the processes waiting for their turn instead of overtaking them; returning processes
+ * keep theirs, but no further than half the target latency behind the minimum, so a long sleep
+ * does not earn a long burst.
+ */
+public class CFS extends Scheduling {
+
+    /** Number of minimum granularities in the target latency, when no target latency is given. */
+    public static final int DEFAULT_LATENCY_SLICES = 8;
+
+    /** Time within which every runnable process should run once. */
+    private int targetLatency;
+
+    /** Shortest slice, and the lead a waking process needs to preempt the running one. */
+    private int minimumGranularity;
+
+    /** The ready queue, ordered by virtual runtime. */
+    private FairQueue fairQueue;
+
+    /** Row of the process whose time slice started at sliceStart, or -1. */
+    private int sliceRow = -1;
+
+    /** Start of the current time slice, when the running process got a new slice without leaving the CPU. */
+    private int sliceStart;
+
+    /** Time at which the minimum virtual runtime and the start debit were last updated. */
+    private int updateTime = -1;
+
+    /**
+     * Constructs a CFS object with the given processes, maximum time and minimum granularity.
+     *
+     * @param processes          An array of PCB (Process Control Block) objects.
+     * @param maximumTime        The maximum time for which the algorithm runs.
+     * @param minimumGranularity The shortest time slice.
+     */
+    CFS (PCB[] processes, int maximumTime, int minimumGranularity) {
+        this(ProcessTable.copyOf(processes), maximumTime, minimumGranularity);
+    }
+
+    /**
+     * Constructs a CFS object that schedules the rows of a process table in place.
+     *
+     * @param table              A table holding one row per process.
+     * @param maximumTime        The maximum time for which the algorithm runs.
+     * @param minimumGranularity The shortest time slice.
+     */
+    CFS (ProcessTable table, int maximumTime, int minimumGranularity) {
+        this(new TableSource(table), maximumTime, minimumGranularity);
+    }
+
+    /**
+     * Constructs a CFS object with the default target latency.
+     *
+     * @param source             The source of the processes, in order of arrival.
+     * @param maximumTime        The maximum time for which the algorithm runs.
+     * @param minimumGranularity The shortest time slice.
+     */
+    CFS (ProcessSource source, int maximumTime, int minimumGranularity) {
+        this(source, maximumTime, DEFAULT_LATENCY_SLICES * minimumGranularity, minimumGranularity);
+    }
+
+    /**
+     * Constructs a CFS object that reads its processes from a source as they arrive.
+     *
+     * @param source             The source of the processes, in order of arrival.
+     * @param maximumTime        The maximum time for which the algorithm runs.
+     * @param targetLatency      The time within which every runnable process should run once.
+     * @param minimumGranularity The shortest time slice.
+     */
+    CFS (ProcessSource source, int maximumTime, int targetLatency, int minimumGranularity) {
+
+        super(source, maximumTime);
+        if (minimumGranularity <= 0 || targetLatency < minimumGranularity) {
+            throw new IllegalArgumentException("Invalid target latency " + targetLatency
+                    + " or minimum granularity " + minimumGranularity);
+        }
+        this.targetLatency = targetLatency;
+        this.minimumGranularity = minimumGranularity;
+        isPreemptive = true;
+        readyQueue = fairQueue = new FairQueue();
+
+        waitingQueue = new ComebackQueue();
+
+        isPriority = true; //the minimum virtual runtime moves forward in the aging hook
+    }
+
+    /**
+     * Resets properties of a process after a comeback, adding its last run to its virtual
+     * runtime and bounding the credit it earned while away.
+     *
+     * @param process      The PCB (Process Control Block) object to be reset.
+     * @param countWaiting The current count of waiting time.
+     */
+    @Override
+    protected void resetProperties (PCB process, int countWaiting) {
+
+        process.setReadyQueueTime(countWaiting);
+        process.setRemainingTime(process.getBurstTime()); //reset the remaining time
+
+        int row = process.getRow();
+        long vruntime = fairQueue.place(row) + FairQueue.scale(process.getFinishTime() - process.getDeploymentTime(),
+                FairQueue.weightOf(process.getPriority()));
+        long earliest = fairQueue.getMinimum() - FairQueue.scale(targetLatency / 2, FairQueue.NICE_0_WEIGHT);
+        fairQueue.setVruntime(row, Math.max(vruntime, earliest));
+    }
+
+    /**
+     * Forgets the virtual runtime of a released row, so the process that reuses it is placed as a new one.
+     *
+     * @param row The row being released.
+     */
+    @Override
+    protected void releaseRow (int row) {
+        fairQueue.setVruntime(row, FairQueue.UNPLACED);
+    }
+
+    /**
+     * Moves the minimum virtual runtime forward to the smallest one of the running process and
+     * of the head of the queue, and sets the start of new processes to the virtual slice one of
+     * weight FairQueue.NICE_0_WEIGHT would get. This is done once per time unit, before any
+     * process enters the queue at that time. Priorities do not change.
+     *
+     * @param time The current time.
+     */
+    @Override
+    protected void decreasePriority (int time) {
+
+        if (time == updateTime) {
+            return;
+        }
+        updateTime = time;
+
+        long smallest = fairQueue.peekVruntime();
+        int count = fairQueue.size() + 1;
+        long weight = fairQueue.getTotalWeight() + FairQueue.NICE_0_WEIGHT;
+        if (runningProcess != null) {
+            smallest = Math.min(smallest, runningVruntime(time));
+            count++;
+            weight += FairQueue.weightOf(runningProcess.getPriority());
+        }
+        if (smallest != Long.MAX_VALUE) {
+            fairQueue.advanceMinimum(smallest);
+        }
+        fairQueue.setStartDebit(FairQueue.scale(period(count), weight));
+    }
+
+    /**
+     * Starts a run with the first process placed as if it had been queued at time 0.
+     *
+     * @param first The process that starts on the CPU, or null to start with an idle CPU.
+     */
+    @Override
+    void start (PCB first) {
+
+        decreasePriority(0);
+        if (first != null) {
+            fairQueue.place(first.getRow());
+        }
+        super.start(first);
+    }
+
+    /**
+     * Puts a process routed from outside in the ready queue, once the minimum virtual runtime
+     * reached the current time, as for an arrival read from the source.
+     *
+     * @param process The process that arrived.
+     * @param time    The current time.
+     */
+    @Override
+    void admit (PCB process, int time) {
+
+        decreasePriority(time);
+        super.admit(process, time);
+    }
+
+    /**
+     * Takes in a process moved from another CPU at the minimum virtual runtime of this one,
+     * since virtual runtimes of different CPUs cannot be compared.
+     *
+     * @param process The process taken from another CPU.
+     * @param time    The current time.
+     */
+    @Override
+    void receive (PCB process, int time) {
+
+        decreasePriority(time);
+        fairQueue.setVruntime(process.getRow(), fairQueue.getMinimum());
+        super.receive(process, time);
+    }
+
+    /**
+     * Preempts the running process when its slice is used up and another process has run less,
+     * or when a process that just entered the queue is behind it by more than the minimum granularity.
+     *
+     * @param time The current time.
+     */
+    @Override
+    protected void interruptProcess (int time) {
+
+        PCB head = fairQueue.peek();
+        if (head == null) {
+            return;
+        }
+        long current = runningVruntime(time);
+        long next = fairQueue.peekVruntime();
+
+        if (time - sliceStart() >= slice()) {
+            if (next <= current) {
+                preemptRunning(time, current);
+            }
+            else { //the running process is still the furthest behind, so it gets another slice
+                sliceRow = runningProcess.getRow();
+                sliceStart = time;
+            }
+        }
+        else if (head.getReadyQueueTime() == time
+                && current - next > FairQueue.scale(minimumGranularity, FairQueue.weightOf(head.getPriority()))) {
+            preemptRunning(time, current);
+        }
+    }
+
+    /**
+     * Gets the end of the slice of the running process.
+     *
+     * @param time The current time.
+     * @return The time at which the running process uses up its slice, or Integer.MAX_VALUE if
+     *         no process is waiting for the CPU.
+     */
+    @Override
+    protected int nextInterruptTime (int time) {
+
+        if (fairQueue.isEmpty()) {
+            return Integer.MAX_VALUE;
+        }
+        long end = sliceStart() + slice();
+        return (int) Math.min(Math.max(end, time + 1L), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the minimum granularity, which is the quantum CFS is created with.
+     *
+     * @return The shortest time slice.
+     */
+    @Override
+    protected int getQuantum () {
+        return minimumGranularity;
+    }
+
+    /**
+     * Saves the ready queue and the virtual runtimes for a checkpoint, followed by the current
+     * time slice.
+     *
+     * @return The state of the queue and of the time slice.
+     */
+    @Override
+    protected int[] saveReadyQueue () {
+
+        int[] queue = fairQueue.save(table.size());
+        int[] saved = Arrays.copyOf(queue, queue.length + 2);
+        saved[queue.length] = sliceRow;
+        saved[queue.length + 1] = sliceStart;
+        return saved;
+    }
+
+    @Override
+    protected void restoreReadyQueue (int[] saved) {
+
+        int k = fairQueue.restore(saved, table);
+        sliceRow = saved[k];
+        sliceStart = saved[k + 1];
+    }
+
+    /**
+     * Adds the current run of the running process to its virtual runtime and preempts it.
+     */
+    private void preemptRunning (int time, long vruntime) {
+
+        fairQueue.setVruntime(runningProcess.getRow(), vruntime);
+        preempt(time);
+    }
+
+    /**
+     * Gets the virtual runtime of the running process at the given time, counting its current run.
+     */
+    private long runningVruntime (int time) {
+
+        return fairQueue.place(runningProcess.getRow()) + FairQueue.scale(time - runningProcess.getDeploymentTime(),
+                FairQueue.weightOf(runningProcess.getPriority()));
+    }
+
+    /**
+     * Gets the slice of the running process: its share by weight of the target latency, which
+     * grows to a minimum granularity per runnable process when there are many of them.
+     */
+    private long slice () {
+
+        int weight = FairQueue.weightOf(runningProcess.getPriority());
+        long slice = period(fairQueue.size() + 1) * weight / (fairQueue.getTotalWeight() + weight);
+        return Math.max(slice, minimumGranularity);
+    }
+
+    /**
+     * Gets the time within which a number of runnable processes should each run once.
+     */
+    private long period (int count) {
+        return Math.max(targetLatency, (long) count * minimumGranularity);
+    }
+
+    /**
+     * Gets the time the slice of the running process started: when it was dispatched, or when it
+     * last got a new slice without leaving the CPU.
+     */
+    private int sliceStart () {
+
+        int deploymentTime = runningProcess.getDeploymentTime();
+        return runningProcess.getRow() == sliceRow ? Math.max(sliceStart, deploymentTime) : deploymentTime;
+    }
+}
@@ -0,0 +1,263 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Snapshot of the full state of a scheduler at some time of a run: the clock, the Gantt chart
+ * counter, every column of the process table, the running process and the exact layout of the
+ * ready and waiting queues. Restoring it into a scheduler created the same way, over the same
+ * workload, continues the run exactly as if it had never stopped.
+ *
+ * A snapshot is taken by copying the state on the simulation thread; encoding and writing it
+ * happen later, on the thread of a Writer, so the run is only held up for the copy.
+ *
+ * The file starts with a magic number and the format version, followed by big-endian fields:
+ * the class of the scheduler, the maximum time, the quantum, the current time, the Gantt counter, the event
+ * count, the number of processes read from the source, the rows of the process table column by
+ * column, the row of the running process or -1, the ready queue layout and the waiting queue layout.
+ */
+final class Checkpoint {
+
+    /** Magic number at the start of every checkpoint, "PCBC" in ASCII. */
+    static final int MAGIC = 0x50434243;
+
+    /** Version of the format written by this class. */
+    static final int VERSION = 3;
+
+    final String algorithm;
+    final int maximumTime;
+
+    /** Quantum of the scheduler, or 0 for an algorithm without one. */
+    final int quantum;
+
+    final int currentTime;
+    final int count;
+    final long eventCount;
+
+    /** Number of processes consumed from the process source, including those that never arrived. */
+    final long consumed;
+
+    final ProcessTable table;
+
+    /** Row of the running process, or -1 if the CPU is idle. */
+    final int runningRow;
+
+    /** Layout of the ready queue, as saved by the scheduler. */
+    final int[] readyQueue;
+
+    /** Layout of the waiting queue, as saved by ComebackQueue. */
+    final long[] waitingQueue;
+
+    Checkpoint(String algorithm, int maximumTime, int quantum, int currentTime, int count, long eventCount,
+               long consumed, ProcessTable table, int runningRow, int[] readyQueue, long[] waitingQueue) {
+
+        this.algorithm = algorithm;
+        this.maximumTime = maximumTime;
+        this.quantum = quantum;
+        this.currentTime = currentTime;
+        this.count = count;
+        this.eventCount = eventCount;
+        this.consumed = consumed;
+        this.table = table;
+        this.runningRow = runningRow;
+        this.readyQueue = readyQueue;
+        this.waitingQueue = waitingQueue;
+    }
+
+    /**
+     * Writes the checkpoint to a file, through a temporary file that replaces it once complete,
+     * so a crash while writing leaves the previous checkpoint intact.
+     *
+     * @param path The checkpoint file to create or replace.
+     * @throws IOException if the file cannot be written.
+     */
+    void write(Path path) throws IOException {
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(algorithm);
+            out.writeInt(maximumTime);
+            out.writeInt(quantum);
+            out.writeInt(currentTime);
+            out.writeInt(count);
+            out.writeLong(eventCount);
+            out.writeLong(consumed);
+
+            int rows = table.size();
+            out.writeInt(rows);
+            for (int[] column : columns(table)) {
+                for (int row = 0; row < rows; row++) {
+                    out.writeInt(column[row]);
+                }
+            }
+            for (int row = 0; row < rows; row++) {
+                out.writeBoolean(table.hasExecuted[row]);
+            }
+
+            out.writeInt(runningRow);
+            out.writeInt(readyQueue.length);
+            for (int value : readyQueue) {
+                out.writeInt(value);
+            }
+            out.writeInt(waitingQueue.length);
+            for (long value : waitingQueue) {
+                out.writeLong(value);
+            }
+        }
+        try {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads a checkpoint from a file.
+     *
+     * @param path The checkpoint file.
+     * @return The checkpoint.
+     * @throws IOException if the file cannot be read or is not a valid checkpoint.
+     */
+    static Checkpoint read(Path path) throws IOException {
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a checkpoint: " + path);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version " + version + ": " + path);
+            }
+            String algorithm = in.readUTF();
+            int maximumTime = in.readInt();
+            int quantum = in.readInt();
+            int currentTime = in.readInt();
+            int count = in.readInt();
+            long eventCount = in.readLong();
+            long consumed = in.readLong();
+
+            int rows = in.readInt();
+            ProcessTable table = new ProcessTable(rows);
+            for (int row = 0; row < rows; row++) {
+                table.add(0, 0, 0, 0, 0);
+            }
+            for (int[] column : columns(table)) {
+                for (int row = 0; row < rows; row++) {
+                    column[row] = in.readInt();
+                }
+            }
+            for (int row = 0; row < rows; row++) {
+                table.hasExecuted[row] = in.readBoolean();
+            }
+
+            int runningRow = in.readInt();
+            int[] readyQueue = new int[in.readInt()];
+            for (int i = 0; i < readyQueue.length; i++) {
+                readyQueue[i] = in.readInt();
+            }
+            long[] waitingQueue = new long[in.readInt()];
+            for (int i = 0; i < waitingQueue.length; i++) {
+                waitingQueue[i] = in.readLong();
+            }
+            return new Checkpoint(algorithm, maximumTime, quantum, currentTime, count, eventCount, consumed,
+                    table, runningRow, readyQueue, waitingQueue);
+        }
+        catch (EOFException e) {
+            throw new IOException("Truncated checkpoint: " + path, e);
+        }
+    }
+
+    /**
+     * Gets the int columns of a table, in the order they are written.
+     *
+     * @param table The table.
+     * @return The columns.
+     */
+    private static int[][] columns(ProcessTable table) {
+        return new int[][]{table.pid, table.arrivalTime, table.burstTime, table.remainingTime,
+                table.deploymentTime, table.comeBack, table.period, table.deadline, table.priority, table.initialPriority,
+                table.interruptTime, table.finishTime, table.executionTime, table.readyQueueTime,
+                table.waitingQueueTime};
+    }
+
+    /**
+     * Writes checkpoints to a file on a background thread, one at a time. A new checkpoint waits
+     * for the previous one to be written, so at most one copy of the state is pending.
+     */
+    static final class Writer implements Closeable {
+
+        private final Path path;
+        private final ExecutorService thread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread writer = new Thread(runnable, "checkpoint-writer");
+            writer.setDaemon(true);
+            return writer;
+        });
+
+        /** The checkpoint being written, or null. */
+        private Future<?> pending;
+
+        Writer(Path path) {
+            this.path = path;
+        }
+
+        /**
+         * Hands a checkpoint to the background thread, after the previous one was written.
+         *
+         * @param checkpoint The checkpoint to write.
+         * @throws UncheckedIOException if the previous checkpoint could not be written.
+         */
+        void submit(Checkpoint checkpoint) {
+
+            await();
+            pending = thread.submit(() -> {
+                checkpoint.write(path);
+                return null;
+            });
+        }
+
+        /**
+         * Waits for the pending checkpoint to be written.
+         *
+         * @throws UncheckedIOException if it could not be written.
+         */
+        void await() {
+
+            if (pending == null) {
+                return;
+            }
+            try {
+                AlgorithmComparison.getResult(pending);
+            }
+            catch (IllegalStateException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw new UncheckedIOException("Cannot write checkpoint " + path, (IOException) e.getCause());
+                }
+                throw e;
+            }
+            finally {
+                pending = null;
+            }
+        }
+
+        /**
+         * Waits for the pending checkpoint, then stops the background thread.
+         */
+        @Override
+        public void close() {
+
+            try {
+                await();
+            }
+            finally {
+                thread.shutdown();
+            }
+        }
+    }
+}
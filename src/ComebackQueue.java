@@ -0,0 +1,200 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Waiting queue of processes keyed on the time they come back to the ready queue.
+ * Implemented as a binary min-heap over primitive arrays, so finding the next comeback
+ * is O(1) and releasing a process is O(log n) without scanning the whole queue.
+ * Processes with the same comeback time are released in the order they were added.
+ */
+public class ComebackQueue implements Iterable<PCB> {
+
+    /** Comeback time of a process that never returns to the ready queue. */
+    public static final long NEVER = Long.MAX_VALUE;
+
+    /** Comeback times, in heap order. */
+    private long[] comebackTimes;
+
+    /** Insertion numbers used to break ties between equal comeback times, in heap order. */
+    private long[] sequences;
+
+    /** Waiting processes, in heap order. */
+    private PCB[] processes;
+
+    /** Number of waiting processes. */
+    private int size;
+
+    /** Insertion number given to the next process added. */
+    private long nextSequence;
+
+    /**
+     * Constructs an empty waiting queue.
+     */
+    public ComebackQueue() {
+        comebackTimes = new long[16];
+        sequences = new long[16];
+        processes = new PCB[16];
+    }
+
+    /**
+     * Adds a process that comes back at the given time.
+     *
+     * @param process      The PCB (Process Control Block) object to be added.
+     * @param comebackTime The time at which the process returns, or NEVER.
+     */
+    public void add(PCB process, long comebackTime) {
+
+        if (size == processes.length) {
+            int capacity = size * 2;
+            comebackTimes = Arrays.copyOf(comebackTimes, capacity);
+            sequences = Arrays.copyOf(sequences, capacity);
+            processes = Arrays.copyOf(processes, capacity);
+        }
+        siftUp(size++, comebackTime, nextSequence++, process);
+    }
+
+    /**
+     * Gets the earliest comeback time in the queue.
+     *
+     * @return The earliest comeback time, or NEVER if the queue is empty.
+     */
+    public long peekTime() {
+        return size == 0 ? NEVER : comebackTimes[0];
+    }
+
+    /**
+     * Removes and returns the process that comes back first.
+     *
+     * @return The process with the earliest comeback time.
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public PCB poll() {
+
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        PCB first = processes[0];
+        size--;
+        if (size > 0) {
+            siftDown(0, comebackTimes[size], sequences[size], processes[size]);
+        }
+        processes[size] = null;
+        return first;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Iterates over the waiting processes in no particular order.
+     *
+     * @return An iterator over the waiting processes.
+     */
+    @Override
+    public Iterator<PCB> iterator() {
+
+        return new Iterator<>() {
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public PCB next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return processes[index++];
+            }
+        };
+    }
+
+    /**
+     * Saves the heap exactly as it is laid out, so restoring it releases the processes in the
+     * same order, ties included.
+     *
+     * @return The next insertion number, the size, then the comeback time, insertion number and
+     *         table row of every process in heap order.
+     */
+    long[] save() {
+
+        long[] saved = new long[2 + 3 * size];
+        saved[0] = nextSequence;
+        saved[1] = size;
+        for (int i = 0; i < size; i++) {
+            saved[2 + 3 * i] = comebackTimes[i];
+            saved[3 + 3 * i] = sequences[i];
+            saved[4 + 3 * i] = processes[i].getRow();
+        }
+        return saved;
+    }
+
+    /**
+     * Replaces the content of the queue with a heap saved by save.
+     *
+     * @param saved The saved heap.
+     * @param table The process table the saved rows belong to.
+     */
+    void restore(long[] saved, ProcessTable table) {
+
+        nextSequence = saved[0];
+        size = (int) saved[1];
+        int capacity = Math.max(16, Integer.highestOneBit(Math.max(size, 1)) * 2);
+        comebackTimes = new long[capacity];
+        sequences = new long[capacity];
+        this.processes = new PCB[capacity];
+        for (int i = 0; i < size; i++) {
+            set(i, saved[2 + 3 * i], saved[3 + 3 * i], table.view((int) saved[4 + 3 * i]));
+        }
+    }
+
+    private boolean precedes(long time1, long sequence1, long time2, long sequence2) {
+        return time1 < time2 || (time1 == time2 && sequence1 < sequence2);
+    }
+
+    private void siftUp(int index, long time, long sequence, PCB process) {
+
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!precedes(time, sequence, comebackTimes[parent], sequences[parent])) {
+                break;
+            }
+            set(index, comebackTimes[parent], sequences[parent], processes[parent]);
+            index = parent;
+        }
+        set(index, time, sequence, process);
+    }
+
+    private void siftDown(int index, long time, long sequence, PCB process) {
+
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && precedes(comebackTimes[right], sequences[right], comebackTimes[child], sequences[child])) {
+                child = right;
+            }
+            if (!precedes(comebackTimes[child], sequences[child], time, sequence)) {
+                break;
+            }
+            set(index, comebackTimes[child], sequences[child], processes[child]);
+            index = child;
+        }
+        set(index, time, sequence, process);
+    }
+
+    private void set(int index, long time, long sequence, PCB process) {
+        comebackTimes[index] = time;
+        sequences[index] = sequence;
+        processes[index] = process;
+    }
+}
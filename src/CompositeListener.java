@@ -0,0 +1,67 @@
+import java.util.Arrays;
+
+/**
+ * Listener that forwards every event to several listeners, in the order they were added.
+ */
+class CompositeListener implements SchedulingListener {
+
+    private SchedulingListener[] listeners;
+
+    CompositeListener(SchedulingListener first, SchedulingListener second) {
+        listeners = new SchedulingListener[]{first, second};
+    }
+
+    void add(SchedulingListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    @Override
+    public void onArrive(PCB process, int time) {
+        for (SchedulingListener listener : listeners) {
+            listener.onArrive(process, time);
+        }
+    }
+
+    @Override
+    public void onDispatch(PCB process, int time) {
+        for (SchedulingListener listener : listeners) {
+            listener.onDispatch(process, time);
+        }
+    }
+
+    @Override
+    public void onPreempt(PCB process, int time) {
+        for (SchedulingListener listener : listeners) {
+            listener.onPreempt(process, time);
+        }
+    }
+
+    @Override
+    public void onComplete(PCB process, int time) {
+        for (SchedulingListener listener : listeners) {
+            listener.onComplete(process, time);
+        }
+    }
+
+    @Override
+    public void onComeback(PCB process, int time) {
+        for (SchedulingListener listener : listeners) {
+            listener.onComeback(process, time);
+        }
+    }
+
+    @Override
+    public void onAge(PCB process, int priority, int time) {
+        for (SchedulingListener listener : listeners) {
+            listener.onAge(process, priority, time);
+        }
+    }
+
+    @Override
+    public void onFinish(int time) {
+        for (SchedulingListener listener : listeners) {
+            listener.onFinish(time);
+        }
+    }
+}
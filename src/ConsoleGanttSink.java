@@ -0,0 +1,89 @@
+import java.io.PrintStream;
+
+/**
+ * Gantt sink that prints the chart with ANSI colors as the entries come in,
+ * five entries per line.
+ */
+public class ConsoleGanttSink implements GanttSink {
+
+    /** Number of entries printed on a line of the chart. */
+    static final int ENTRIES_PER_LINE = 5;
+
+    private static final String HEADER = "\u001B[31m\u001B[1mGantt Chart\u001B[0m : ";
+    private static final String RULE = "\u001B[1m" + "_".repeat(83);
+
+    private final PrintStream out;
+
+    /** Buffer the current entry is formatted into. */
+    private final StringBuilder buffer = new StringBuilder(64);
+
+    /** Number of entries in the chart so far, including those printed before a resume. */
+    private long entries;
+
+    /**
+     * Constructs a sink printing to the given stream.
+     *
+     * @param out The stream to print to.
+     */
+    public ConsoleGanttSink(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void begin(long entries) {
+        this.entries = entries;
+        out.println(HEADER);
+        out.println(RULE);
+    }
+
+    @Override
+    public void entry(int pid, int start, int end) {
+        buffer.setLength(0);
+        format(buffer, pid, start, end, ++entries);
+        out.print(buffer);
+    }
+
+    @Override
+    public void end() {
+        out.println("\n" + RULE);
+    }
+
+    /**
+     * Formats an entry of the chart, followed by a line break if it is the last entry of its line.
+     *
+     * @param buffer The buffer to append the entry to.
+     * @param pid    The ID of the process that held the CPU.
+     * @param start  The time at which the process was deployed.
+     * @param end    The time at which the process left the CPU.
+     * @param index  The number of the entry in the chart, starting from 1.
+     */
+    static void format(StringBuilder buffer, int pid, int start, int end, long index) {
+
+        buffer.append("\u001B[1m");
+        int mark = buffer.length();
+        pad(buffer.append(start), mark, 3);
+        buffer.append("\u001B[31m |");
+        mark = buffer.length();
+        pad(buffer.append('P').append(pid), mark, 2);
+        buffer.append("|\u001B[0m \u001B[1m");
+        mark = buffer.length();
+        pad(buffer.append(end), mark, 3);
+        buffer.append('\t');
+        if (index % ENTRIES_PER_LINE == 0) {
+            buffer.append(System.lineSeparator());
+        }
+    }
+
+    /**
+     * Pads the text appended since a mark with spaces up to a width, like the %-ns conversion.
+     *
+     * @param buffer The buffer holding the text.
+     * @param mark   The length of the buffer before the text was appended.
+     * @param width  The minimum width of the text.
+     */
+    private static void pad(StringBuilder buffer, int mark, int width) {
+        for (int i = buffer.length() - mark; i < width; i++) {
+            buffer.append(' ');
+        }
+    }
+}
@@ -0,0 +1,91 @@
+import java.util.SplittableRandom;
+
+/**
+ * Random distribution of a non-negative quantity of a synthetic workload, such as burst times
+ * or comeback delays. The factories cover the shapes used to stress the schedulers, from
+ * uniform values to heavy-tailed ones.
+ */
+public interface Distribution {
+
+    /**
+     * Draws a value.
+     *
+     * @param random The generator to draw from.
+     * @return The value drawn.
+     */
+    double sample(SplittableRandom random);
+
+    /**
+     * Always gives the same value.
+     *
+     * @param value The value.
+     * @return The distribution.
+     */
+    static Distribution constant(double value) {
+        return random -> value;
+    }
+
+    /**
+     * Gives integers spread evenly between two bounds.
+     *
+     * @param min The lowest value.
+     * @param max The highest value, included.
+     * @return The distribution.
+     */
+    static Distribution uniform(int min, int max) {
+
+        if (max < min) {
+            throw new IllegalArgumentException("Empty range " + min + ".." + max);
+        }
+        return random -> min + random.nextLong((long) max - min + 1);
+    }
+
+    /**
+     * Gives values with the exponential distribution, the memoryless shape of CPU bursts in
+     * classic queueing models.
+     *
+     * @param mean The mean value.
+     * @return The distribution.
+     */
+    static Distribution exponential(double mean) {
+
+        if (!(mean > 0)) {
+            throw new IllegalArgumentException("Mean must be positive: " + mean);
+        }
+        return random -> -mean * Math.log(1 - random.nextDouble());
+    }
+
+    /**
+     * Gives values with the Pareto distribution, a heavy tail where a few very long jobs hold most
+     * of the work. A shape of 2 or less gives an infinite variance.
+     *
+     * @param scale The lowest value.
+     * @param shape The tail index; the smaller it is, the heavier the tail.
+     * @return The distribution.
+     */
+    static Distribution pareto(double scale, double shape) {
+
+        if (!(scale > 0) || !(shape > 0)) {
+            throw new IllegalArgumentException("Scale and shape must be positive: " + scale + ", " + shape);
+        }
+        return random -> scale / Math.pow(1 - random.nextDouble(), 1 / shape);
+    }
+
+    /**
+     * Mixes two exponential distributions, giving many short jobs and a few long ones.
+     *
+     * @param shortMean    The mean of the short jobs.
+     * @param longMean     The mean of the long jobs.
+     * @param longFraction The fraction of long jobs, between 0 and 1.
+     * @return The distribution.
+     */
+    static Distribution bimodal(double shortMean, double longMean, double longFraction) {
+
+        if (longFraction < 0 || longFraction > 1) {
+            throw new IllegalArgumentException("Fraction must be between 0 and 1: " + longFraction);
+        }
+        Distribution shortJobs = exponential(shortMean);
+        Distribution longJobs = exponential(longMean);
+        return random -> random.nextDouble() < longFraction ? longJobs.sample(random) : shortJobs.sample(random);
+    }
+}
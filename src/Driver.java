@@ -1,27 +1,262 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
  * The main driver class to execute the scheduling algorithms.
+ *
+ * Without a command, it shows the interactive menu. The run command runs a single job from its
+ * options and prints the result, the serve command starts a SimulationServer, and the import
+ * command turns a Linux scheduler trace into a workload file:
+ * <pre>
+ * java Driver run --algorithm round-robin --quantum 5 --max-time 200 --workload trace.bin --format json
+ * java Driver serve --port 8080 --threads 8
+ * perf sched script | java Driver import --input - --output trace.bin --time-unit 1000
+ * </pre>
  */
 public class Driver {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
 
-        PCB[] processes = {new PCB(1, 0, 10, 2, 3),
+        if (args.length > 0 && args[0].equals("run")) {
+            int status = runJob(Arrays.copyOfRange(args, 1, args.length));
+            if (status != 0) {
+                System.exit(status);
+            }
+            return;
+        }
+        if (args.length > 0 && args[0].equals("serve")) {
+            int status = serve(Arrays.copyOfRange(args, 1, args.length));
+            if (status != 0) {
+                System.exit(status);
+            }
+            return;
+        }
+        if (args.length > 0 && args[0].equals("import")) {
+            int status = importTrace(Arrays.copyOfRange(args, 1, args.length));
+            if (status != 0) {
+                System.exit(status);
+            }
+            return;
+        }
+        runMenu(args);
+    }
+
+    /**
+     * Gets the workload of the example, used when no other workload is given.
+     *
+     * @return The processes of the example.
+     */
+    static PCB[] sampleProcesses() {
+
+        return new PCB[]{new PCB(1, 0, 10, 2, 3),
                 new PCB(2, 1, 8, 4, 2),
                 new PCB(3, 3, 14, 6, 3),
                 new PCB(4, 4, 7, 8, 1),
                 new PCB(5, 6, 5, 3, 0),
                 new PCB(6, 7, 4, 6, 1),
                 new PCB(7, 8, 6, 9, 2)};
+    }
 
+    /**
+     * Runs a single job from command line options and prints its result.
+     *
+     * @param args The options of the job, such as --algorithm fcfs.
+     * @return The exit status: 0 on success, 2 for invalid options, 1 if the workload cannot be read.
+     */
+    static int runJob(String[] args) {
 
-       while (true) {
+        try {
+            SimulationJob job = new SimulationJob(parseOptions(args), ProcessTable.copyOf(sampleProcesses()));
+            job.run(System.out);
+            return 0;
+        }
+        catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: java Driver run --algorithm <name> [--quantum <n>] [--max-time <n>]"
+                    + " [--engine event|tick] [--format text|csv|json] [--workload <trace>]"
+                    + " [--io fifo|sstf|scan,...] [--trace <file>]");
+            return 2;
+        }
+        catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Starts a simulation server that runs until the program is stopped.
+     *
+     * @param args The options of the server: --port and --threads.
+     * @return The exit status: 0 once the server is started, 2 for invalid options, 1 if the port cannot be bound.
+     */
+    static int serve(String[] args) {
 
-           Scanner scanner = new Scanner(System.in);
+        try {
+            Map<String, String> options = parseOptions(args);
+            int port = Integer.parseInt(options.getOrDefault("port", "8080"));
+            int threads = Integer.parseInt(options.getOrDefault("threads",
+                    String.valueOf(Runtime.getRuntime().availableProcessors())));
+            options.keySet().removeAll(Arrays.asList("port", "threads"));
+            if (!options.isEmpty()) {
+                throw new IllegalArgumentException("Unknown option: " + options.keySet().iterator().next());
+            }
+
+            SimulationServer server = new SimulationServer(port, threads, ProcessTable.copyOf(sampleProcesses()));
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+            System.out.println("Listening on http://127.0.0.1:" + server.getPort() + "/simulate");
+            return 0;
+        }
+        catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: java Driver serve [--port <n>] [--threads <n>]");
+            return 2;
+        }
+        catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Imports the scheduler events of a Linux trace into a workload file with SchedTraceImporter.
+     *
+     * @param args The options of the import: --input, a file or - for the standard input, --output
+     *             and --time-unit, in microseconds.
+     * @return The exit status: 0 on success, 2 for invalid options, 1 if a file cannot be read or written
+     *         or the input holds no scheduler event.
+     */
+    static int importTrace(String[] args) {
+
+        try {
+            Map<String, String> options = parseOptions(args);
+            String input = options.remove("input");
+            String output = options.remove("output");
+            int timeUnit = Integer.parseInt(options.getOrDefault("time-unit",
+                    String.valueOf(SchedTraceImporter.DEFAULT_TIME_UNIT)));
+            options.remove("time-unit");
+            if (input == null || output == null) {
+                throw new IllegalArgumentException("Missing --" + (input == null ? "input" : "output"));
+            }
+            if (!options.isEmpty()) {
+                throw new IllegalArgumentException("Unknown option: " + options.keySet().iterator().next());
+            }
+
+            SchedTraceImporter importer = new SchedTraceImporter(timeUnit);
+            if (input.equals("-")) {
+                importer.readStandardInput();
+            }
+            else {
+                try (Reader in = Files.newBufferedReader(Path.of(input), StandardCharsets.UTF_8)) {
+                    importer.read(in);
+                }
+            }
+            if (importer.getEventCount() == 0) {
+                System.err.println("Error: no sched_switch or sched_wakeup event recognized in "
+                        + importer.getLineCount() + " lines");
+                return 1;
+            }
+            ProcessTable table = importer.toTable();
+            WorkloadFile.write(Path.of(output), table);
+            System.out.println("Imported " + table.size() + " processes from " + importer.getTaskCount() + " tasks, "
+                    + importer.getEventCount() + " events in " + importer.getLineCount() + " lines");
+            return 0;
+        }
+        catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: java Driver import --input <file|-> --output <workload> [--time-unit <microseconds>]");
+            return 2;
+        }
+        catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Reads options given as --name value or --name=value.
+     *
+     * @param args The arguments.
+     * @return The options by name, without the dashes.
+     * @throws IllegalArgumentException if an argument is not an option or an option has no value.
+     */
+    static Map<String, String> parseOptions(String[] args) {
+
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Not an option: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            int equals = name.indexOf('=');
+            if (equals >= 0) {
+                options.put(name.substring(0, equals), name.substring(equals + 1));
+            }
+            else if (i + 1 < args.length) {
+                options.put(name, args[++i]);
+            }
+            else {
+                throw new IllegalArgumentException("Missing value for --" + name);
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Shows the menu until the user chooses to exit or the input ends.
+     *
+     * @param args The flags of the menu: --event-driven and --workload with a trace.
+     * @throws IOException if the trace cannot be read.
+     */
+    private static void runMenu(String[] args) throws IOException {
+
+        PCB[] processes = sampleProcesses();
+
+        boolean eventDriven = Arrays.asList(args).contains("--event-driven");
+
+        int workload = Arrays.asList(args).indexOf("--workload");
+        if (workload >= 0 && workload + 1 < args.length) {
+            processes = WorkloadFile.readTable(Path.of(args[workload + 1])).views();
+        }
+
+        Scanner scanner = new Scanner(System.in);
+
+       while (true) {
 
            showMenu();
-           int input = scanner.nextInt();
+           int input = scanner.hasNextInt() ? scanner.nextInt() : 0;
+
+           if (input == 7) {
+               AlgorithmComparison.printTable(AlgorithmComparison.runAll(ProcessTable.copyOf(processes), 200, 5), System.out);
+               continue;
+           }
+           if (input == 8) {
+               ParameterSweep sweep = new ParameterSweep(ProcessTable.copyOf(processes),
+                       EnumSet.of(Algorithm.ROUND_ROBIN, Algorithm.PREEMPTIVE_PRIORITY, Algorithm.NON_PREEMPTIVE_PRIORITY),
+                       ParameterSweep.range(1, 20, 1), new int[]{200});
+               ParameterSweep.printCurves(sweep.run(), SchedulingResult::getAverageWaitingTime, "Waiting", System.out);
+               continue;
+           }
+           if (input == 10) {
+               ReplicationRunner replications = ReplicationRunner.poisson(100, 10, 0.5,
+                       EnumSet.allOf(Algorithm.class), 2000, 5);
+               ReplicationRunner.printTable(replications.run(), System.out);
+               continue;
+           }
+           if (input == 9) {
+               SmpScheduling smp = new SmpScheduling(Algorithm.ROUND_ROBIN, ProcessTable.copyOf(processes), 4, 200, 5);
+               smp.setEventDriven(eventDriven);
+               smp.runAlgorithm();
+               continue;
+           }
 
            Scheduling scheduler = switch (input) {
                case 1 -> new FCFS(processes, 200);
@@ -30,15 +265,27 @@ public class Driver {
                case 4 -> new RoundRobin(processes, 200, 5);
                case 5 -> new PreemptivePriority(processes, 200, 5);
                case 6 -> new NonPreemptivePriority(processes, 200, 5);
-               default -> {
-                   System.out.println("Terminating program...");
-                   System.exit(0);
-                   yield null;
-                   //do nothing here
-               }
+               case 11 -> new MLFQ(processes, 200, 5);
+               case 12 -> new CFS(processes, 200, 5);
+               case 13 -> new EDF(processes, 200);
+               case 14 -> new RateMonotonic(processes, 200);
+               default -> null;
            };
+           if (scheduler == null) {
+               System.out.println("Terminating program...");
+               return;
+           }
+
+           if (scheduler instanceof RealTimeScheduling) { //check the utilization bounds before the run
+               RealTimeScheduling.analyze(new TableSource(ProcessTable.copyOf(processes))).print(System.out);
+           }
 
+           LatencyCollector latencies = new LatencyCollector();
+           scheduler.addListener(latencies);
+           scheduler.setEventDriven(eventDriven);
            scheduler.runAlgorithm();
+           latencies.print(System.out);
+           System.out.println();
        }
     }
 
@@ -49,7 +296,15 @@ public class Driver {
                             "3) Shortest Remaining Time First\n" +
                             "4) Round Robin\n" +
                             "5) Preemptive priority scheduling with aging\n" +
-                            "6) Non-preemptive priority scheduling with aging\n");
+                            "6) Non-preemptive priority scheduling with aging\n" +
+                            "7) Compare all algorithms\n" +
+                            "8) Sweep the quantum of Round Robin and the aging interval of priority scheduling\n" +
+                            "9) Round Robin on 4 CPUs with load balancing and work stealing\n" +
+                            "10) Replicate all algorithms on random workloads with confidence intervals\n" +
+                            "11) Multilevel feedback queue\n" +
+                            "12) Completely fair scheduler\n" +
+                            "13) Earliest deadline first\n" +
+                            "14) Rate monotonic\n");
         System.out.println("Enter a number to choose an algorithm, other choice to exit.\n");
     }
 }
@@ -0,0 +1,27 @@
+/**
+ * Represents the Earliest Deadline First scheduling algorithm.
+ * Extends the RealTimeScheduling class.
+ *
+ * The job with the earliest absolute deadline runs, and a job released with an earlier deadline
+ * than the running one preempts it; jobs with the same deadline run in the order they became
+ * ready. EDF meets every deadline whenever the density of the tasks is at most 1.
+ */
+public class EDF extends RealTimeScheduling {
+
+    EDF(PCB[] processes, int maximumTime) {
+        this(ProcessTable.copyOf(processes), maximumTime);
+    }
+
+    EDF(ProcessTable table, int maximumTime) {
+        this(new TableSource(table), maximumTime);
+    }
+
+    EDF(ProcessSource source, int maximumTime) {
+        super(source, maximumTime);
+    }
+
+    @Override
+    protected long keyOf(PCB process) {
+        return IndexedHeap.key(absoluteDeadlineOf(process), process.getReadyQueueTime());
+    }
+}
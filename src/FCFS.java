@@ -3,17 +3,25 @@ import java.util.*;
 public class FCFS extends Scheduling {
 
     FCFS (PCB[] processes, int maximumTime) {
+        this(ProcessTable.copyOf(processes), maximumTime);
+    }
+
+    FCFS (ProcessTable table, int maximumTime) {
+        this(new TableSource(table), maximumTime);
+    }
+
+    FCFS (ProcessSource source, int maximumTime) {
 
-        super(processes, maximumTime);
+        super(source, maximumTime);
         isPreemptive = false;
         readyQueue = new LinkedList<>();
-        waitingQueue = new LinkedList<>();
+        waitingQueue = new ComebackQueue();
     }
 
     @Override
     protected void resetProperties (PCB process, int countWaiting) {
         process.setReadyQueueTime(countWaiting); //update the time of last comeback to the current time
-        process.setRemainingTime(process.burstTime); //reset the remaining time
+        process.setRemainingTime(process.getBurstTime()); //reset the remaining time
     }
 
 }
@@ -0,0 +1,558 @@
+import java.util.*;
+
+/**
+ * Ready queue of a completely fair scheduler: the processes ordered by virtual runtime in a
+ * red-black tree, with the leftmost node cached so the head is found in constant time, and
+ * removed in amortized constant time, at any number of runnable processes.
+ *
+ * The tree is linked through arrays indexed by the row of each process in its table, so
+ * offering and polling allocate nothing. The queue also keeps the virtual runtime of every
+ * row, queued or not, the total weight of the queued processes and the minimum virtual
+ * runtime, which only moves forward. A process queued for the first time starts a debit
+ * after the minimum, so a stream of new processes cannot keep the others off the CPU.
+ *
+ * Virtual runtime advances by VRUNTIME_PER_UNIT per time unit run at the weight of priority 0,
+ * and proportionally faster for lighter processes. Processes with equal
+ * virtual runtimes leave the queue in the order they entered it.
+ */
+public class FairQueue extends AbstractQueue<PCB> {
+
+    /** Virtual runtime of a row that was never placed in the queue. */
+    public static final long UNPLACED = Long.MIN_VALUE;
+
+    /** Weight of priority 0, the weight of nice 0 in Linux. */
+    public static final int NICE_0_WEIGHT = 1024;
+
+    /** Virtual runtime of one time unit run at NICE_0_WEIGHT. */
+    public static final long VRUNTIME_PER_UNIT = 1 << 20;
+
+    /**
+     * Weight of every priority, from the highest (0) to the lowest (19): the weights of nice
+     * 0 to 19 in Linux, each about 1.25 times the next.
+     */
+    private static final int[] WEIGHTS = {
+            1024, 820, 655, 526, 423,
+            335, 272, 215, 172, 137,
+            110, 87, 70, 56, 45,
+            36, 29, 23, 18, 15,
+    };
+
+    private static final int NIL = -1;
+
+    /** Links and colors of the tree, by row. */
+    private int[] left = new int[16];
+    private int[] right = new int[16];
+    private int[] parent = new int[16];
+    private boolean[] red = new boolean[16];
+
+    /** The view of every queued process and its weight when it was queued, by row. */
+    private PCB[] views = new PCB[16];
+    private int[] weights = new int[16];
+
+    /** Virtual runtime of every row. */
+    private long[] vruntime = new long[16];
+
+    private int root = NIL;
+
+    /** Row with the smallest virtual runtime, or NIL for an empty tree. */
+    private int leftmost = NIL;
+
+    private int size;
+    private long totalWeight;
+    private long minimum;
+
+    /** Virtual runtime after the minimum at which new processes start. */
+    private long startDebit;
+
+    public FairQueue () {
+        Arrays.fill(vruntime, UNPLACED);
+    }
+
+    /**
+     * Gets the weight of a priority, the weight of the lowest priority beyond the last one.
+     *
+     * @param priority The priority of a process.
+     * @return Its weight.
+     */
+    public static int weightOf (int priority) {
+        return WEIGHTS[Math.min(Math.max(priority, 0), WEIGHTS.length - 1)];
+    }
+
+    /**
+     * Converts a run time into virtual runtime.
+     *
+     * @param time   The time run.
+     * @param weight The weight of the process that ran.
+     * @return The virtual runtime it is worth.
+     */
+    public static long scale (long time, long weight) {
+        return time * (VRUNTIME_PER_UNIT * NICE_0_WEIGHT) / weight;
+    }
+
+    /**
+     * Gets the virtual runtime of a row.
+     *
+     * @param row The row of a process.
+     * @return Its virtual runtime, or UNPLACED if it never had one.
+     */
+    public long getVruntime (int row) {
+        return row < vruntime.length ? vruntime[row] : UNPLACED;
+    }
+
+    /**
+     * Sets the virtual runtime of a row that is not queued.
+     *
+     * @param row      The row of a process.
+     * @param vruntime Its new virtual runtime.
+     */
+    public void setVruntime (int row, long vruntime) {
+
+        ensureCapacity(row);
+        this.vruntime[row] = vruntime;
+    }
+
+    /**
+     * Sets the virtual runtime after the minimum at which processes placed from now on start.
+     *
+     * @param startDebit The debit of new processes.
+     */
+    public void setStartDebit (long startDebit) {
+        this.startDebit = startDebit;
+    }
+
+    /**
+     * Gets the virtual runtime of a row, placing it at the start debit after the minimum if it never had one.
+     *
+     * @param row The row of a process.
+     * @return Its virtual runtime.
+     */
+    public long place (int row) {
+
+        ensureCapacity(row);
+        if (vruntime[row] == UNPLACED) {
+            vruntime[row] = minimum + startDebit;
+        }
+        return vruntime[row];
+    }
+
+    public long getMinimum () {
+        return minimum;
+    }
+
+    /**
+     * Moves the minimum virtual runtime forward to the given value, if it is larger.
+     *
+     * @param vruntime The smallest virtual runtime of the runnable processes.
+     */
+    public void advanceMinimum (long vruntime) {
+        minimum = Math.max(minimum, vruntime);
+    }
+
+    /**
+     * Gets the total weight of the queued processes.
+     *
+     * @return The sum of their weights.
+     */
+    public long getTotalWeight () {
+        return totalWeight;
+    }
+
+    /**
+     * Gets the virtual runtime of the head of the queue.
+     *
+     * @return The smallest queued virtual runtime, or Long.MAX_VALUE if the queue is empty.
+     */
+    public long peekVruntime () {
+        return leftmost == NIL ? Long.MAX_VALUE : vruntime[leftmost];
+    }
+
+    /**
+     * Inserts a process at its virtual runtime, after the queued processes with the same one.
+     * A process that never had a virtual runtime is placed at the start debit after the minimum.
+     *
+     * @param process The process to add.
+     * @return true.
+     */
+    @Override
+    public boolean offer (PCB process) {
+
+        int row = process.getRow();
+        long key = place(row);
+        views[row] = process;
+        weights[row] = weightOf(process.getPriority());
+        left[row] = NIL;
+        right[row] = NIL;
+        red[row] = true;
+
+        int above = NIL;
+        boolean isLeftmost = true;
+        for (int node = root; node != NIL; ) {
+            above = node;
+            if (key < vruntime[node]) {
+                node = left[node];
+            }
+            else {
+                node = right[node];
+                isLeftmost = false;
+            }
+        }
+        parent[row] = above;
+        if (above == NIL) {
+            root = row;
+        }
+        else if (key < vruntime[above]) {
+            left[above] = row;
+        }
+        else {
+            right[above] = row;
+        }
+        if (isLeftmost) {
+            leftmost = row;
+        }
+        fixAfterInsertion(row);
+
+        size++;
+        totalWeight += weights[row];
+        return true;
+    }
+
+    @Override
+    public PCB peek () {
+        return leftmost == NIL ? null : views[leftmost];
+    }
+
+    @Override
+    public PCB poll () {
+
+        int row = leftmost;
+        if (row == NIL) {
+            return null;
+        }
+        PCB process = views[row];
+
+        //the leftmost node has no left child, so its successor is its right child or its parent
+        int replacement = right[row];
+        leftmost = replacement != NIL ? replacement : parent[row];
+
+        if (replacement != NIL) { //a lone child of a node is red, so it takes its place as black
+            link(parent[row], row, replacement);
+            red[replacement] = false;
+        }
+        else if (parent[row] == NIL) {
+            root = NIL;
+        }
+        else { //fix the tree while the node is still linked, then drop it
+            if (!red[row]) {
+                fixAfterDeletion(row);
+            }
+            link(parent[row], row, NIL);
+        }
+
+        views[row] = null;
+        size--;
+        totalWeight -= weights[row];
+        return process;
+    }
+
+    @Override
+    public void clear () {
+
+        Arrays.fill(views, null);
+        root = NIL;
+        leftmost = NIL;
+        size = 0;
+        totalWeight = 0;
+    }
+
+    @Override
+    public int size () {
+        return size;
+    }
+
+    /**
+     * Iterates over the queued processes in order of virtual runtime.
+     * Removal is not supported.
+     *
+     * @return An iterator over the queued processes.
+     */
+    @Override
+    public Iterator<PCB> iterator () {
+
+        return new Iterator<>() {
+
+            private int row = leftmost;
+
+            @Override
+            public boolean hasNext () {
+                return row != NIL;
+            }
+
+            @Override
+            public PCB next () {
+
+                if (row == NIL) {
+                    throw new NoSuchElementException();
+                }
+                PCB process = views[row];
+                row = successor(row);
+                return process;
+            }
+        };
+    }
+
+    /**
+     * Saves the queue and the virtual runtimes for a checkpoint.
+     *
+     * @param rows The number of rows in the table.
+     * @return The number of queued processes, their rows in queue order, the minimum virtual
+     *         runtime and the virtual runtime of every row, each long as two ints.
+     */
+    int[] save (int rows) {
+
+        int[] saved = new int[1 + size + 2 + 2 * rows];
+        int k = 0;
+        saved[k++] = size;
+        for (int row = leftmost; row != NIL; row = successor(row)) {
+            saved[k++] = row;
+        }
+        saved[k++] = (int) (minimum >>> 32);
+        saved[k++] = (int) minimum;
+        for (int row = 0; row < rows; row++) {
+            long value = getVruntime(row);
+            saved[k++] = (int) (value >>> 32);
+            saved[k++] = (int) value;
+        }
+        return saved;
+    }
+
+    /**
+     * Replaces the content of the queue with a state saved by save.
+     *
+     * @param saved The saved state, possibly followed by other values.
+     * @param table The process table the saved rows belong to.
+     * @return The number of values read.
+     */
+    int restore (int[] saved, ProcessTable table) {
+
+        clear();
+        int count = saved[0];
+        int k = 1 + count;
+        minimum = ((long) saved[k++] << 32) | (saved[k++] & 0xFFFFFFFFL);
+        for (int row = 0; row < table.size(); row++) {
+            setVruntime(row, ((long) saved[k++] << 32) | (saved[k++] & 0xFFFFFFFFL));
+        }
+        for (int i = 1; i <= count; i++) {
+            offer(table.view(saved[i]));
+        }
+        return k;
+    }
+
+    private int successor (int row) {
+
+        if (right[row] != NIL) {
+            row = right[row];
+            while (left[row] != NIL) {
+                row = left[row];
+            }
+            return row;
+        }
+        int above = parent[row];
+        while (above != NIL && row == right[above]) {
+            row = above;
+            above = parent[above];
+        }
+        return above;
+    }
+
+    /**
+     * Replaces a child of a node, or the root if there is no node.
+     */
+    private void link (int above, int child, int replacement) {
+
+        if (replacement != NIL) {
+            parent[replacement] = above;
+        }
+        if (above == NIL) {
+            root = replacement;
+        }
+        else if (left[above] == child) {
+            left[above] = replacement;
+        }
+        else {
+            right[above] = replacement;
+        }
+    }
+
+    private boolean isRed (int row) {
+        return row != NIL && red[row];
+    }
+
+    private int parentOf (int row) {
+        return row == NIL ? NIL : parent[row];
+    }
+
+    private int leftOf (int row) {
+        return row == NIL ? NIL : left[row];
+    }
+
+    private int rightOf (int row) {
+        return row == NIL ? NIL : right[row];
+    }
+
+    private void setRed (int row, boolean isRed) {
+        if (row != NIL) {
+            red[row] = isRed;
+        }
+    }
+
+    private void rotateLeft (int row) {
+
+        int child = right[row];
+        right[row] = left[child];
+        if (left[child] != NIL) {
+            parent[left[child]] = row;
+        }
+        link(parent[row], row, child);
+        left[child] = row;
+        parent[row] = child;
+    }
+
+    private void rotateRight (int row) {
+
+        int child = left[row];
+        left[row] = right[child];
+        if (right[child] != NIL) {
+            parent[right[child]] = row;
+        }
+        link(parent[row], row, child);
+        right[child] = row;
+        parent[row] = child;
+    }
+
+    /**
+     * Restores the red-black properties after a red node was added, as in java.util.TreeMap.
+     */
+    private void fixAfterInsertion (int row) {
+
+        while (row != root && isRed(parent[row])) {
+            int above = parent[row];
+            int grandparent = parent[above];
+            if (above == left[grandparent]) {
+                int uncle = right[grandparent];
+                if (isRed(uncle)) {
+                    red[above] = false;
+                    red[uncle] = false;
+                    red[grandparent] = true;
+                    row = grandparent;
+                }
+                else {
+                    if (row == right[above]) {
+                        row = above;
+                        rotateLeft(row);
+                    }
+                    red[parent[row]] = false;
+                    red[parent[parent[row]]] = true;
+                    rotateRight(parent[parent[row]]);
+                }
+            }
+            else {
+                int uncle = left[grandparent];
+                if (isRed(uncle)) {
+                    red[above] = false;
+                    red[uncle] = false;
+                    red[grandparent] = true;
+                    row = grandparent;
+                }
+                else {
+                    if (row == left[above]) {
+                        row = above;
+                        rotateRight(row);
+                    }
+                    red[parent[row]] = false;
+                    red[parent[parent[row]]] = true;
+                    rotateLeft(parent[parent[row]]);
+                }
+            }
+        }
+        red[root] = false;
+    }
+
+    /**
+     * Restores the red-black properties before a black leaf is removed, as in java.util.TreeMap.
+     */
+    private void fixAfterDeletion (int row) {
+
+        while (row != root && !isRed(row)) {
+            if (row == leftOf(parentOf(row))) {
+                int sibling = rightOf(parentOf(row));
+                if (isRed(sibling)) {
+                    setRed(sibling, false);
+                    setRed(parentOf(row), true);
+                    rotateLeft(parentOf(row));
+                    sibling = rightOf(parentOf(row));
+                }
+                if (!isRed(leftOf(sibling)) && !isRed(rightOf(sibling))) {
+                    setRed(sibling, true);
+                    row = parentOf(row);
+                }
+                else {
+                    if (!isRed(rightOf(sibling))) {
+                        setRed(leftOf(sibling), false);
+                        setRed(sibling, true);
+                        rotateRight(sibling);
+                        sibling = rightOf(parentOf(row));
+                    }
+                    setRed(sibling, isRed(parentOf(row)));
+                    setRed(parentOf(row), false);
+                    setRed(rightOf(sibling), false);
+                    rotateLeft(parentOf(row));
+                    row = root;
+                }
+            }
+            else {
+                int sibling = leftOf(parentOf(row));
+                if (isRed(sibling)) {
+                    setRed(sibling, false);
+                    setRed(parentOf(row), true);
+                    rotateRight(parentOf(row));
+                    sibling = leftOf(parentOf(row));
+                }
+                if (!isRed(rightOf(sibling)) && !isRed(leftOf(sibling))) {
+                    setRed(sibling, true);
+                    row = parentOf(row);
+                }
+                else {
+                    if (!isRed(leftOf(sibling))) {
+                        setRed(rightOf(sibling), false);
+                        setRed(sibling, true);
+                        rotateLeft(sibling);
+                        sibling = leftOf(parentOf(row));
+                    }
+                    setRed(sibling, isRed(parentOf(row)));
+                    setRed(parentOf(row), false);
+                    setRed(leftOf(sibling), false);
+                    rotateRight(parentOf(row));
+                    row = root;
+                }
+            }
+        }
+        setRed(row, false);
+    }
+
+    private void ensureCapacity (int row) {
+
+        if (row < vruntime.length) {
+            return;
+        }
+        int capacity = Math.max(vruntime.length * 2, row + 1);
+        int old = vruntime.length;
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        red = Arrays.copyOf(red, capacity);
+        views = Arrays.copyOf(views, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+        vruntime = Arrays.copyOf(vruntime, capacity);
+        Arrays.fill(vruntime, old, capacity, UNPLACED);
+    }
+}
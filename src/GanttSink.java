@@ -0,0 +1,29 @@
+/**
+ * Destination of the Gantt chart of a scheduler. The scheduler reports one entry per
+ * context switch and leaves the formatting, buffering and line wrapping to the sink.
+ */
+public interface GanttSink {
+
+    /**
+     * Starts a new chart, before the first entry of a run. A run resumed from a checkpoint
+     * continues the chart of the run it resumes, so its lines wrap at the same entries.
+     *
+     * @param entries The number of entries already in the chart: 0 for a new run, or the count
+     *                of the scheduler when resuming.
+     */
+    void begin(long entries);
+
+    /**
+     * Adds an entry to the chart.
+     *
+     * @param pid   The ID of the process that held the CPU.
+     * @param start The time at which the process was deployed.
+     * @param end   The time at which the process left the CPU.
+     */
+    void entry(int pid, int start, int end);
+
+    /**
+     * Ends the chart after the last entry of a run. Once this returns, every entry has been written.
+     */
+    void end();
+}
@@ -0,0 +1,285 @@
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * Ready queue ordered by a primitive key, for the policies that used a PriorityQueue with a
+ * comparator. The key of a process is computed once, when it enters the queue, and kept next to
+ * it in a binary min-heap over primitive arrays, so comparing two processes neither boxes nor
+ * calls back into the PCB, and offering and polling allocate nothing.
+ *
+ * The position of every queued process is indexed by its row in its table, so a process can be
+ * removed or moved after a change of its key in O(log n) by handle. Heaps that never hold the
+ * same row at the same time can share one index.
+ *
+ * The heap sifts exactly as java.util.PriorityQueue does, so processes with equal keys leave the
+ * queue in the same order as they did with the comparator the key replaces.
+ */
+public class IndexedHeap extends AbstractQueue<PCB> {
+
+    /**
+     * Heap positions by row, shared by the heaps built on it.
+     */
+    public static final class Index {
+
+        private int[] positions = new int[16];
+
+        public Index () {
+            Arrays.fill(positions, -1);
+        }
+
+        private void ensureCapacity (int row) {
+
+            if (row >= positions.length) {
+                int old = positions.length;
+                positions = Arrays.copyOf(positions, Math.max(old * 2, row + 1));
+                Arrays.fill(positions, old, positions.length, -1);
+            }
+        }
+    }
+
+    private final ToLongFunction<PCB> keyFunction;
+    private final Index index;
+
+    /** Keys and processes, in heap order. */
+    private long[] keys = new long[16];
+    private PCB[] processes = new PCB[16];
+
+    private int size;
+
+    /**
+     * Constructs an empty heap with its own index.
+     *
+     * @param keyFunction The key of a process; the process with the smallest key is the head.
+     */
+    public IndexedHeap (ToLongFunction<PCB> keyFunction) {
+        this(keyFunction, new Index());
+    }
+
+    /**
+     * Constructs an empty heap sharing an index with other heaps.
+     *
+     * @param keyFunction The key of a process; the process with the smallest key is the head.
+     * @param index       The index of positions, which no other heap uses for the same rows at the same time.
+     */
+    public IndexedHeap (ToLongFunction<PCB> keyFunction, Index index) {
+
+        this.keyFunction = keyFunction;
+        this.index = index;
+    }
+
+    /**
+     * Packs two ints into a key ordered by the first, then by the second.
+     *
+     * @param primary   The value compared first.
+     * @param secondary The value compared when the first ones are equal.
+     * @return The key.
+     */
+    public static long key (int primary, int secondary) {
+        return (long) primary << 32 | ((secondary ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public boolean offer (PCB process) {
+
+        if (size == processes.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            processes = Arrays.copyOf(processes, size * 2);
+        }
+        index.ensureCapacity(process.getRow());
+        siftUp(size++, keyFunction.applyAsLong(process), process);
+        return true;
+    }
+
+    @Override
+    public PCB peek () {
+        return size == 0 ? null : processes[0];
+    }
+
+    /**
+     * Gets the key of the head of the queue.
+     *
+     * @return The smallest key, or Long.MAX_VALUE if the queue is empty.
+     */
+    public long peekKey () {
+        return size == 0 ? Long.MAX_VALUE : keys[0];
+    }
+
+    @Override
+    public PCB poll () {
+
+        if (size == 0) {
+            return null;
+        }
+        PCB head = processes[0];
+        removeAt(0);
+        return head;
+    }
+
+    /**
+     * Tells whether a process is in this heap, in constant time.
+     *
+     * @param o The process to look for.
+     * @return true if the process is queued here.
+     */
+    @Override
+    public boolean contains (Object o) {
+
+        int position = positionOf(o);
+        if (position < 0 || position >= size) {
+            return false;
+        }
+        //the index may be shared, and a view of a row may be a new object, so compare rows
+        PCB queued = processes[position];
+        PCB process = (PCB) o;
+        return queued.getRow() == process.getRow() && queued.getTable() == process.getTable();
+    }
+
+    /**
+     * Removes a process by handle in O(log n).
+     *
+     * @param o The process to remove.
+     * @return true if the process was queued here.
+     */
+    @Override
+    public boolean remove (Object o) {
+
+        if (!contains(o)) {
+            return false;
+        }
+        removeAt(positionOf(o));
+        return true;
+    }
+
+    /**
+     * Moves a queued process after a change of the values its key depends on, in O(log n),
+     * whether its key went down or up.
+     *
+     * @param process A process in this heap.
+     * @throws NoSuchElementException if the process is not in this heap.
+     */
+    public void update (PCB process) {
+
+        if (!contains(process)) {
+            throw new NoSuchElementException(process.toString());
+        }
+        int position = positionOf(process);
+        long key = keyFunction.applyAsLong(process);
+        if (key < keys[position]) {
+            siftUp(position, key, process);
+        }
+        else {
+            siftDown(position, key, process);
+        }
+    }
+
+    @Override
+    public void clear () {
+
+        for (int i = 0; i < size; i++) {
+            index.positions[processes[i].getRow()] = -1;
+            processes[i] = null;
+        }
+        size = 0;
+    }
+
+    @Override
+    public int size () {
+        return size;
+    }
+
+    /**
+     * Iterates over the queued processes in heap order, which offer rebuilds as is.
+     * Removal is not supported.
+     *
+     * @return An iterator over the queued processes.
+     */
+    @Override
+    public Iterator<PCB> iterator () {
+
+        return new Iterator<>() {
+
+            private int position;
+
+            @Override
+            public boolean hasNext () {
+                return position < size;
+            }
+
+            @Override
+            public PCB next () {
+
+                if (position >= size) {
+                    throw new NoSuchElementException();
+                }
+                return processes[position++];
+            }
+        };
+    }
+
+    private int positionOf (Object o) {
+
+        if (!(o instanceof PCB process) || process.getRow() >= index.positions.length) {
+            return -1;
+        }
+        return index.positions[process.getRow()];
+    }
+
+    /**
+     * Removes the element at a position, filling the hole with the last element as
+     * PriorityQueue.removeAt does.
+     */
+    private void removeAt (int position) {
+
+        index.positions[processes[position].getRow()] = -1;
+        int last = --size;
+        if (last == position) {
+            processes[last] = null;
+            return;
+        }
+        long key = keys[last];
+        PCB moved = processes[last];
+        processes[last] = null;
+        siftDown(position, key, moved);
+        if (processes[position] == moved) {
+            siftUp(position, key, moved);
+        }
+    }
+
+    private void siftUp (int position, long key, PCB process) {
+
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (key >= keys[parent]) {
+                break;
+            }
+            place(position, keys[parent], processes[parent]);
+            position = parent;
+        }
+        place(position, key, process);
+    }
+
+    private void siftDown (int position, long key, PCB process) {
+
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && keys[child] > keys[right]) {
+                child = right;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            place(position, keys[child], processes[child]);
+            position = child;
+        }
+        place(position, key, process);
+    }
+
+    private void place (int position, long key, PCB process) {
+
+        keys[position] = key;
+        processes[position] = process;
+        index.positions[process.getRow()] = position;
+    }
+}
@@ -0,0 +1,358 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Simulated I/O device with a service queue, such as a disk, that processes go to when they
+ * finish a CPU burst. The device serves one request at a time, so processes queue on it when it
+ * is busy, and a process only comes back to the ready queue once its request has been served, and
+ * not before the comeback time the scheduler gave with the request, such as the next release of a
+ * periodic task.
+ *
+ * The service time of a request is the I/O burst of the process, its comeback time, plus the
+ * time the head takes to seek to the track of the request. The track is spread over the disk by
+ * a hash of the pid of the process and of the time of the request, standing in for the block it
+ * reads; the pid, not the row, so a process gets the same tracks wherever its row is.
+ * The policy picks the next request among the queued ones whenever the device becomes free.
+ *
+ * Queued requests are linked through arrays indexed by the row of each process, one FIFO list per
+ * track with a bitmap of the non-empty tracks, so queueing and picking a request allocate nothing.
+ * A device serves a single scheduler.
+ */
+public class IoDevice {
+
+    /**
+     * Order in which the queued requests are served.
+     */
+    public enum Policy {
+
+        /** In order of arrival. */
+        FIFO,
+
+        /** Shortest seek time first: the request on the track nearest to the head, the lower track on a tie. */
+        SSTF,
+
+        /** Elevator: the nearest request in the direction the head moves, turning at the last one. */
+        SCAN
+    }
+
+    /** Number of tracks used when none is given. */
+    public static final int DEFAULT_TRACKS = 200;
+
+    /** Number of tracks the head crosses per time unit, when no seek rate is given. */
+    public static final int DEFAULT_SEEK_RATE = 50;
+
+    private final String name;
+    private final Policy policy;
+    private final int tracks;
+    private final int seekRate;
+
+    /** Row of the first and last request of every list, or -1 for an empty list; FIFO keeps a single list. */
+    private final int[] heads;
+    private final int[] tails;
+
+    /** Bit t is set when the list of track t holds a request. */
+    private final BitSet nonEmpty = new BitSet();
+
+    /** Row of the request after each queued request in its list, or -1 at the end of a list. */
+    private int[] next = new int[16];
+
+    /** Track of the request of each process, by row. */
+    private int[] trackOf = new int[16];
+
+    /** Time of the request of each process, by row. */
+    private int[] requestTime = new int[16];
+
+    /** Time before which each process does not come back, even once its request is served, by row. */
+    private long[] returnTime = new long[16];
+
+    /** The view of every queued process, by row. */
+    private PCB[] views = new PCB[16];
+
+    /** Number of queued requests, not counting the one being served. */
+    private int queueLength;
+
+    private int maximumQueueLength;
+
+    /** Track the head is on. */
+    private int head;
+
+    /** Whether the head moves towards higher tracks, for SCAN. */
+    private boolean isMovingUp = true;
+
+    /** Whether a request is being served. */
+    private boolean isBusy;
+
+    /** Row of the process whose request is being served, or -1 if the device is free. */
+    private int servingRow = -1;
+
+    /** Time at which the request being served, or the last one, is done. */
+    private long serviceEnd;
+
+    /** Sum of the service times of the requests whose service started. */
+    private long busyTime;
+
+    /** Sum of the times requests waited in the queue before their service started. */
+    private long waitTime;
+
+    /** Number of requests whose service started. */
+    private long served;
+
+    /**
+     * Constructs a device with DEFAULT_TRACKS tracks and the default seek rate.
+     *
+     * @param name   The name of the device, used in the results.
+     * @param policy The order in which the requests are served.
+     */
+    public IoDevice(String name, Policy policy) {
+        this(name, policy, DEFAULT_TRACKS, DEFAULT_SEEK_RATE);
+    }
+
+    /**
+     * Constructs a device.
+     *
+     * @param name     The name of the device, used in the results.
+     * @param policy   The order in which the requests are served.
+     * @param tracks   The number of tracks.
+     * @param seekRate The number of tracks the head crosses per time unit.
+     */
+    public IoDevice(String name, Policy policy, int tracks, int seekRate) {
+
+        if (tracks <= 0 || seekRate <= 0) {
+            throw new IllegalArgumentException("Invalid number of tracks " + tracks + " or seek rate " + seekRate);
+        }
+        this.name = name;
+        this.policy = policy;
+        this.tracks = tracks;
+        this.seekRate = seekRate;
+        int lists = policy == Policy.FIFO ? 1 : tracks;
+        heads = new int[lists];
+        tails = new int[lists];
+        Arrays.fill(heads, -1);
+        Arrays.fill(tails, -1);
+    }
+
+    /**
+     * Takes the request of a process that finished its CPU burst, serving it at once if the
+     * device is free.
+     *
+     * @param process    The process that finished its CPU burst, with a positive comeback time.
+     * @param time       The current time.
+     * @param returnTime The time the process comes back at the earliest, whenever its service ends.
+     * @return true if the service started, and the process comes back at getServiceEnd();
+     *         false if the request was queued.
+     */
+    boolean request(PCB process, int time, long returnTime) {
+
+        int row = process.getRow();
+        ensureCapacity(row);
+        trackOf[row] = trackOf(process.getPid(), time);
+        requestTime[row] = time;
+        this.returnTime[row] = returnTime;
+
+        if (!isBusy) {
+            serve(process, time);
+            return true;
+        }
+        int list = policy == Policy.FIFO ? 0 : trackOf[row];
+        views[row] = process;
+        next[row] = -1;
+        if (heads[list] < 0) {
+            heads[list] = row;
+            nonEmpty.set(list);
+        }
+        else {
+            next[tails[list]] = row;
+        }
+        tails[list] = row;
+        queueLength++;
+        maximumQueueLength = Math.max(maximumQueueLength, queueLength);
+        return false;
+    }
+
+    /**
+     * Ends the service of the current request and starts the next one chosen by the policy.
+     *
+     * @param time The current time, the end of the service.
+     * @return The process whose service started, which comes back at getServiceEnd(), or null
+     *         if no request was queued.
+     */
+    PCB release(int time) {
+
+        isBusy = false;
+        servingRow = -1;
+        if (queueLength == 0) {
+            return null;
+        }
+        int list = nextList();
+        int row = heads[list];
+        heads[list] = next[row];
+        if (heads[list] < 0) {
+            tails[list] = -1;
+            nonEmpty.clear(list);
+        }
+        queueLength--;
+        PCB process = views[row];
+        views[row] = null;
+        serve(process, time);
+        return process;
+    }
+
+    /**
+     * Tells whether a process is the one whose request is being served, so that its service
+     * ending frees the device.
+     *
+     * @param process The process.
+     * @return true if the device is serving the process.
+     */
+    boolean isServing(PCB process) {
+        return isBusy && servingRow == process.getRow();
+    }
+
+    /**
+     * Gets the time a process comes back at the earliest, given with its request.
+     *
+     * @param process A process that made a request.
+     * @return Its return time.
+     */
+    long getReturnTime(PCB process) {
+        return returnTime[process.getRow()];
+    }
+
+    /**
+     * Gets the time at which the request being served is done.
+     *
+     * @return The end of the current service, or of the last one if the device is free.
+     */
+    public long getServiceEnd() {
+        return serviceEnd;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Gets the fraction of a run during which the device was serving a request.
+     *
+     * @param maximumTime The maximum time of the run.
+     * @return The utilization, from 0 to 1.
+     */
+    public double getUtilization(int maximumTime) {
+
+        long busy = busyTime - Math.max(0, serviceEnd - maximumTime); //a service cut by the end of the run
+        return maximumTime <= 0 ? 0 : (double) busy / maximumTime;
+    }
+
+    /**
+     * Gets the average time a request waited for the device before its service started.
+     *
+     * @return The average I/O wait over the requests served, or 0 if none was.
+     */
+    public double getAverageWait() {
+        return served == 0 ? 0 : (double) waitTime / served;
+    }
+
+    /**
+     * Gets the number of requests whose service started.
+     *
+     * @return The number of requests served.
+     */
+    public long getServedRequests() {
+        return served;
+    }
+
+    public int getQueueLength() {
+        return queueLength;
+    }
+
+    public int getMaximumQueueLength() {
+        return maximumQueueLength;
+    }
+
+    /**
+     * Empties the queue and clears the statistics, for a new run.
+     */
+    void reset() {
+
+        Arrays.fill(heads, -1);
+        Arrays.fill(tails, -1);
+        Arrays.fill(views, null);
+        nonEmpty.clear();
+        queueLength = maximumQueueLength = 0;
+        head = 0;
+        isMovingUp = true;
+        isBusy = false;
+        servingRow = -1;
+        serviceEnd = busyTime = waitTime = served = 0;
+    }
+
+    /**
+     * Starts serving the request of a process: the head seeks to its track, then the I/O burst runs.
+     */
+    private void serve(PCB process, int time) {
+
+        int row = process.getRow();
+        int track = trackOf[row];
+        int distance = Math.abs(track - head);
+        if (track != head) {
+            isMovingUp = track > head;
+        }
+        head = track;
+        long service = process.getComeBack() + (distance + seekRate - 1) / seekRate;
+
+        isBusy = true;
+        servingRow = row;
+        serviceEnd = time + service;
+        busyTime += service;
+        waitTime += time - requestTime[row];
+        served++;
+    }
+
+    /**
+     * Picks the list of the next request, which is not empty.
+     */
+    private int nextList() {
+
+        if (policy == Policy.FIFO) {
+            return 0;
+        }
+        int above = nonEmpty.nextSetBit(head);
+        int below = nonEmpty.previousSetBit(head);
+        if (policy == Policy.SSTF) {
+            if (above < 0) {
+                return below;
+            }
+            return below >= 0 && head - below <= above - head ? below : above;
+        }
+        if (isMovingUp) {
+            return above >= 0 ? above : below;
+        }
+        return below >= 0 ? below : above;
+    }
+
+    /**
+     * Hashes the pid of a process and the time of its request to a track.
+     */
+    private int trackOf(int pid, int time) {
+
+        int hash = (pid * 0x9E3779B9 + time) * 0x85EBCA6B;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, tracks);
+    }
+
+    private void ensureCapacity(int row) {
+
+        if (row >= next.length) {
+            int capacity = Math.max(next.length * 2, row + 1);
+            next = Arrays.copyOf(next, capacity);
+            trackOf = Arrays.copyOf(trackOf, capacity);
+            requestTime = Arrays.copyOf(requestTime, capacity);
+            returnTime = Arrays.copyOf(returnTime, capacity);
+            views = Arrays.copyOf(views, capacity);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Listener that records the waiting, turnaround and response time of every job into
+ * fixed-memory histograms as the run goes, giving their percentiles without a pass over the
+ * processes at the end.
+ *
+ * A job is one burst of a process, from its arrival or comeback to its completion. Its waiting
+ * time is the time it spent in the ready queue, its turnaround time the time until it completed
+ * and its response time the time until it was first dispatched. Jobs still unfinished when the
+ * run ends count towards the response times only. A collector observes a single scheduler.
+ */
+public class LatencyCollector implements SchedulingListener {
+
+    private final LatencyHistogram waitingTimes = new LatencyHistogram();
+    private final LatencyHistogram turnaroundTimes = new LatencyHistogram();
+    private final LatencyHistogram responseTimes = new LatencyHistogram();
+
+    /** Time at which the current job of each process became ready, indexed by row. */
+    private int[] readySince;
+
+    /** Waiting time of each process before its current job, indexed by row. */
+    private int[] waitedBefore;
+
+    /** Whether the current job of each process has been dispatched yet, indexed by row. */
+    private boolean[] responded;
+
+    /**
+     * Constructs a collector with empty histograms.
+     */
+    public LatencyCollector() {
+        readySince = new int[16];
+        waitedBefore = new int[16];
+        responded = new boolean[16];
+    }
+
+    @Override
+    public void onArrive(PCB process, int time) {
+        startJob(process, time);
+    }
+
+    @Override
+    public void onComeback(PCB process, int time) {
+        startJob(process, time);
+    }
+
+    @Override
+    public void onDispatch(PCB process, int time) {
+
+        int row = process.getRow();
+        if (!responded[row]) {
+            responded[row] = true;
+            responseTimes.record(time - readySince[row]);
+        }
+    }
+
+    @Override
+    public void onComplete(PCB process, int time) {
+
+        int row = process.getRow();
+        waitingTimes.record(process.getWaitingQueueTime() - waitedBefore[row]);
+        turnaroundTimes.record(time - readySince[row]);
+    }
+
+    public LatencyHistogram getWaitingTimes() {
+        return waitingTimes;
+    }
+
+    public LatencyHistogram getTurnaroundTimes() {
+        return turnaroundTimes;
+    }
+
+    public LatencyHistogram getResponseTimes() {
+        return responseTimes;
+    }
+
+    /**
+     * Prints the percentiles of the three metrics, one line per metric.
+     *
+     * @param out The stream to print to.
+     */
+    public void print(PrintStream out) {
+        waitingTimes.print("Waiting time", out);
+        turnaroundTimes.print("Turnaround time", out);
+        responseTimes.print("Response time", out);
+    }
+
+    private void startJob(PCB process, int time) {
+
+        int row = process.getRow();
+        if (row >= readySince.length) {
+            int capacity = Math.max(readySince.length * 2, row + 1);
+            readySince = Arrays.copyOf(readySince, capacity);
+            waitedBefore = Arrays.copyOf(waitedBefore, capacity);
+            responded = Arrays.copyOf(responded, capacity);
+        }
+        readySince[row] = time;
+        waitedBefore[row] = process.getWaitingQueueTime();
+        responded[row] = false;
+    }
+}
@@ -0,0 +1,156 @@
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Fixed-memory histogram of non-negative int values with logarithmic buckets, in the style of
+ * HdrHistogram. Values below 128 are counted exactly; above that every power of two is split into
+ * 64 linear sub-buckets, so any recorded value is known to within 1/64 of itself. The whole int
+ * range fits in 1664 counters, whatever the number of values recorded, and recording is O(1).
+ *
+ * The count, sum, minimum and maximum are kept exactly; percentiles are reported as the highest
+ * value of the bucket holding them, capped at the maximum.
+ */
+public class LatencyHistogram {
+
+    /** Number of sub-buckets in each power of two above the exact range. */
+    private static final int SUB_BUCKETS = 64;
+
+    /** Values below this are counted in a bucket of their own. */
+    private static final int EXACT_LIMIT = 2 * SUB_BUCKETS;
+
+    /** Number of counters needed for the whole int range. */
+    private static final int BUCKETS = EXACT_LIMIT + (31 - 7) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+
+    private long count;
+    private long sum;
+    private int min = Integer.MAX_VALUE;
+    private int max;
+
+    /**
+     * Records a value.
+     *
+     * @param value The value, which must not be negative.
+     * @throws IllegalArgumentException if the value is negative.
+     */
+    public void record(int value) {
+
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        counts[index(value)]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds the values recorded by another histogram to this one.
+     *
+     * @param other The histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Removes every recorded value.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        min = Integer.MAX_VALUE;
+        max = 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    public int getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the value below or at which the given percentage of the recorded values lie.
+     *
+     * @param percentile The percentage, between 0 and 100.
+     * @return The percentile, or 0 if nothing was recorded.
+     */
+    public int getPercentile(double percentile) {
+
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Prints the mean, the usual percentiles and the maximum on one line.
+     *
+     * @param name The name of the metric.
+     * @param out  The stream to print to.
+     */
+    public void print(String name, PrintStream out) {
+        out.printf("\u001B[31m\u001B[1m%-16s\u001B[0m : count %d  mean %.2f  p50 %d  p90 %d  p99 %d  p99.9 %d  max %d%n",
+                name, count, getMean(), getPercentile(50), getPercentile(90), getPercentile(99),
+                getPercentile(99.9), getMax());
+    }
+
+    /**
+     * Gets the counter a value falls in.
+     *
+     * @param value A non-negative value.
+     * @return The index of the bucket.
+     */
+    private static int index(int value) {
+
+        if (value < EXACT_LIMIT) {
+            return value;
+        }
+        int shift = 31 - Integer.numberOfLeadingZeros(value) - 6; //leaves value >>> shift in [64, 128)
+        return EXACT_LIMIT + (shift - 1) * SUB_BUCKETS + (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Gets the highest value that falls in a counter.
+     *
+     * @param index The index of the bucket.
+     * @return The highest value of the bucket.
+     */
+    private static int highestValue(int index) {
+
+        if (index < EXACT_LIMIT) {
+            return index;
+        }
+        int shift = (index - EXACT_LIMIT) / SUB_BUCKETS + 1;
+        long sub = (index - EXACT_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return (int) Math.min(((sub + 1) << shift) - 1, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,249 @@
+import java.util.Arrays;
+
+/**
+ * Represents a Multilevel Feedback Queue scheduling algorithm.
+ * Extends the generic Scheduling class.
+ *
+ * Processes move between levels of a MultilevelQueue, level 0 first, and the level of a process
+ * is kept in its priority. A process starts at the level of its initial priority. The time slice
+ * doubles at every level down; a process that uses up its slice drops one level, and a process
+ * that is preempted by a higher level or comes back keeps its level. Every boost interval, all
+ * the processes go back to level 0, so long jobs at the bottom are not starved.
+ */
+public class MLFQ extends Scheduling {
+
+    /** Number of levels used when none is given. */
+    public static final int DEFAULT_LEVELS = 8;
+
+    /** Number of time slices of the top level between two boosts, when no boost interval is given. */
+    public static final int DEFAULT_BOOST_SLICES = 50;
+
+    /** Time slice of level 0. */
+    private int quantum;
+
+    /** Number of time units between two priority boosts, or 0 to never boost. */
+    private int boostInterval;
+
+    /** The ready queue, one FIFO list per level. */
+    private MultilevelQueue levelQueue;
+
+    /** Time of the last priority boost. */
+    private int lastBoost;
+
+    /** Row of the process whose time slice started at sliceStart, or -1. */
+    private int sliceRow = -1;
+
+    /** Start of the current time slice, when the running process dropped a level without leaving the CPU. */
+    private int sliceStart;
+
+    /**
+     * Constructs an MLFQ object with the given processes, maximum time and quantum.
+     *
+     * @param processes   An array of PCB (Process Control Block) objects.
+     * @param maximumTime The maximum time for which the algorithm runs.
+     * @param quantum     The time slice of the top level.
+     */
+    MLFQ (PCB[] processes, int maximumTime, int quantum) {
+        this(ProcessTable.copyOf(processes), maximumTime, quantum);
+    }
+
+    /**
+     * Constructs an MLFQ object that schedules the rows of a process table in place.
+     *
+     * @param table       A table holding one row per process.
+     * @param maximumTime The maximum time for which the algorithm runs.
+     * @param quantum     The time slice of the top level.
+     */
+    MLFQ (ProcessTable table, int maximumTime, int quantum) {
+        this(new TableSource(table), maximumTime, quantum);
+    }
+
+    /**
+     * Constructs an MLFQ object with the default number of levels and boost interval.
+     *
+     * @param source      The source of the processes, in order of arrival.
+     * @param maximumTime The maximum time for which the algorithm runs.
+     * @param quantum     The time slice of the top level.
+     */
+    MLFQ (ProcessSource source, int maximumTime, int quantum) {
+        this(source, maximumTime, quantum, DEFAULT_LEVELS, DEFAULT_BOOST_SLICES * quantum);
+    }
+
+    /**
+     * Constructs an MLFQ object that reads its processes from a source as they arrive.
+     *
+     * @param source        The source of the processes, in order of arrival.
+     * @param maximumTime   The maximum time for which the algorithm runs.
+     * @param quantum       The time slice of the top level.
+     * @param levels        The number of levels, up to MultilevelQueue.MAXIMUM_LEVELS.
+     * @param boostInterval The number of time units between two priority boosts, or 0 to never boost.
+     */
+    MLFQ (ProcessSource source, int maximumTime, int quantum, int levels, int boostInterval) {
+
+        super(source, maximumTime);
+        if (quantum <= 0 || boostInterval < 0) {
+            throw new IllegalArgumentException("Invalid quantum " + quantum + " or boost interval " + boostInterval);
+        }
+        this.quantum = quantum;
+        this.boostInterval = boostInterval;
+        isPreemptive = true;
+        readyQueue = levelQueue = new MultilevelQueue(levels);
+
+        waitingQueue = new ComebackQueue();
+
+        isPriority = true; //the boost is driven by the aging hooks
+    }
+
+    /**
+     * Resets properties of a process after a comeback. The process keeps its level,
+     * unless a boost happened while it was waiting.
+     *
+     * @param process      The PCB (Process Control Block) object to be reset.
+     * @param countWaiting The current count of waiting time.
+     */
+    @Override
+    protected void resetProperties (PCB process, int countWaiting) {
+
+        process.setReadyQueueTime(countWaiting);
+        process.setRemainingTime(process.getBurstTime()); //reset the remaining time
+        if (process.getFinishTime() < lastBoost) {
+            process.setPriority(0);
+        }
+    }
+
+    /**
+     * Boosts every process to level 0 at each multiple of the boost interval.
+     *
+     * @param time The current time.
+     */
+    @Override
+    protected void decreasePriority (int time) {
+
+        if (boostInterval == 0 || time == 0 || time % boostInterval != 0 || time == lastBoost) {
+            return;
+        }
+        levelQueue.boost();
+        if (runningProcess != null) {
+            runningProcess.setPriority(0);
+        }
+        lastBoost = time;
+    }
+
+    /**
+     * Puts a process routed from outside in the ready queue, after the boost due at the same
+     * time, so it is queued behind the boosted processes as an arrival read from the source is.
+     *
+     * @param process The process that arrived.
+     * @param time    The current time.
+     */
+    @Override
+    void admit (PCB process, int time) {
+
+        decreasePriority(time);
+        super.admit(process, time);
+    }
+
+    /**
+     * Gets the next priority boost.
+     *
+     * @param time The current time.
+     * @return The next multiple of the boost interval, or Integer.MAX_VALUE if there is no boost.
+     */
+    @Override
+    protected int nextAgingTime (int time) {
+
+        if (boostInterval == 0) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) Math.min(((long) time / boostInterval + 1) * boostInterval, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Demotes the running process when its time slice is used up, and preempts it when a process
+     * of a higher level is ready or when, after the demotion, a process of the same level is.
+     *
+     * @param time The current time.
+     */
+    @Override
+    protected void interruptProcess (int time) {
+
+        int level = levelQueue.levelOf(runningProcess.getPriority());
+        int ready = levelQueue.peekLevel();
+
+        if (time - sliceStart() >= sliceOf(level)) {
+            int demoted = levelQueue.levelOf(level + 1);
+            runningProcess.setPriority(demoted);
+            if (ready >= 0 && ready <= demoted) {
+                preempt(time);
+            }
+            else { //nothing at its new level or above, so the process goes on with a new slice
+                sliceRow = runningProcess.getRow();
+                sliceStart = time;
+            }
+        }
+        else if (ready >= 0 && ready < level) {
+            preempt(time);
+        }
+    }
+
+    /**
+     * Gets the end of the time slice of the running process.
+     *
+     * @param time The current time.
+     * @return The time at which the running process uses up its slice.
+     */
+    @Override
+    protected int nextInterruptTime (int time) {
+
+        long end = (long) sliceStart() + sliceOf(levelQueue.levelOf(runningProcess.getPriority()));
+        return (int) Math.min(Math.max(end, time + 1L), Integer.MAX_VALUE);
+    }
+
+    @Override
+    protected int getQuantum () {
+        return quantum;
+    }
+
+    /**
+     * Saves the levels of the ready queue for a checkpoint, followed by the time of the last boost
+     * and the current time slice.
+     *
+     * @return The layout of the ready queue and the state of the time slice.
+     */
+    @Override
+    protected int[] saveReadyQueue () {
+
+        int[] levels = levelQueue.save();
+        int[] saved = Arrays.copyOf(levels, levels.length + 3);
+        saved[levels.length] = lastBoost;
+        saved[levels.length + 1] = sliceRow;
+        saved[levels.length + 2] = sliceStart;
+        return saved;
+    }
+
+    @Override
+    protected void restoreReadyQueue (int[] saved) {
+
+        levelQueue.restore(saved, table);
+        lastBoost = saved[saved.length - 3];
+        sliceRow = saved[saved.length - 2];
+        sliceStart = saved[saved.length - 1];
+    }
+
+    /**
+     * Gets the time the slice of the running process started: when it was dispatched, or when it
+     * last dropped a level without leaving the CPU.
+     */
+    private int sliceStart () {
+
+        int deploymentTime = runningProcess.getDeploymentTime();
+        return runningProcess.getRow() == sliceRow ? Math.max(sliceStart, deploymentTime) : deploymentTime;
+    }
+
+    /**
+     * Gets the time slice of a level, which doubles at every level down.
+     */
+    private long sliceOf (int level) {
+        return (long) quantum << Math.min(level, 31);
+    }
+}
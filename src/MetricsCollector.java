@@ -0,0 +1,193 @@
+import java.util.Arrays;
+
+/**
+ * Listener that collects the usual scheduling metrics during a run: response time, CPU
+ * utilization, throughput, context switches and idle time.
+ *
+ * The response time of a burst is the time from its arrival or comeback to the first time it
+ * is dispatched. Per-process state is kept in a primitive array indexed by the row of the
+ * process, so collecting allocates nothing once the array has grown to the number of processes.
+ * A collector observes a single scheduler.
+ */
+public class MetricsCollector implements SchedulingListener {
+
+    /** Time at which each process became ready for the burst it has not started yet, or -1. */
+    private int[] readySince;
+
+    private long responseCount;
+    private long totalResponseTime;
+    private int maxResponseTime;
+
+    private long dispatches;
+    private long preemptions;
+    private long completions;
+    private long comebacks;
+    private long agings;
+
+    /** Time at which the running process was dispatched, or -1 if the CPU is idle. */
+    private int dispatchTime = -1;
+
+    private long busyTime;
+
+    /** Time the run ended at, or -1 while it is running. */
+    private int finishTime = -1;
+
+    /**
+     * Constructs a collector with no events recorded.
+     */
+    public MetricsCollector() {
+        readySince = new int[16];
+        Arrays.fill(readySince, -1);
+    }
+
+    @Override
+    public void onArrive(PCB process, int time) {
+        markReady(process.getRow(), time);
+    }
+
+    @Override
+    public void onComeback(PCB process, int time) {
+        comebacks++;
+        markReady(process.getRow(), time);
+    }
+
+    @Override
+    public void onDispatch(PCB process, int time) {
+
+        dispatches++;
+        dispatchTime = time;
+
+        int row = process.getRow();
+        if (row < readySince.length && readySince[row] >= 0) {
+            int response = time - readySince[row];
+            responseCount++;
+            totalResponseTime += response;
+            maxResponseTime = Math.max(maxResponseTime, response);
+            readySince[row] = -1;
+        }
+    }
+
+    @Override
+    public void onPreempt(PCB process, int time) {
+        preemptions++;
+        release(time);
+    }
+
+    @Override
+    public void onComplete(PCB process, int time) {
+        completions++;
+        release(time);
+    }
+
+    @Override
+    public void onAge(PCB process, int priority, int time) {
+        agings++;
+    }
+
+    @Override
+    public void onFinish(int time) {
+        release(time);
+        finishTime = time;
+    }
+
+    /**
+     * Gets the average time a burst waited between becoming ready and its first dispatch.
+     *
+     * @return The average response time, or 0 if no burst was dispatched.
+     */
+    public double getAverageResponseTime() {
+        return responseCount == 0 ? 0 : (double) totalResponseTime / responseCount;
+    }
+
+    public int getMaxResponseTime() {
+        return maxResponseTime;
+    }
+
+    public long getBusyTime() {
+        return busyTime;
+    }
+
+    /**
+     * Gets the time the CPU spent without a process to run.
+     *
+     * @return The idle time, up to the end of the run.
+     */
+    public long getIdleTime() {
+        return Math.max(finishTime, 0) - busyTime;
+    }
+
+    /**
+     * Gets the fraction of the run during which the CPU was executing a process.
+     *
+     * @return The CPU utilization, between 0 and 1.
+     */
+    public double getCpuUtilization() {
+        return finishTime <= 0 ? 0 : (double) busyTime / finishTime;
+    }
+
+    /**
+     * Gets the number of bursts completed per time unit.
+     *
+     * @return The throughput of the run.
+     */
+    public double getThroughput() {
+        return finishTime <= 0 ? 0 : (double) completions / finishTime;
+    }
+
+    /**
+     * Gets the number of times a process was put on the CPU after the first dispatch of the run.
+     *
+     * @return The number of context switches.
+     */
+    public long getContextSwitches() {
+        return Math.max(dispatches - 1, 0);
+    }
+
+    public long getDispatches() {
+        return dispatches;
+    }
+
+    public long getPreemptions() {
+        return preemptions;
+    }
+
+    public long getCompletions() {
+        return completions;
+    }
+
+    public long getComebacks() {
+        return comebacks;
+    }
+
+    /**
+     * Gets the number of dispatches of a process whose priority had been lowered by aging.
+     *
+     * @return The number of aged dispatches.
+     */
+    public long getAgings() {
+        return agings;
+    }
+
+    private void markReady(int row, int time) {
+
+        if (row >= readySince.length) {
+            int length = readySince.length;
+            readySince = Arrays.copyOf(readySince, Math.max(length * 2, row + 1));
+            Arrays.fill(readySince, length, readySince.length, -1);
+        }
+        readySince[row] = time;
+    }
+
+    /**
+     * Credits the running process with the time since it was dispatched.
+     *
+     * @param time The time at which the process leaves the CPU.
+     */
+    private void release(int time) {
+
+        if (dispatchTime >= 0) {
+            busyTime += time - dispatchTime;
+            dispatchTime = -1;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+import java.util.*;
+
+/**
+ * Ready queue of a multilevel feedback scheduler: one FIFO list per level, level 0 first, and a
+ * bitmap with one bit per non-empty level, so the head of the queue is found with a single
+ * count of trailing zeros whatever the number of processes, as in the Linux O(1) scheduler.
+ *
+ * The lists are linked through an array indexed by the row of each process in its table, so
+ * offering and polling allocate nothing, and a priority boost splices every list onto level 0
+ * in one step per level. The level of a queued process is the list it is in; it is written to
+ * the priority of the process when it leaves the queue.
+ */
+public class MultilevelQueue extends AbstractQueue<PCB> {
+
+    /** Largest number of levels, one per bit of the bitmap. */
+    public static final int MAXIMUM_LEVELS = Integer.SIZE;
+
+    private final int levels;
+
+    /** Bit l is set when level l holds a process. */
+    private int bitmap;
+
+    /** Row of the first and last process of every level, or -1 for an empty level. */
+    private final int[] heads;
+    private final int[] tails;
+
+    /** Row of the process after each queued process in its level, or -1 at the end of a level. */
+    private int[] next = new int[16];
+
+    /** The view of every queued process, by row. */
+    private PCB[] views = new PCB[16];
+
+    /** Number of processes in the queue. */
+    private int size;
+
+    /**
+     * Constructs an empty queue.
+     *
+     * @param levels The number of levels, from 1 to MAXIMUM_LEVELS.
+     */
+    public MultilevelQueue (int levels) {
+
+        if (levels < 1 || levels > MAXIMUM_LEVELS) {
+            throw new IllegalArgumentException("Number of levels must be between 1 and " + MAXIMUM_LEVELS + ": " + levels);
+        }
+        this.levels = levels;
+        heads = new int[levels];
+        tails = new int[levels];
+        Arrays.fill(heads, -1);
+        Arrays.fill(tails, -1);
+    }
+
+    /**
+     * Gets the level a priority maps to, the lowest level for priorities beyond the last one.
+     *
+     * @param priority The priority of a process.
+     * @return The level of the process.
+     */
+    public int levelOf (int priority) {
+        return Math.min(Math.max(priority, 0), levels - 1);
+    }
+
+    /**
+     * Gets the level of the head of the queue.
+     *
+     * @return The first non-empty level, or -1 if the queue is empty.
+     */
+    public int peekLevel () {
+        return bitmap == 0 ? -1 : Integer.numberOfTrailingZeros(bitmap);
+    }
+
+    /**
+     * Appends a process to the level of its priority.
+     *
+     * @param process The process to add.
+     * @return true.
+     */
+    @Override
+    public boolean offer (PCB process) {
+
+        append(levelOf(process.getPriority()), process);
+        return true;
+    }
+
+    @Override
+    public PCB peek () {
+
+        int level = peekLevel();
+        return level < 0 ? null : views[heads[level]];
+    }
+
+    /**
+     * Removes the head of the queue and stores its level as its priority.
+     *
+     * @return The head of the queue, or null if the queue is empty.
+     */
+    @Override
+    public PCB poll () {
+
+        int level = peekLevel();
+        if (level < 0) {
+            return null;
+        }
+        int row = heads[level];
+        PCB process = views[row];
+        heads[level] = next[row];
+        if (heads[level] < 0) {
+            tails[level] = -1;
+            bitmap &= ~(1 << level);
+        }
+        views[row] = null;
+        size--;
+        process.setPriority(level);
+        return process;
+    }
+
+    /**
+     * Moves every queued process to level 0, keeping the order of the levels and, within each
+     * level, the order of the processes.
+     */
+    public void boost () {
+
+        int rest = bitmap & ~1;
+        while (rest != 0) {
+            int level = Integer.numberOfTrailingZeros(rest);
+            rest &= rest - 1;
+            if (heads[0] < 0) {
+                heads[0] = heads[level];
+            }
+            else {
+                next[tails[0]] = heads[level];
+            }
+            tails[0] = tails[level];
+            heads[level] = -1;
+            tails[level] = -1;
+        }
+        if (bitmap != 0) {
+            bitmap = 1;
+        }
+    }
+
+    @Override
+    public void clear () {
+
+        Arrays.fill(heads, -1);
+        Arrays.fill(tails, -1);
+        Arrays.fill(views, null);
+        bitmap = 0;
+        size = 0;
+    }
+
+    @Override
+    public int size () {
+        return size;
+    }
+
+    /**
+     * Iterates over the queued processes from the head of the queue, level by level.
+     * Removal is not supported.
+     *
+     * @return An iterator over the queued processes.
+     */
+    @Override
+    public Iterator<PCB> iterator () {
+
+        return new Iterator<>() {
+
+            private int level = peekLevel();
+            private int row = level < 0 ? -1 : heads[level];
+
+            @Override
+            public boolean hasNext () {
+                return row >= 0;
+            }
+
+            @Override
+            public PCB next () {
+
+                if (row < 0) {
+                    throw new NoSuchElementException();
+                }
+                PCB process = views[row];
+                row = next[row];
+                if (row < 0) { //end of the level, go on with the next non-empty one
+                    int rest = level + 1 == MAXIMUM_LEVELS ? 0 : bitmap & (-1 << (level + 1));
+                    level = Integer.numberOfTrailingZeros(rest);
+                    row = rest == 0 ? -1 : heads[level];
+                }
+                return process;
+            }
+        };
+    }
+
+    /**
+     * Saves the levels for a checkpoint.
+     *
+     * @return For every level in order, the number of processes followed by their rows in queue order.
+     */
+    int[] save () {
+
+        int[] saved = new int[levels + size];
+        int k = 0;
+        for (int level = 0; level < levels; level++) {
+            int countIndex = k++;
+            for (int row = heads[level]; row >= 0; row = next[row]) {
+                saved[k++] = row;
+            }
+            saved[countIndex] = k - countIndex - 1;
+        }
+        return saved;
+    }
+
+    /**
+     * Replaces the content of the queue with levels saved by save.
+     *
+     * @param saved The saved levels.
+     * @param table The process table the saved rows belong to.
+     */
+    void restore (int[] saved, ProcessTable table) {
+
+        clear();
+        int k = 0;
+        for (int level = 0; level < levels; level++) {
+            int count = saved[k++];
+            for (int i = 0; i < count; i++) {
+                append(level, table.view(saved[k++]));
+            }
+        }
+    }
+
+    private void append (int level, PCB process) {
+
+        int row = process.getRow();
+        if (row >= next.length) {
+            int capacity = Math.max(next.length * 2, row + 1);
+            next = Arrays.copyOf(next, capacity);
+            views = Arrays.copyOf(views, capacity);
+        }
+        views[row] = process;
+        next[row] = -1;
+        if (tails[level] < 0) {
+            heads[level] = row;
+        }
+        else {
+            next[tails[level]] = row;
+        }
+        tails[level] = row;
+        bitmap |= 1 << level;
+        size++;
+    }
+}
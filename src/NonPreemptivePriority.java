@@ -1,13 +1,10 @@
-import java.util.*;
-
 /**
  * Implementation of Non-preemptive Priority Scheduling algorithm with aging.
  */
 public class NonPreemptivePriority extends Scheduling {
 
-
-    private int[] priorities;
-    private int quantum;
+    /** The ready queue, which ages its processes lazily. */
+    private AgingQueue agingQueue;
 
     /**
      * Constructor for NonPreemptivePriority class.
@@ -17,25 +14,42 @@ public class NonPreemptivePriority extends Scheduling {
      * @param quantum     Time quantum for the aging mechanism.
      */
     NonPreemptivePriority (PCB[] processes, int maximumTime, int quantum) {
+        this(ProcessTable.copyOf(processes), maximumTime, quantum);
+    }
+
+    /**
+     * Constructs a NonPreemptivePriority object that schedules the rows of a process table in place.
+     *
+     * @param table       A table holding one row per process.
+     * @param maximumTime The maximum time for which the algorithm runs.
+     * @param quantum     The quantum time for decreasing priority.
+     */
+    NonPreemptivePriority (ProcessTable table, int maximumTime, int quantum) {
+        this(new TableSource(table), maximumTime, quantum);
+    }
+
+    /**
+     * Constructs a NonPreemptivePriority object that reads its processes from a source as they arrive.
+     *
+     * @param source      The source of the processes, in order of arrival.
+     * @param maximumTime The maximum time for which the algorithm runs.
+     * @param quantum     The quantum time for decreasing priority.
+     */
+    NonPreemptivePriority (ProcessSource source, int maximumTime, int quantum) {
 
-        super(processes, maximumTime);
+        super(source, maximumTime);
         isPreemptive = false;
 
         /*
          * Priority queue representing the ready queue for processes.
-         * Processes in this queue are ordered based on their priority, and if priorities are equal,
+         * Processes in this queue are ordered based on their aged priority, and if priorities are equal,
          * they are ordered based on their ready queue time.
+         * Aging only has to be known when a process is chosen, so no aging events are needed.
          */
-        readyQueue = new PriorityQueue<>(processes.length,
-                Comparator.comparing(PCB::getPriority).thenComparing(PCB::getReadyQueueTime));
+        readyQueue = agingQueue = new AgingQueue(quantum);
 
-        waitingQueue = new LinkedList<>();
-        this.quantum = quantum;
+        waitingQueue = new ComebackQueue();
 
-        priorities = new int[processes.length];
-        for (int i = 0;i<priorities.length;i++) {
-            priorities[i] = processes[i].getPriority();
-        }
         isPriority = true;
     }
 
@@ -43,27 +57,27 @@ public class NonPreemptivePriority extends Scheduling {
     protected void resetProperties (PCB process, int countWaiting) {
 
         process.setReadyQueueTime(countWaiting);
-        process.setRemainingTime(process.burstTime); //reset the remaining time
-        process.setPriority(priorities[process.getPid()-1]); //reset priority
+        process.setRemainingTime(process.getBurstTime()); //reset the remaining time
+        process.setPriority(process.getInitialPriority()); //reset priority
     }
 
     protected void decreasePriority (int time) {
+        agingQueue.advanceTo(time); //effective priorities are derived from the time spent in the ready queue
+    }
 
-        Iterator<PCB> iterator = readyQueue.iterator();
-        LinkedList<PCB> stack = new LinkedList<>();
-        while (iterator.hasNext()) {
+    @Override
+    protected int getQuantum () {
+        return agingQueue.getQuantum();
+    }
 
-            PCB process = iterator.next();
-            if ((time - process.getReadyQueueTime()) % quantum == 0) { //decrement priority if a process remains in the ready queue for 5 sec
+    @Override
+    protected int[] saveReadyQueue () {
+        return agingQueue.save();
+    }
 
-                process.decrementPriority();
-                iterator.remove();
-                stack.push(process);
-            }
-        }
-        while (!stack.isEmpty()) {
-            readyQueue.offer(stack.pop());
-        }
+    @Override
+    protected void restoreReadyQueue (int[] saved) {
+        agingQueue.restore(saved, table);
     }
 
 }
@@ -0,0 +1,21 @@
+/**
+ * Gantt sink that discards every entry, for benchmarks and batch runs where only the
+ * results of the scheduler matter.
+ */
+public class NullGanttSink implements GanttSink {
+
+    /** Shared instance; the sink has no state. */
+    public static final NullGanttSink INSTANCE = new NullGanttSink();
+
+    @Override
+    public void begin(long entries) {
+    }
+
+    @Override
+    public void entry(int pid, int start, int end) {
+    }
+
+    @Override
+    public void end() {
+    }
+}
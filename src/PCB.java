@@ -1,23 +1,18 @@
+import java.io.PrintStream;
 
 /**
  * Represents a Process Control Block (PCB) for a scheduling algorithm.
+ * A PCB is a view of one row of a {@link ProcessTable}; a PCB built with the public
+ * constructor owns a table of its own.
  * Implements the Cloneable interface for object cloning.
  */
 public class PCB implements Cloneable {
 
-    private int pid;
-    public int arrivalTime;
-    public final int burstTime;
-    private int remainingTime;
-    private int deploymentTime;
-    private int comeBack;
-    private int priority;
-    private int interruptTime;
-    private int finishTime;
-    private int executionTime;
-    private int readyQueueTime;
-    public int waitingQueueTime;
-    public boolean hasExecuted;
+    /** Table holding the state of the process. */
+    private final ProcessTable table;
+
+    /** Row of the process in the table. */
+    private final int row;
 
     /**
      * Constructs a PCB object with the given parameters.
@@ -30,79 +25,167 @@ public class PCB implements Cloneable {
      */
     public PCB (int pid, int arrivalTime, int burstTime, int comeBack, int priority) {
 
-        this.pid = pid;
-        this.arrivalTime = arrivalTime;
-        this.burstTime = burstTime;
-        this.remainingTime = burstTime;
-        this.comeBack = comeBack;
-        this.priority = priority;
-        hasExecuted = false;
+        this(pid, arrivalTime, burstTime, comeBack, priority, 0, 0);
+    }
 
+    /**
+     * Constructs a periodic PCB object for the real-time algorithms.
+     *
+     * @param pid         Process ID.
+     * @param arrivalTime Arrival time of the process.
+     * @param burstTime   Burst time of the process.
+     * @param comeBack    Time for the process to come back to the ready queue.
+     * @param priority    Priority of the process.
+     * @param period      Time between two releases of the process, or 0 for its burst plus comeback time.
+     * @param deadline    Time after a release by which the burst must be done, or 0 for the period.
+     */
+    public PCB (int pid, int arrivalTime, int burstTime, int comeBack, int priority, int period, int deadline) {
+
+        table = new ProcessTable(1);
+        row = table.add(pid, arrivalTime, burstTime, comeBack, priority, period, deadline);
+    }
+
+    /**
+     * Constructs a view of a row of a process table.
+     *
+     * @param table The table holding the state of the process.
+     * @param row   The row of the process.
+     */
+    PCB (ProcessTable table, int row) {
+        this.table = table;
+        this.row = row;
+    }
+
+    /**
+     * Gets the table holding the state of the process.
+     *
+     * @return The process table.
+     */
+    public ProcessTable getTable () {
+        return table;
+    }
+
+    /**
+     * Gets the row of the process in its table.
+     *
+     * @return The row index.
+     */
+    public int getRow () {
+        return row;
     }
 
     public int getPid () {
-        return pid;
+        return table.pid[row];
+    }
+
+    public int getArrivalTime () {
+        return table.arrivalTime[row];
     }
 
     public int getRemainingTime () {
-        return remainingTime;
+        return table.remainingTime[row];
     }
 
     public void setRemainingTime (int remainingTime) {
-        this.remainingTime = remainingTime;
+        table.remainingTime[row] = remainingTime;
     }
 
     public int getComeBack () {
-        return comeBack;
+        return table.comeBack[row];
+    }
+
+    /**
+     * Gets the period given to the process, as used by the real-time algorithms.
+     *
+     * @return The time between two releases, or 0 if none was given.
+     */
+    public int getPeriod () {
+        return table.period[row];
+    }
+
+    /**
+     * Gets the relative deadline given to the process, as used by the real-time algorithms.
+     *
+     * @return The time after a release by which the burst must be done, or 0 if none was given.
+     */
+    public int getDeadline () {
+        return table.deadline[row];
     }
 
     public void decrementRemainingTime () {
-        if (remainingTime > 0) {
-            remainingTime--;
+        if (table.remainingTime[row] > 0) {
+            table.remainingTime[row]--;
         }
         else {
-            remainingTime = 0;
+            table.remainingTime[row] = 0;
         }
     }
 
+    /**
+     * Decrements the remaining time by several time units at once, stopping at zero.
+     *
+     * @param units The number of time units executed.
+     */
+    public void decrementRemainingTime (int units) {
+        table.remainingTime[row] = Math.max(table.remainingTime[row] - units, 0);
+    }
+
     /**
      * Decrements the priority of the process.
      */
     public void decrementPriority () {
 
-        if (priority > 0)
-            priority--;
+        if (table.priority[row] > 0)
+            table.priority[row]--;
         else {
-            priority = 0;
+            table.priority[row] = 0;
         }
     }
 
     public void incrementExecutionTime () {
-        executionTime++;
+        table.executionTime[row]++;
+    }
+
+    /**
+     * Increments the execution time by several time units at once.
+     *
+     * @param units The number of time units executed.
+     */
+    public void incrementExecutionTime (int units) {
+        table.executionTime[row] += units;
     }
 
     public int getPriority () {
-        return priority;
+        return table.priority[row];
     }
 
     public void setPriority (int priority) {
-        this.priority = priority;
+        table.priority[row] = priority;
+    }
+
+    /**
+     * Gets the priority the process was created with, before any aging.
+     *
+     * @return The initial priority.
+     */
+    public int getInitialPriority () {
+        return table.initialPriority[row];
     }
 
     public int getFinishTime () {
-        return finishTime;
+        return table.finishTime[row];
     }
 
     public void setFinishTime (int finishTime) {
-        this.finishTime = finishTime;
+        table.finishTime[row] = finishTime;
     }
     public int getExecutionTime () {
-        return executionTime;
+        return table.executionTime[row];
     }
 
 
     public int getReadyQueueTime () {
-        return readyQueueTime;
+        return table.readyQueueTime[row];
     }
 
     /**
@@ -111,7 +194,38 @@ public class PCB implements Cloneable {
      * @param readyQueueTime The ready queue time.
      */
     public void setReadyQueueTime (int readyQueueTime) {
-        this.readyQueueTime = readyQueueTime;
+        table.readyQueueTime[row] = readyQueueTime;
+    }
+
+    /**
+     * Gets the total time the process spent waiting in the ready queue.
+     *
+     * @return The waiting time.
+     */
+    public int getWaitingQueueTime () {
+        return table.waitingQueueTime[row];
+    }
+
+    /**
+     * Adds to the total time the process spent waiting in the ready queue.
+     *
+     * @param time The time to add.
+     */
+    public void addWaitingQueueTime (int time) {
+        table.waitingQueueTime[row] += time;
+    }
+
+    /**
+     * Checks whether the process has been on the CPU at least once.
+     *
+     * @return true if the process has executed, false otherwise.
+     */
+    public boolean hasExecuted () {
+        return table.hasExecuted[row];
+    }
+
+    public void setHasExecuted (boolean hasExecuted) {
+        table.hasExecuted[row] = hasExecuted;
     }
 
     /**
@@ -120,7 +234,7 @@ public class PCB implements Cloneable {
      * @return The deployment time.
      */
     public int getDeploymentTime() {
-        return deploymentTime;
+        return table.deploymentTime[row];
     }
 
     /**
@@ -129,7 +243,7 @@ public class PCB implements Cloneable {
      * @param deploymentTime The deployment time.
      */
     public void setDeploymentTime(int deploymentTime) {
-        this.deploymentTime = deploymentTime;
+        table.deploymentTime[row] = deploymentTime;
     }
 
     /**
@@ -139,14 +253,26 @@ public class PCB implements Cloneable {
      * @return The average waiting time.
      */
     public static double calculateAverageWaitingTime (PCB[] processes) {
+        return calculateAverageWaitingTime(processes, System.out);
+    }
+
+    /**
+     * Calculates the average waiting time for an array of processes, printing the waiting
+     * time of every process to the given stream.
+     *
+     * @param processes An array of PCB (Process Control Block) objects.
+     * @param out       The stream the waiting times are printed to.
+     * @return The average waiting time.
+     */
+    public static double calculateAverageWaitingTime (PCB[] processes, PrintStream out) {
 
-        int waiting = 0;
+        long waiting = 0;
 
         for (PCB process : processes) {
-            if (process.hasExecuted) {
-                waiting += process.waitingQueueTime;
+            if (process.hasExecuted()) {
+                waiting += process.getWaitingQueueTime();
             }
-            System.out.println(process + " Waiting time " + process.waitingQueueTime);
+            out.println(process + " Waiting time " + process.getWaitingQueueTime());
 
         }
         return (double) (waiting)/getNumberExecuted(processes);
@@ -160,26 +286,62 @@ public class PCB implements Cloneable {
      * @return The average turnaround time.
      */
     public static double calculateAverageTurnaroundTime (PCB[] processes) {
+        return calculateAverageTurnaroundTime(processes, System.out);
+    }
+
+    /**
+     * Calculates the average turnaround time for an array of processes.
+     *
+     * @param processes An array of PCB (Process Control Block) objects.
+     * @param out       The stream the calculation writes to.
+     * @return The average turnaround time.
+     */
+    public static double calculateAverageTurnaroundTime (PCB[] processes, PrintStream out) {
 
-        int sumTurnaround =  0;
-        System.out.println();
+        long sumTurnaround =  0;
+        out.println();
         for (PCB process : processes) {
-            if (process.hasExecuted) {
+            if (process.hasExecuted()) {
 
-                sumTurnaround += process.interruptTime - process.arrivalTime;
+                sumTurnaround += process.getInterruptTime() - process.getArrivalTime();
             }
 
         }
         return (double) sumTurnaround/getNumberExecuted(processes);
     }
 
+    /**
+     * Calculates Jain's fairness index of the share of the CPU each executed process got while it
+     * was ready or running, its execution time over its execution and waiting times. The index is
+     * 1 when every process got the same share and 1/n when one process got it all.
+     *
+     * @param processes An array of PCB (Process Control Block) objects.
+     * @return The fairness index, between 1/n and 1.
+     */
+    public static double calculateFairnessIndex (PCB[] processes) {
+
+        double sum = 0;
+        double sumOfSquares = 0;
+        int count = 0;
+        for (PCB process : processes) {
+            long runnable = (long) process.getExecutionTime() + process.getWaitingQueueTime();
+            if (process.hasExecuted() && runnable > 0) {
+                double share = (double) process.getExecutionTime() / runnable;
+                sum += share;
+                sumOfSquares += share * share;
+                count++;
+            }
+        }
+        return sum * sum / (count * sumOfSquares);
+    }
+
     /**
      * Gets the burst time of the process.
      *
      * @return The burst time.
      */
     public int getBurstTime() {
-        return burstTime;
+        return table.burstTime[row];
     }
 
     /**
@@ -191,7 +353,7 @@ public class PCB implements Cloneable {
     private static int getNumberExecuted (PCB[] processes) {
         int count = 0;
         for (PCB process : processes) {
-            if (process.hasExecuted) {
+            if (process.hasExecuted()) {
                 count++;
             }
         }
@@ -205,7 +367,7 @@ public class PCB implements Cloneable {
      * @return The interrupt time.
      */
     public int getInterruptTime() {
-        return interruptTime;
+        return table.interruptTime[row];
     }
 
 
@@ -215,12 +377,13 @@ public class PCB implements Cloneable {
      * @param interruptTime The interrupt time.
      */
     public void setInterruptTime(int interruptTime) {
-        this.interruptTime = interruptTime;
+        table.interruptTime[row] = interruptTime;
     }
 
 
     /**
      * Overrides the clone method to support object cloning.
+     * The clone gets its own copy of the row, so it no longer shares state with this view.
      *
      * @return A cloned instance of the PCB object.
      * @throws CloneNotSupportedException If cloning is not supported.
@@ -228,7 +391,8 @@ public class PCB implements Cloneable {
 
     @Override
     public Object clone() throws CloneNotSupportedException {
-        return super.clone();
+        ProcessTable copy = new ProcessTable(1);
+        return copy.view(copy.addCopy(table, row));
     }
 
 
@@ -239,7 +403,7 @@ public class PCB implements Cloneable {
      */
     @Override
     public String toString() {
-        return "P" + pid;
+        return "P" + getPid();
     }
 
 }
\ No newline at end of file
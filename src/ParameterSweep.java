@@ -0,0 +1,180 @@
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Explores a grid of quantum values and maximum times for several algorithms, running every
+ * point of the grid on its own copy of the workload across all cores with a fork-join pool.
+ * The quantum is the time slice for Round Robin and the aging interval for the priority algorithms;
+ * algorithms that take no quantum are run once per maximum time.
+ */
+public class ParameterSweep {
+
+    private final ProcessTable workload;
+    private final List<Algorithm> algorithms;
+    private final int[] quanta;
+    private final int[] maximumTimes;
+
+    /**
+     * Constructs a sweep over every combination of the given algorithms, quanta and maximum times.
+     *
+     * @param workload     A table holding one row per process; it is not modified.
+     * @param algorithms   The algorithms to run.
+     * @param quanta       The quantum values to try.
+     * @param maximumTimes The maximum times to try.
+     */
+    public ParameterSweep(ProcessTable workload, Collection<Algorithm> algorithms, int[] quanta, int[] maximumTimes) {
+
+        if (quanta.length == 0 || maximumTimes.length == 0) {
+            throw new IllegalArgumentException("The sweep needs at least one quantum and one maximum time");
+        }
+        for (int quantum : quanta) {
+            if (quantum <= 0) {
+                throw new IllegalArgumentException("Quantum must be positive: " + quantum);
+            }
+        }
+        this.workload = workload;
+        this.algorithms = new ArrayList<>(algorithms);
+        this.quanta = quanta.clone();
+        this.maximumTimes = maximumTimes.clone();
+    }
+
+    /**
+     * Builds the values from one bound to another with a fixed step.
+     *
+     * @param from The first value.
+     * @param to   The last value, included if the step reaches it.
+     * @param step The difference between consecutive values.
+     * @return The values of the range.
+     */
+    public static int[] range(int from, int to, int step) {
+
+        if (step <= 0 || to < from) {
+            throw new IllegalArgumentException("Invalid range " + from + ".." + to + " step " + step);
+        }
+        int[] values = new int[(to - from) / step + 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = from + i * step;
+        }
+        return values;
+    }
+
+    /**
+     * Runs every point of the grid in the common fork-join pool.
+     *
+     * @return One result per point, grouped by algorithm, then by maximum time, then by quantum.
+     */
+    public List<SchedulingResult> run() {
+        return run(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs every point of the grid in the given fork-join pool.
+     *
+     * @param pool The pool to run the simulations in.
+     * @return One result per point, grouped by algorithm, then by maximum time, then by quantum.
+     */
+    public List<SchedulingResult> run(ForkJoinPool pool) {
+
+        List<int[]> points = new ArrayList<>(); //algorithm ordinal, maximum time, quantum
+        for (Algorithm algorithm : algorithms) {
+            for (int maximumTime : maximumTimes) {
+                for (int quantum : algorithm.usesQuantum() ? quanta : new int[]{quanta[0]}) {
+                    points.add(new int[]{algorithm.ordinal(), maximumTime, quantum});
+                }
+            }
+        }
+
+        SchedulingResult[] results = new SchedulingResult[points.size()];
+        pool.invoke(new SweepTask(points, results, 0, points.size()));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Finds the best point of every algorithm.
+     *
+     * @param results The results of a sweep.
+     * @param metric  The metric to minimize, such as SchedulingResult::getAverageWaitingTime.
+     * @return The result with the lowest metric for each algorithm, in the order the algorithms appear.
+     */
+    public static Map<Algorithm, SchedulingResult> optimum(List<SchedulingResult> results,
+                                                           ToDoubleFunction<SchedulingResult> metric) {
+
+        Map<Algorithm, SchedulingResult> best = new LinkedHashMap<>();
+        for (SchedulingResult result : results) {
+            SchedulingResult current = best.get(result.getAlgorithm());
+            if (current == null || metric.applyAsDouble(result) < metric.applyAsDouble(current)) {
+                best.put(result.getAlgorithm(), result);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Prints the metric curve of every algorithm and marks its optimum.
+     *
+     * @param results    The results of a sweep.
+     * @param metric     The metric to print and minimize.
+     * @param metricName The name of the metric.
+     * @param out        The stream to print to.
+     */
+    public static void printCurves(List<SchedulingResult> results, ToDoubleFunction<SchedulingResult> metric,
+                                   String metricName, PrintStream out) {
+
+        Map<Algorithm, SchedulingResult> best = optimum(results, metric);
+        Algorithm current = null;
+
+        for (SchedulingResult result : results) {
+            if (result.getAlgorithm() != current) {
+                current = result.getAlgorithm();
+                out.println("\n\u001B[31m\u001B[1m" + current.getDisplayName() + "\u001B[0m : ");
+                out.printf("\u001B[1m%8s %12s %12s\u001B[0m%n", "Quantum", "Max time", metricName);
+            }
+            out.printf("%8s %12d %12.2f%s%n",
+                    current.usesQuantum() ? String.valueOf(result.getQuantum()) : "-",
+                    result.getMaximumTime(),
+                    metric.applyAsDouble(result),
+                    best.get(current) == result ? "  <- optimum" : "");
+        }
+        out.println();
+    }
+
+    /**
+     * Splits a range of grid points in halves until a single simulation is left.
+     */
+    private class SweepTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<int[]> points;
+        private final SchedulingResult[] results;
+        private final int from;
+        private final int to;
+
+        SweepTask(List<int[]> points, SchedulingResult[] results, int from, int to) {
+            this.points = points;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from == 0) {
+                return;
+            }
+            if (to - from == 1) {
+                int[] point = points.get(from);
+                Algorithm algorithm = Algorithm.values()[point[0]];
+                Scheduling scheduler = algorithm.create(workload.copy(), point[1], point[2]);
+                results[from] = AlgorithmComparison.run(algorithm, point[2], scheduler);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SweepTask(points, results, from, middle), new SweepTask(points, results, middle, to));
+        }
+    }
+}
@@ -1,16 +1,11 @@
-import java.util.*;
-
 /**
  * Represents a preemptive priority scheduling algorithm.
  * Extends the generic Scheduling class.
  */
 public class PreemptivePriority extends Scheduling {
 
-    /** Array to store the priorities of processes. */
-    private int priorities[];
-
-    /** Quantum time for decreasing priority. */
-    private int quantum;
+    /** The ready queue, which ages its processes lazily. */
+    private AgingQueue agingQueue;
 
     /**
      * Constructs a PreemptivePriority object with the given processes, maximum time, and quantum.
@@ -20,19 +15,35 @@ public class PreemptivePriority extends Scheduling {
      * @param quantum     The quantum time for decreasing priority.
      */
     PreemptivePriority (PCB[] processes, int maximumTime, int quantum) {
+        this(ProcessTable.copyOf(processes), maximumTime, quantum);
+    }
 
-        super(processes, maximumTime);
+    /**
+     * Constructs a PreemptivePriority object that schedules the rows of a process table in place.
+     *
+     * @param table       A table holding one row per process.
+     * @param maximumTime The maximum time for which the algorithm runs.
+     * @param quantum     The quantum time for decreasing priority.
+     */
+    PreemptivePriority (ProcessTable table, int maximumTime, int quantum) {
+        this(new TableSource(table), maximumTime, quantum);
+    }
+
+    /**
+     * Constructs a PreemptivePriority object that reads its processes from a source as they arrive.
+     *
+     * @param source      The source of the processes, in order of arrival.
+     * @param maximumTime The maximum time for which the algorithm runs.
+     * @param quantum     The quantum time for decreasing priority.
+     */
+    PreemptivePriority (ProcessSource source, int maximumTime, int quantum) {
+
+        super(source, maximumTime);
         isPreemptive = true;
-        readyQueue = new PriorityQueue<>(processes.length,
-                Comparator.comparing(PCB::getPriority).thenComparing(PCB::getReadyQueueTime));
+        readyQueue = agingQueue = new AgingQueue(quantum);
 
-        waitingQueue = new LinkedList<>();
+        waitingQueue = new ComebackQueue();
 
-        this.quantum = quantum;
-        priorities = new int[processes.length];
-        for (int i = 0;i<priorities.length;i++) {
-            priorities[i] = processes[i].getPriority();
-        }
         isPriority = true;
     }
 
@@ -47,33 +58,46 @@ public class PreemptivePriority extends Scheduling {
     protected void resetProperties (PCB process, int countWaiting) {
 
         process.setReadyQueueTime(countWaiting);
-        process.setRemainingTime(process.burstTime); //reset the remaining time
-        process.setPriority(priorities[process.getPid()-1]); //reset priority
+        process.setRemainingTime(process.getBurstTime()); //reset the remaining time
+        process.setPriority(process.getInitialPriority()); //reset priority
     }
 
 
     /**
      * Decreases the priority of processes in the ready queue after a specific quantum time.
+     * The queue derives the priorities from the time each process has waited, so only its clock moves.
      *
      * @param time The current time.
      */
     protected void decreasePriority (int time) {
+        agingQueue.advanceTo(time); //effective priorities are derived from the time spent in the ready queue
+    }
 
-        Iterator<PCB> iterator = readyQueue.iterator();
-        LinkedList<PCB> stack = new LinkedList<>();
-        while (iterator.hasNext()) {
+    @Override
+    protected int getQuantum () {
+        return agingQueue.getQuantum();
+    }
 
-            PCB process = iterator.next();
-            if ((time - process.getReadyQueueTime()) % quantum == 0) { //decrement priority if a process remains in the ready queue for 5 sec
+    @Override
+    protected int[] saveReadyQueue () {
+        return agingQueue.save();
+    }
 
-                process.decrementPriority();
-                iterator.remove();
-                stack.push(process);
-            }
-        }
-        while (!stack.isEmpty()) {
-            readyQueue.offer(stack.pop());
-        }
+    @Override
+    protected void restoreReadyQueue (int[] saved) {
+        agingQueue.restore(saved, table);
+    }
+
+    /**
+     * Gets the next time at which a process in the ready queue reaches a multiple of the
+     * quantum since it entered the queue, which may let it preempt the running process.
+     *
+     * @param time The current time.
+     * @return The next aging time, or Integer.MAX_VALUE if the ready queue is empty.
+     */
+    @Override
+    protected int nextAgingTime (int time) {
+        return agingQueue.nextAgingTime();
     }
 
     /**
@@ -84,18 +108,8 @@ public class PreemptivePriority extends Scheduling {
     @Override
     protected void interruptProcess (int time) {
 
-        if (readyQueue.peek().getPriority() < runningProcess.getPriority()) {
-
-            printGanttEntry(runningProcess, time);
-            runningProcess.setInterruptTime(time);
-
-            PCB tempProcess = runningProcess;
-            tempProcess.setReadyQueueTime(time);
-            runningProcess = readyQueue.poll();
-            runningProcess.waitingQueueTime += time - runningProcess.getReadyQueueTime();
-            runningProcess.setDeploymentTime(time);
-            runningProcess.hasExecuted = true;
-            readyQueue.offer(tempProcess);
+        if (!readyQueue.isEmpty() && agingQueue.peekPriority() < runningProcess.getPriority()) {
+            preempt(time);
         }
     }
 }
@@ -0,0 +1,47 @@
+/**
+ * Supplies processes to a scheduler in the order they arrive, so the scheduler only has to
+ * hold the processes that have already arrived.
+ *
+ * The first process supplied is the one that starts on the CPU at time 0, or that is queued first
+ * if others arrive at time 0 too; the ones after it must come in non-decreasing order of arrival time.
+ */
+public interface ProcessSource {
+
+    /**
+     * Gets the arrival time of the next process without consuming it.
+     *
+     * @return The arrival time of the next process, or Integer.MAX_VALUE if there are no more processes.
+     */
+    int peekArrivalTime();
+
+    /**
+     * Consumes the next process and makes it a row of the given table.
+     *
+     * @param table The table the process is admitted into.
+     * @return The row of the process in the table.
+     * @throws java.util.NoSuchElementException if there are no more processes.
+     */
+    int next(ProcessTable table);
+
+    /**
+     * Gets the table a scheduler reading from this source should admit its processes into.
+     * By default this is a new, empty table.
+     *
+     * @return The table for the scheduler.
+     */
+    default ProcessTable createTable() {
+        return new ProcessTable(16);
+    }
+
+    /**
+     * Tells whether a scheduler may reuse the rows of the processes that left for good for the
+     * processes that arrive after them, so the table only grows with the processes present at once.
+     * By default it may, since the table is the scheduler's own; a source whose table belongs to the
+     * caller keeps every row.
+     *
+     * @return true if the rows of the table may be recycled.
+     */
+    default boolean isRecyclable() {
+        return true;
+    }
+}
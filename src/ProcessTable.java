@@ -0,0 +1,360 @@
+import java.util.Arrays;
+
+/**
+ * Columnar table holding the state of many processes in primitive arrays, one column per
+ * PCB field and one row per process. A PCB is a view of one row of a table, so schedulers
+ * keep working with PCB objects while the data itself stays compact and contiguous.
+ */
+public class ProcessTable {
+
+    int[] pid;
+    int[] arrivalTime;
+    int[] burstTime;
+    int[] remainingTime;
+    int[] deploymentTime;
+    int[] comeBack;
+    int[] period;
+    int[] deadline;
+    int[] priority;
+    int[] initialPriority;
+    int[] interruptTime;
+    int[] finishTime;
+    int[] executionTime;
+    int[] readyQueueTime;
+    int[] waitingQueueTime;
+    boolean[] hasExecuted;
+
+    /** Whether each row was released and holds no process until it is reused. */
+    private boolean[] isFree;
+
+    /** Number of rows, including the released ones. */
+    private int size;
+
+    /** Released rows, reused by the next processes added, the last released first. */
+    private int[] freeRows = new int[16];
+
+    /** Number of released rows waiting to be reused. */
+    private int freeCount;
+
+    /**
+     * Constructs an empty table.
+     *
+     * @param capacity The number of rows to allocate up front.
+     */
+    public ProcessTable(int capacity) {
+        allocate(Math.max(capacity, 1));
+    }
+
+    /**
+     * Creates a table holding a copy of the given processes, in array order.
+     *
+     * @param processes An array of PCB (Process Control Block) objects.
+     * @return A new table with one row per process.
+     */
+    public static ProcessTable copyOf(PCB[] processes) {
+
+        ProcessTable table = new ProcessTable(processes.length);
+        for (PCB process : processes) {
+            table.addCopy(process.getTable(), process.getRow());
+        }
+        return table;
+    }
+
+    /**
+     * Appends a new process.
+     *
+     * @param pid         Process ID.
+     * @param arrivalTime Arrival time of the process.
+     * @param burstTime   Burst time of the process.
+     * @param comeBack    Time for the process to come back to the ready queue.
+     * @param priority    Priority of the process.
+     * @return The row of the new process.
+     */
+    public int add(int pid, int arrivalTime, int burstTime, int comeBack, int priority) {
+        return add(pid, arrivalTime, burstTime, comeBack, priority, 0, 0);
+    }
+
+    /**
+     * Appends a new periodic process for the real-time algorithms.
+     *
+     * @param pid         Process ID.
+     * @param arrivalTime Arrival time of the process.
+     * @param burstTime   Burst time of the process.
+     * @param comeBack    Time for the process to come back to the ready queue.
+     * @param priority    Priority of the process.
+     * @param period      Time between two releases of the process, or 0 for its burst plus comeback time.
+     * @param deadline    Time after a release by which the burst must be done, or 0 for the period.
+     * @return The row of the new process.
+     */
+    public int add(int pid, int arrivalTime, int burstTime, int comeBack, int priority, int period, int deadline) {
+
+        int row = newRow();
+        this.pid[row] = pid;
+        this.arrivalTime[row] = arrivalTime;
+        this.burstTime[row] = burstTime;
+        this.remainingTime[row] = burstTime;
+        this.comeBack[row] = comeBack;
+        this.period[row] = period;
+        this.deadline[row] = deadline;
+        this.priority[row] = priority;
+        this.initialPriority[row] = priority;
+        deploymentTime[row] = 0;
+        interruptTime[row] = 0;
+        finishTime[row] = 0;
+        executionTime[row] = 0;
+        readyQueueTime[row] = 0;
+        waitingQueueTime[row] = 0;
+        hasExecuted[row] = false;
+        return row;
+    }
+
+    /**
+     * Appends a copy of a row of another table, including its scheduling state.
+     *
+     * @param source The table to copy from.
+     * @param row    The row to copy.
+     * @return The row of the copy in this table.
+     */
+    public int addCopy(ProcessTable source, int row) {
+
+        int copy = newRow();
+        pid[copy] = source.pid[row];
+        arrivalTime[copy] = source.arrivalTime[row];
+        burstTime[copy] = source.burstTime[row];
+        remainingTime[copy] = source.remainingTime[row];
+        deploymentTime[copy] = source.deploymentTime[row];
+        comeBack[copy] = source.comeBack[row];
+        period[copy] = source.period[row];
+        deadline[copy] = source.deadline[row];
+        priority[copy] = source.priority[row];
+        initialPriority[copy] = source.initialPriority[row];
+        interruptTime[copy] = source.interruptTime[row];
+        finishTime[copy] = source.finishTime[row];
+        executionTime[copy] = source.executionTime[row];
+        readyQueueTime[copy] = source.readyQueueTime[row];
+        waitingQueueTime[copy] = source.waitingQueueTime[row];
+        hasExecuted[copy] = source.hasExecuted[row];
+        return copy;
+    }
+
+    /**
+     * Copies the whole table column by column.
+     *
+     * @return An independent copy of this table.
+     */
+    public ProcessTable copy() {
+
+        ProcessTable copy = new ProcessTable(0);
+        copy.pid = Arrays.copyOf(pid, size);
+        copy.arrivalTime = Arrays.copyOf(arrivalTime, size);
+        copy.burstTime = Arrays.copyOf(burstTime, size);
+        copy.remainingTime = Arrays.copyOf(remainingTime, size);
+        copy.deploymentTime = Arrays.copyOf(deploymentTime, size);
+        copy.comeBack = Arrays.copyOf(comeBack, size);
+        copy.period = Arrays.copyOf(period, size);
+        copy.deadline = Arrays.copyOf(deadline, size);
+        copy.priority = Arrays.copyOf(priority, size);
+        copy.initialPriority = Arrays.copyOf(initialPriority, size);
+        copy.interruptTime = Arrays.copyOf(interruptTime, size);
+        copy.finishTime = Arrays.copyOf(finishTime, size);
+        copy.executionTime = Arrays.copyOf(executionTime, size);
+        copy.readyQueueTime = Arrays.copyOf(readyQueueTime, size);
+        copy.waitingQueueTime = Arrays.copyOf(waitingQueueTime, size);
+        copy.hasExecuted = Arrays.copyOf(hasExecuted, size);
+        copy.isFree = Arrays.copyOf(isFree, size);
+        copy.size = size;
+        copy.freeRows = Arrays.copyOf(freeRows, Math.max(freeCount, 16));
+        copy.freeCount = freeCount;
+        return copy;
+    }
+
+    /**
+     * Overwrites every row with the same row of another table of the same size, as when the
+     * state saved in a checkpoint is brought back.
+     *
+     * @param source The table to copy from.
+     */
+    void copyRows(ProcessTable source) {
+
+        if (source.size != size) {
+            throw new IllegalArgumentException("Table sizes differ: " + source.size + " and " + size);
+        }
+        System.arraycopy(source.pid, 0, pid, 0, size);
+        System.arraycopy(source.arrivalTime, 0, arrivalTime, 0, size);
+        System.arraycopy(source.burstTime, 0, burstTime, 0, size);
+        System.arraycopy(source.remainingTime, 0, remainingTime, 0, size);
+        System.arraycopy(source.deploymentTime, 0, deploymentTime, 0, size);
+        System.arraycopy(source.comeBack, 0, comeBack, 0, size);
+        System.arraycopy(source.period, 0, period, 0, size);
+        System.arraycopy(source.deadline, 0, deadline, 0, size);
+        System.arraycopy(source.priority, 0, priority, 0, size);
+        System.arraycopy(source.initialPriority, 0, initialPriority, 0, size);
+        System.arraycopy(source.interruptTime, 0, interruptTime, 0, size);
+        System.arraycopy(source.finishTime, 0, finishTime, 0, size);
+        System.arraycopy(source.executionTime, 0, executionTime, 0, size);
+        System.arraycopy(source.readyQueueTime, 0, readyQueueTime, 0, size);
+        System.arraycopy(source.waitingQueueTime, 0, waitingQueueTime, 0, size);
+        System.arraycopy(source.hasExecuted, 0, hasExecuted, 0, size);
+    }
+
+    /**
+     * Tells whether another table holds the same processes, comparing the columns that
+     * scheduling never changes.
+     *
+     * @param other The table to compare with.
+     * @return true if both tables have the same pids, arrivals, bursts, comebacks, initial priorities,
+     *         periods and deadlines.
+     */
+    boolean hasSameProcesses(ProcessTable other) {
+
+        return other.size == size
+                && Arrays.equals(pid, 0, size, other.pid, 0, size)
+                && Arrays.equals(arrivalTime, 0, size, other.arrivalTime, 0, size)
+                && Arrays.equals(burstTime, 0, size, other.burstTime, 0, size)
+                && Arrays.equals(comeBack, 0, size, other.comeBack, 0, size)
+                && Arrays.equals(initialPriority, 0, size, other.initialPriority, 0, size)
+                && Arrays.equals(period, 0, size, other.period, 0, size)
+                && Arrays.equals(deadline, 0, size, other.deadline, 0, size);
+    }
+
+    /**
+     * Gets a PCB view of a row. Changes made through the view are written to the table.
+     *
+     * @param row The row of the process.
+     * @return A view of the row.
+     */
+    public PCB view(int row) {
+
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException(row);
+        }
+        return new PCB(this, row);
+    }
+
+    /**
+     * Gets PCB views of all the rows that hold a process, in row order.
+     *
+     * @return An array of views.
+     */
+    public PCB[] views() {
+
+        PCB[] views = new PCB[size - freeCount];
+        int i = 0;
+        for (int row = 0; row < size; row++) {
+            if (!isFree[row]) {
+                views[i++] = new PCB(this, row);
+            }
+        }
+        return views;
+    }
+
+    /**
+     * Gets the number of rows, including the released ones, which isFree tells apart.
+     *
+     * @return The number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Releases the row of a process that left for good, so the next process added reuses it
+     * instead of a new row. Views of the row must not be used once it is reused.
+     *
+     * @param row The row to release.
+     */
+    void release(int row) {
+
+        if (isFree[row]) {
+            throw new IllegalArgumentException("Row already released: " + row);
+        }
+        isFree[row] = true;
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+        }
+        freeRows[freeCount++] = row;
+    }
+
+    /**
+     * Tells whether a row was released and holds no process.
+     *
+     * @param row The row.
+     * @return true if the row is free.
+     */
+    public boolean isFree(int row) {
+        return isFree[row];
+    }
+
+    /**
+     * Removes every row, keeping the allocated columns for reuse.
+     * Views of the removed rows must not be used afterwards.
+     */
+    public void clear() {
+        size = 0;
+        freeCount = 0;
+    }
+
+    /**
+     * Reserves a row, reusing a released one if there is one, or else the next row, growing every
+     * column if the table is full.
+     *
+     * @return The reserved row.
+     */
+    private int newRow() {
+
+        int row;
+        if (freeCount > 0) {
+            row = freeRows[--freeCount];
+        }
+        else {
+            if (size == pid.length) {
+                grow(Math.max(size * 2, 16));
+            }
+            row = size++;
+        }
+        isFree[row] = false;
+        return row;
+    }
+
+    private void allocate(int capacity) {
+
+        pid = new int[capacity];
+        arrivalTime = new int[capacity];
+        burstTime = new int[capacity];
+        remainingTime = new int[capacity];
+        deploymentTime = new int[capacity];
+        comeBack = new int[capacity];
+        period = new int[capacity];
+        deadline = new int[capacity];
+        priority = new int[capacity];
+        initialPriority = new int[capacity];
+        interruptTime = new int[capacity];
+        finishTime = new int[capacity];
+        executionTime = new int[capacity];
+        readyQueueTime = new int[capacity];
+        waitingQueueTime = new int[capacity];
+        hasExecuted = new boolean[capacity];
+        isFree = new boolean[capacity];
+    }
+
+    private void grow(int capacity) {
+
+        pid = Arrays.copyOf(pid, capacity);
+        arrivalTime = Arrays.copyOf(arrivalTime, capacity);
+        burstTime = Arrays.copyOf(burstTime, capacity);
+        remainingTime = Arrays.copyOf(remainingTime, capacity);
+        deploymentTime = Arrays.copyOf(deploymentTime, capacity);
+        comeBack = Arrays.copyOf(comeBack, capacity);
+        period = Arrays.copyOf(period, capacity);
+        deadline = Arrays.copyOf(deadline, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        initialPriority = Arrays.copyOf(initialPriority, capacity);
+        interruptTime = Arrays.copyOf(interruptTime, capacity);
+        finishTime = Arrays.copyOf(finishTime, capacity);
+        executionTime = Arrays.copyOf(executionTime, capacity);
+        readyQueueTime = Arrays.copyOf(readyQueueTime, capacity);
+        waitingQueueTime = Arrays.copyOf(waitingQueueTime, capacity);
+        hasExecuted = Arrays.copyOf(hasExecuted, capacity);
+        isFree = Arrays.copyOf(isFree, capacity);
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * Represents the Rate Monotonic scheduling algorithm.
+ * Extends the RealTimeScheduling class.
+ *
+ * Every task has a fixed priority given by its period, the shortest period first, and a job of a
+ * task with a shorter period preempts the running one; jobs of tasks with the same period run in
+ * the order they became ready. Rate Monotonic is the optimal fixed-priority policy when deadlines
+ * equal periods, and meets every deadline when the utilization is within the Liu and Layland bound.
+ */
+public class RateMonotonic extends RealTimeScheduling {
+
+    RateMonotonic(PCB[] processes, int maximumTime) {
+        this(ProcessTable.copyOf(processes), maximumTime);
+    }
+
+    RateMonotonic(ProcessTable table, int maximumTime) {
+        this(new TableSource(table), maximumTime);
+    }
+
+    RateMonotonic(ProcessSource source, int maximumTime) {
+        super(source, maximumTime);
+    }
+
+    @Override
+    protected long keyOf(PCB process) {
+        return IndexedHeap.key(periodOf(process), process.getReadyQueueTime());
+    }
+}
@@ -0,0 +1,655 @@
+import java.util.Arrays;
+
+/**
+ * Base of the real-time scheduling algorithms, which treat every process as a periodic task.
+ * Extends the generic Scheduling class.
+ *
+ * A process releases a job, one burst, at its arrival and then once every period: job k is released
+ * at the arrival plus k periods, however late the previous jobs are. Every job must be done by its
+ * release plus the relative deadline of the process. The period of a process is PCB.getPeriod, or
+ * its burst plus comeback time when it has none, the cycle it would have on an idle CPU; its
+ * deadline is PCB.getDeadline, or its period. A process without a period whose comeback time is
+ * not positive releases a single job.
+ *
+ * A process runs its jobs one at a time, in order. Jobs released while an earlier one is still
+ * unfinished wait in a backlog, and the next job starts as soon as the previous one is done, keeping
+ * its own release and deadline, so the lateness of an overloaded task keeps growing.
+ *
+ * The ready queue is an IndexedHeap, ordered by the key of the subclass. A deadline miss is counted
+ * once the deadline passes with the job unfinished, whether the job is running, ready or in the
+ * backlog. Its lateness is counted when it completes, or at the end of the run, up to the maximum
+ * time, if it never does. The static analyze method checks the utilization bounds of a workload
+ * before a run.
+ */
+public abstract class RealTimeScheduling extends Scheduling {
+
+    /**
+     * Utilization of a set of periodic tasks and the schedulability tests it passes.
+     */
+    public static final class Analysis {
+
+        private final int tasks;
+        private final double utilization;
+        private final double density;
+        private final double hyperbolicProduct;
+
+        Analysis(int tasks, double utilization, double density, double hyperbolicProduct) {
+            this.tasks = tasks;
+            this.utilization = utilization;
+            this.density = density;
+            this.hyperbolicProduct = hyperbolicProduct;
+        }
+
+        /**
+         * Gets the number of periodic tasks, the processes releasing more than one job.
+         *
+         * @return The number of tasks.
+         */
+        public int getTasks() {
+            return tasks;
+        }
+
+        /**
+         * Gets the total utilization, the sum of burst / period over the tasks.
+         *
+         * @return The utilization.
+         */
+        public double getUtilization() {
+            return utilization;
+        }
+
+        /**
+         * Gets the total density, the sum of burst / min(deadline, period) over the tasks.
+         *
+         * @return The density.
+         */
+        public double getDensity() {
+            return density;
+        }
+
+        /**
+         * Gets the Liu and Layland bound on the utilization of Rate Monotonic, n(2^(1/n) - 1).
+         *
+         * @return The bound for the number of tasks.
+         */
+        public double getRateMonotonicBound() {
+            return tasks == 0 ? 1 : tasks * (Math.pow(2, 1.0 / tasks) - 1);
+        }
+
+        /**
+         * Tells whether EDF meets every deadline: the density is at most 1, which is exact when
+         * every deadline equals its period.
+         *
+         * @return true if the tasks are schedulable by EDF.
+         */
+        public boolean isEdfSchedulable() {
+            return density <= 1;
+        }
+
+        /**
+         * Tells whether Rate Monotonic is sure to meet every deadline, by the Liu and Layland bound
+         * or the hyperbolic bound, the product of (burst / period + 1) being at most 2. Both bounds
+         * assume deadlines equal to periods and are sufficient only, so a task set failing them
+         * may still be schedulable.
+         *
+         * @return true if the tasks pass one of the bounds.
+         */
+        public boolean isRateMonotonicSchedulable() {
+            return density == utilization && (utilization <= getRateMonotonicBound() || hyperbolicProduct <= 2);
+        }
+
+        /**
+         * Prints the utilization and the outcome of the tests.
+         *
+         * @param out The stream to print to.
+         */
+        public void print(java.io.PrintStream out) {
+            out.printf("Periodic tasks : %d%nUtilization : %.4f (Rate Monotonic bound %.4f)%nDensity : %.4f%n"
+                            + "Schedulable by EDF : %s%nSchedulable by Rate Monotonic : %s%n%n", tasks, utilization,
+                    getRateMonotonicBound(), density, isEdfSchedulable() ? "yes" : "no",
+                    isRateMonotonicSchedulable() ? "yes" : "not guaranteed");
+        }
+    }
+
+    /** The ready queue, ordered by the key of the subclass. */
+    protected IndexedHeap deadlineQueue;
+
+    /** Number of jobs of every process that completed, and whose deadline was checked, by row. */
+    private JobCounts jobCounts = new JobCounts();
+
+    /**
+     * Every task that arrived on this CPU and has a deadline left to check, ordered by the deadline
+     * of its first job not checked yet.
+     */
+    private ComebackQueue deadlines = new ComebackQueue();
+
+    /**
+     * The view of every row whose process arrived on this CPU and still has a job to settle, or null.
+     * A task whose last job missed its deadline unfinished stays here, out of deadlines, until it
+     * completes or the run ends; an entry of deadlines with another view was left by a process that
+     * is gone, whose row was released, and is dropped.
+     */
+    private PCB[] tracked = new PCB[16];
+
+    /** Number of jobs that completed or missed their deadline, and of those that missed it. */
+    private long jobs;
+    private long misses;
+
+    /** Sum of the lateness of the jobs that missed, and the largest one. */
+    private long totalLateness;
+    private int maximumLateness;
+
+    /** Indicates whether the last run reached the maximum time, so its results can be printed. */
+    private boolean isFinished;
+
+    /**
+     * Constructs a real-time scheduler whose ready queue is ordered by keyOf.
+     *
+     * @param source      The source of the processes, in order of arrival.
+     * @param maximumTime The maximum time for which the algorithm runs.
+     */
+    RealTimeScheduling(ProcessSource source, int maximumTime) {
+
+        super(source, maximumTime);
+        isPreemptive = true;
+        isPriority = true; //deadlines are checked in the aging hook
+        readyQueue = deadlineQueue = new IndexedHeap(this::keyOf);
+
+        waitingQueue = new ComebackQueue();
+    }
+
+    /**
+     * Checks the utilization bounds of the periodic tasks of a workload, reading the source once.
+     *
+     * @param source The source of the processes; it is consumed.
+     * @return The utilization of the tasks and the tests it passes.
+     */
+    public static Analysis analyze(ProcessSource source) {
+
+        ProcessTable scratch = new ProcessTable(1);
+        int tasks = 0;
+        double utilization = 0;
+        double density = 0;
+        double product = 1;
+        while (source.peekArrivalTime() != Integer.MAX_VALUE) {
+
+            scratch.clear();
+            PCB process = scratch.view(source.next(scratch));
+            if (!isPeriodic(process)) {
+                continue;
+            }
+            double share = (double) process.getBurstTime() / periodOf(process);
+            tasks++;
+            utilization += share;
+            density += (double) process.getBurstTime() / Math.min(deadlineOf(process), periodOf(process));
+            product *= share + 1;
+        }
+        return new Analysis(tasks, utilization, density, product);
+    }
+
+    /**
+     * Tells whether a process releases a job every period, rather than a single one.
+     *
+     * @param process The process.
+     * @return true if the process has a period or a positive comeback time.
+     */
+    public static boolean isPeriodic(PCB process) {
+        return process.getPeriod() > 0 || process.getComeBack() > 0;
+    }
+
+    /**
+     * Gets the period of a process: the one it was given, or its burst plus comeback time.
+     *
+     * @param process The process.
+     * @return The time between two releases.
+     */
+    public static int periodOf(PCB process) {
+
+        if (process.getPeriod() > 0) {
+            return process.getPeriod();
+        }
+        return (int) Math.min((long) process.getBurstTime() + Math.max(process.getComeBack(), 0), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the relative deadline of a process: the one it was given, or its period.
+     *
+     * @param process The process.
+     * @return The time after a release by which its job must be done.
+     */
+    public static int deadlineOf(PCB process) {
+        return process.getDeadline() > 0 ? process.getDeadline() : periodOf(process);
+    }
+
+    /**
+     * Gets the release time of the current job of a process, the first one not completed yet.
+     *
+     * @param process The process.
+     * @return The time its current job was released, at most Integer.MAX_VALUE.
+     */
+    protected int releaseOf(PCB process) {
+        return (int) Math.min(releaseOf(process, jobCounts.completed(process.getRow())), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the absolute deadline of the current job of a process.
+     *
+     * @param process The process.
+     * @return The time by which its current job must be done, at most Integer.MAX_VALUE.
+     */
+    protected int absoluteDeadlineOf(PCB process) {
+        return (int) Math.min(deadlineOf(process, jobCounts.completed(process.getRow())), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Runs the algorithm, then prints the deadline misses if the run reached the maximum time.
+     */
+    @Override
+    public void runAlgorithm() {
+
+        isFinished = false;
+        super.runAlgorithm();
+        if (isFinished) {
+            out.printf("\u001B[31m\u001B[1mDeadline misses\u001B[0m : \u001B[1m%d of %d jobs, average lateness %.2f,"
+                    + " maximum lateness %d%n\u001B[0m%n", misses, jobs, getAverageLateness(), maximumLateness);
+        }
+    }
+
+    /**
+     * Resets properties of a process when its next job starts waiting in the ready queue.
+     *
+     * @param process      The PCB (Process Control Block) object to be reset.
+     * @param countWaiting The current count of waiting time.
+     */
+    @Override
+    protected void resetProperties(PCB process, int countWaiting) {
+        process.setReadyQueueTime(countWaiting);
+        process.setRemainingTime(process.getBurstTime()); //reset the remaining time
+    }
+
+    /**
+     * Accounts for the job that just completed and gets the release of the next one, k periods
+     * after the arrival for job k. A next job already released is in the backlog and starts at once.
+     *
+     * @param process The PCB (Process Control Block) object that just finished.
+     * @return The release of the next job, IMMEDIATELY if it was already released, or the finish
+     *         time if the process releases no more jobs.
+     */
+    @Override
+    protected long comebackTime(PCB process) {
+
+        int row = process.getRow();
+        int finish = process.getFinishTime();
+        int job = jobCounts.completed(row);
+        long lateness = finish - deadlineOf(process, job);
+
+        jobs++;
+        if (job < jobCounts.checked(row)) { //its deadline passed and the miss was already counted
+            addLateness(lateness);
+        }
+        else {
+            jobCounts.setChecked(row, job + 1);
+            if (lateness > 0) {
+                misses++;
+                addLateness(lateness);
+            }
+        }
+        jobCounts.setCompleted(row, job + 1);
+
+        if (!isPeriodic(process)) {
+            return finish;
+        }
+        long next = releaseOf(process, job + 1);
+        return next <= finish ? IMMEDIATELY : next;
+    }
+
+    /**
+     * Starts a run, keeping track of the deadlines of the first process.
+     *
+     * @param first The process that starts on the CPU, or null to start with an idle CPU.
+     */
+    @Override
+    void start(PCB first) {
+
+        if (first != null) {
+            track(first);
+        }
+        super.start(first);
+    }
+
+    /**
+     * Puts a process that arrived in the ready queue, keeping track of its deadlines.
+     *
+     * @param process The process that arrived.
+     * @param time    The current time.
+     */
+    @Override
+    void admit(PCB process, int time) {
+
+        track(process); //first, since the key of its current job depends on its job counts
+        super.admit(process, time);
+    }
+
+    /**
+     * Counts a miss for every job whose deadline passed before the given time without it being done.
+     *
+     * @param time The current time.
+     */
+    @Override
+    protected void decreasePriority(int time) {
+
+        while (deadlines.peekTime() < time) {
+
+            PCB process = deadlines.poll();
+            int row = process.getRow();
+            if (!isTracked(process)) {
+                continue;
+            }
+            long deadline = nextDeadline(process);
+            while (deadline < time) {
+                int job = jobCounts.checked(row);
+                if (job >= jobCounts.completed(row)) {
+                    misses++;
+                }
+                jobCounts.setChecked(row, job + 1);
+                deadline = nextDeadline(process);
+            }
+            if (deadline != ComebackQueue.NEVER) {
+                deadlines.add(process, deadline);
+            }
+            else if (jobCounts.completed(row) >= jobCounts.checked(row)) {
+                tracked[row] = null; //every job is settled
+            }
+        }
+    }
+
+    /**
+     * Gets the time right after the next deadline to check, when a miss may have to be counted.
+     *
+     * @param time The current time.
+     * @return The time after the earliest deadline not checked yet, or Integer.MAX_VALUE if there is none.
+     */
+    @Override
+    protected int nextAgingTime(int time) {
+
+        long deadline = deadlines.peekTime();
+        return deadline >= Integer.MAX_VALUE - 1 ? Integer.MAX_VALUE : (int) deadline + 1;
+    }
+
+    /**
+     * Preempts the running job when the head of the ready queue has a smaller key.
+     *
+     * @param time The current time.
+     */
+    @Override
+    protected void interruptProcess(int time) {
+
+        if (!deadlineQueue.isEmpty() && deadlineQueue.peekKey() >>> 32 < keyOf(runningProcess) >>> 32) {
+            preempt(time);
+        }
+    }
+
+    /**
+     * Ends the run, counting the misses of the deadlines that passed before the maximum time, and
+     * the lateness so far of the jobs that missed their deadline without being done.
+     */
+    @Override
+    void finish() {
+
+        decreasePriority(maximumTime);
+        for (PCB process : tracked) {
+            if (process == null) {
+                continue;
+            }
+            int row = process.getRow();
+            for (int job = jobCounts.completed(row); job < jobCounts.checked(row); job++) {
+                jobs++;
+                addLateness(maximumTime - deadlineOf(process, job));
+            }
+        }
+        super.finish();
+        isFinished = true;
+    }
+
+    /**
+     * Stops tracking the deadlines of a process that left for good, as its row is released.
+     *
+     * @param row The row being released.
+     */
+    @Override
+    protected void releaseRow(int row) {
+        tracked[row] = null;
+    }
+
+    /**
+     * Gets the key of a job, built with IndexedHeap.key: the job with the smallest key runs, and a
+     * job whose key has a smaller first part than the one of the running job preempts it.
+     *
+     * @param process The process of the job.
+     * @return The key of its current job.
+     */
+    protected abstract long keyOf(PCB process);
+
+    /**
+     * Makes this scheduler count the jobs of the processes in the same place as another one, so
+     * the CPUs of an SmpScheduling agree on the jobs of a process that moves between them.
+     *
+     * @param other The scheduler whose counts are shared.
+     */
+    void shareJobCounts(RealTimeScheduling other) {
+        jobCounts = other.jobCounts;
+    }
+
+    /**
+     * Makes room in the job counts for the rows of a table, so the CPUs sharing them can update
+     * the counts of their own rows from several threads without any of them growing the columns.
+     *
+     * @param rows The number of rows to hold.
+     */
+    void reserveJobCounts(int rows) {
+        jobCounts.ensureCapacity(rows - 1);
+    }
+
+    /**
+     * Saves the ready queue for a checkpoint, followed by the job counts of every row, the deadline
+     * counters and the rows of the tasks whose deadlines are tracked.
+     *
+     * @return The state of the queue and of the jobs.
+     */
+    @Override
+    protected int[] saveReadyQueue() {
+
+        int[] queue = super.saveReadyQueue();
+        int rows = table.size();
+        int trackedCount = 0;
+        for (PCB process : tracked) {
+            trackedCount += process != null ? 1 : 0;
+        }
+        int[] saved = new int[2 + queue.length + 2 * rows + 8 + trackedCount];
+        int k = 0;
+        saved[k++] = queue.length;
+        System.arraycopy(queue, 0, saved, k, queue.length);
+        k += queue.length;
+        saved[k++] = rows;
+        for (int row = 0; row < rows; row++) {
+            saved[k++] = jobCounts.completed(row);
+            saved[k++] = jobCounts.checked(row);
+        }
+        for (long value : new long[]{jobs, misses, totalLateness}) {
+            saved[k++] = (int) (value >>> 32);
+            saved[k++] = (int) value;
+        }
+        saved[k++] = maximumLateness;
+        saved[k++] = trackedCount;
+        for (PCB process : tracked) {
+            if (process != null) {
+                saved[k++] = process.getRow();
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    protected void restoreReadyQueue(int[] saved) {
+
+        int k = 0;
+        int[] queue = Arrays.copyOfRange(saved, 1, 1 + saved[0]);
+        k += 1 + saved[0];
+        int rows = saved[k++];
+        jobCounts = new JobCounts();
+        for (int row = 0; row < rows; row++) {
+            jobCounts.setCompleted(row, saved[k++]);
+            jobCounts.setChecked(row, saved[k++]);
+        }
+        long[] counters = new long[3];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = (long) saved[k++] << 32 | (saved[k++] & 0xFFFFFFFFL);
+        }
+        jobs = counters[0];
+        misses = counters[1];
+        totalLateness = counters[2];
+        maximumLateness = saved[k++];
+        deadlines = new ComebackQueue();
+        tracked = new PCB[Math.max(rows, 16)];
+        for (int count = saved[k++]; count > 0; count--) {
+            PCB process = table.view(saved[k++]);
+            tracked[process.getRow()] = process;
+            long deadline = nextDeadline(process);
+            if (deadline != ComebackQueue.NEVER) {
+                deadlines.add(process, deadline);
+            }
+        }
+        super.restoreReadyQueue(queue); //the keys depend on the job counts restored above
+    }
+
+    /**
+     * Gets the number of jobs that completed or missed their deadline unfinished.
+     *
+     * @return The number of jobs counted.
+     */
+    public long getJobCount() {
+        return jobs;
+    }
+
+    /**
+     * Gets the number of jobs that missed their deadline.
+     *
+     * @return The number of deadline misses.
+     */
+    public long getDeadlineMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the fraction of the jobs counted that missed their deadline.
+     *
+     * @return The miss ratio, from 0 to 1.
+     */
+    public double getMissRatio() {
+        return jobs == 0 ? 0 : (double) misses / jobs;
+    }
+
+    /**
+     * Gets the average lateness of the jobs that missed their deadline.
+     *
+     * @return The average time past the deadline, or 0 if no job missed.
+     */
+    public double getAverageLateness() {
+        return misses == 0 ? 0 : (double) totalLateness / misses;
+    }
+
+    public int getMaximumLateness() {
+        return maximumLateness;
+    }
+
+    /**
+     * Starts checking the deadlines of a process that arrived, from its first job.
+     */
+    private void track(PCB process) {
+
+        int row = process.getRow();
+        if (row >= tracked.length) {
+            tracked = Arrays.copyOf(tracked, Math.max(tracked.length * 2, row + 1));
+        }
+        tracked[row] = process;
+        jobCounts.setCompleted(row, 0);
+        jobCounts.setChecked(row, 0);
+        deadlines.add(process, nextDeadline(process));
+    }
+
+    /**
+     * Tells whether an entry of deadlines belongs to the process its row holds now.
+     */
+    private boolean isTracked(PCB process) {
+
+        int row = process.getRow();
+        return row < tracked.length && tracked[row] == process;
+    }
+
+    /**
+     * Gets the deadline of the first job of a process whose deadline was not checked yet.
+     *
+     * @return The deadline, or ComebackQueue.NEVER if the process has no such job.
+     */
+    private long nextDeadline(PCB process) {
+
+        int job = jobCounts.checked(process.getRow());
+        return job > 0 && !isPeriodic(process) ? ComebackQueue.NEVER : deadlineOf(process, job);
+    }
+
+    /**
+     * Gets the release of a job of a process, its arrival plus one period per earlier job.
+     */
+    private static long releaseOf(PCB process, int job) {
+        return process.getArrivalTime() + (long) job * periodOf(process);
+    }
+
+    /**
+     * Gets the absolute deadline of a job of a process.
+     */
+    private static long deadlineOf(PCB process, int job) {
+        return releaseOf(process, job) + deadlineOf(process);
+    }
+
+    private void addLateness(long lateness) {
+        totalLateness += lateness;
+        maximumLateness = (int) Math.max(maximumLateness, Math.min(lateness, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Number of completed jobs and of jobs whose deadline was checked, per row, as growable columns.
+     * The columns only grow from the thread that adds the rows, see reserveJobCounts.
+     */
+    private static final class JobCounts {
+
+        private int[] completed = new int[16];
+        private int[] checked = new int[16];
+
+        int completed(int row) {
+            return row < completed.length ? completed[row] : 0;
+        }
+
+        int checked(int row) {
+            return row < checked.length ? checked[row] : 0;
+        }
+
+        void setCompleted(int row, int count) {
+            ensureCapacity(row);
+            completed[row] = count;
+        }
+
+        void setChecked(int row, int count) {
+            ensureCapacity(row);
+            checked[row] = count;
+        }
+
+        private void ensureCapacity(int row) {
+
+            if (row >= completed.length) {
+                int capacity = Math.max(completed.length * 2, row + 1);
+                completed = Arrays.copyOf(completed, capacity);
+                checked = Arrays.copyOf(checked, capacity);
+            }
+        }
+    }
+}
@@ -0,0 +1,338 @@
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongFunction;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Runs every algorithm on many independently seeded random workloads and reports the mean of
+ * every metric with its 95% confidence interval.
+ *
+ * Replications run in rounds on a fork-join pool. Every replication has its own scheduler, its own
+ * workload and its own discarded output, and only hands back an immutable SchedulingResult; the
+ * results are folded into the statistics on the calling thread, in replication order, once the
+ * round is over. Replication i of every algorithm uses the workload of seed i, so the algorithms
+ * are compared on the same workloads and the outcome does not depend on the threads. An algorithm
+ * stops once the confidence interval of the target metric is narrow enough.
+ */
+public class ReplicationRunner {
+
+    private final LongFunction<ProcessSource> workloads;
+    private final List<Algorithm> algorithms;
+    private final int maximumTime;
+    private final int quantum;
+
+    private long seed;
+    private int minimumReplications = 10;
+    private int maximumReplications = 1000;
+    private int roundSize = Math.max(ForkJoinPool.getCommonPoolParallelism(), 2) * 4;
+    private double targetPrecision = 0.05;
+    private ToDoubleFunction<SchedulingResult> targetMetric = SchedulingResult::getAverageWaitingTime;
+
+    /**
+     * Constructs a runner.
+     *
+     * @param workloads   Creates the workload of a seed; it is called from several threads and must
+     *                    give a new source, depending only on the seed, on every call.
+     * @param algorithms  The algorithms to run.
+     * @param maximumTime The maximum time for which each replication runs.
+     * @param quantum     The time slice for Round Robin, or the aging interval for the priority algorithms.
+     */
+    public ReplicationRunner(LongFunction<ProcessSource> workloads, Collection<Algorithm> algorithms,
+                             int maximumTime, int quantum) {
+        this.workloads = workloads;
+        this.algorithms = new ArrayList<>(algorithms);
+        this.maximumTime = maximumTime;
+        this.quantum = quantum;
+    }
+
+    /**
+     * Constructs a runner over Poisson workloads with exponential bursts.
+     *
+     * @param processes   The number of processes of every workload.
+     * @param meanBurst   The mean burst time.
+     * @param load        The offered load.
+     * @param algorithms  The algorithms to run.
+     * @param maximumTime The maximum time for which each replication runs.
+     * @param quantum     The time slice for Round Robin, or the aging interval for the priority algorithms.
+     * @return A new runner.
+     */
+    public static ReplicationRunner poisson(int processes, double meanBurst, double load,
+                                            Collection<Algorithm> algorithms, int maximumTime, int quantum) {
+        return new ReplicationRunner(seed -> WorkloadGenerator.poisson(seed, processes, meanBurst, load),
+                algorithms, maximumTime, quantum);
+    }
+
+    /**
+     * Sets the seed the seeds of the replications are derived from.
+     *
+     * @param seed The base seed.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the bounds on the number of replications of every algorithm.
+     *
+     * @param minimum The number of replications run before stopping is considered, at least 2.
+     * @param maximum The number of replications after which an algorithm stops in any case.
+     */
+    public void setReplications(int minimum, int maximum) {
+
+        if (minimum < 2 || maximum < minimum) {
+            throw new IllegalArgumentException("Invalid replication bounds " + minimum + ".." + maximum);
+        }
+        this.minimumReplications = minimum;
+        this.maximumReplications = maximum;
+    }
+
+    /**
+     * Sets the number of replications of every algorithm run between two checks of the stopping rule.
+     *
+     * @param roundSize The number of replications per round.
+     */
+    public void setRoundSize(int roundSize) {
+
+        if (roundSize <= 0) {
+            throw new IllegalArgumentException("Round size must be positive: " + roundSize);
+        }
+        this.roundSize = roundSize;
+    }
+
+    /**
+     * Sets when an algorithm stops: once the half-width of the confidence interval of the metric
+     * is at most the given fraction of its mean.
+     *
+     * @param metric    The metric whose interval is checked, such as SchedulingResult::getAverageWaitingTime.
+     * @param precision The relative half-width to reach, or 0 to always run the maximum number of replications.
+     */
+    public void setTarget(ToDoubleFunction<SchedulingResult> metric, double precision) {
+
+        if (precision < 0) {
+            throw new IllegalArgumentException("Precision must not be negative: " + precision);
+        }
+        this.targetMetric = metric;
+        this.targetPrecision = precision;
+    }
+
+    /**
+     * Runs the replications in the common fork-join pool.
+     *
+     * @return One summary per algorithm, in the order the algorithms were given.
+     */
+    public List<Summary> run() {
+        return run(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs the replications in the given fork-join pool.
+     *
+     * @param pool The pool to run the simulations in.
+     * @return One summary per algorithm, in the order the algorithms were given.
+     */
+    public List<Summary> run(ForkJoinPool pool) {
+
+        List<Summary> summaries = new ArrayList<>();
+        for (Algorithm algorithm : algorithms) {
+            summaries.add(new Summary(algorithm));
+        }
+
+        List<Summary> running = new ArrayList<>(summaries);
+        while (!running.isEmpty()) {
+
+            List<long[]> points = new ArrayList<>(); //index of the summary, replication
+            for (int i = 0; i < running.size(); i++) {
+                Summary summary = running.get(i);
+                long first = summary.getReplications();
+                long last = Math.min(first + Math.max(roundSize, minimumReplications - first), maximumReplications);
+                for (long replication = first; replication < last; replication++) {
+                    points.add(new long[]{i, replication});
+                }
+            }
+
+            SchedulingResult[] results = new SchedulingResult[points.size()];
+            pool.invoke(new ReplicationTask(running, points, results, 0, points.size()));
+            for (int i = 0; i < results.length; i++) {
+                running.get((int) points.get(i)[0]).add(results[i], targetMetric.applyAsDouble(results[i]));
+            }
+            running.removeIf(this::isDone);
+        }
+        return summaries;
+    }
+
+    /**
+     * Checks whether an algorithm has run enough replications.
+     *
+     * @param summary The summary of the algorithm.
+     * @return true if the algorithm reached the maximum number of replications or the target precision.
+     */
+    private boolean isDone(Summary summary) {
+
+        if (summary.getReplications() >= maximumReplications) {
+            return true;
+        }
+        if (summary.getReplications() < minimumReplications || targetPrecision == 0) {
+            return false;
+        }
+        Statistic target = summary.target;
+        if (target.getHalfWidth() <= targetPrecision * Math.abs(target.getMean())) {
+            summary.converged = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Derives the seed of a replication from the base seed, so nearby replications get unrelated workloads.
+     *
+     * @param replication The index of the replication.
+     * @return The seed of its workload.
+     */
+    private long seedOf(long replication) {
+        return new SplittableRandom(seed + replication).nextLong();
+    }
+
+    /**
+     * Prints the summaries as a table, one row per algorithm, every metric as its mean and the
+     * half-width of its 95% confidence interval.
+     *
+     * @param summaries The summaries to print.
+     * @param out       The stream to print to.
+     */
+    public static void printTable(List<Summary> summaries, PrintStream out) {
+
+        out.println("\u001B[31m\u001B[1mReplications\u001B[0m : ");
+        out.println("\u001B[1m" + "_".repeat(120));
+        out.printf("%-46s %6s %17s %17s %17s %15s%n",
+                "Algorithm", "Runs", "Waiting", "Turnaround", "Response", "CPU %");
+        for (Summary summary : summaries) {
+            out.printf("%-46s %5d%s %17s %17s %17s %15s%n",
+                    summary.getAlgorithm().getDisplayName(),
+                    summary.getReplications(),
+                    summary.isConverged() ? " " : "*",
+                    summary.getWaitingTime(),
+                    summary.getTurnaroundTime(),
+                    summary.getResponseTime(),
+                    summary.getCpuPercent());
+        }
+        out.println("\u001B[1m" + "_".repeat(120) + "\u001B[0m");
+        out.println("Means with 95% confidence intervals; * did not reach the target precision.\n");
+    }
+
+    /**
+     * Statistics of the replications of one algorithm.
+     */
+    public static class Summary {
+
+        private final Algorithm algorithm;
+        private final Statistic waitingTime = new Statistic();
+        private final Statistic turnaroundTime = new Statistic();
+        private final Statistic responseTime = new Statistic();
+        private final Statistic throughput = new Statistic();
+        private final Statistic cpuPercent = new Statistic();
+
+        /** Statistic of the metric the stopping rule checks. */
+        private final Statistic target = new Statistic();
+
+        private boolean converged;
+
+        Summary(Algorithm algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        /**
+         * Adds the result of one replication.
+         *
+         * @param result The result of the replication.
+         * @param target The value of the metric the stopping rule checks.
+         */
+        private void add(SchedulingResult result, double target) {
+
+            waitingTime.add(result.getAverageWaitingTime());
+            turnaroundTime.add(result.getAverageTurnaroundTime());
+            responseTime.add(result.getAverageResponseTime());
+            throughput.add(result.getThroughput());
+            cpuPercent.add(100 * result.getCpuUtilization());
+            this.target.add(target);
+        }
+
+        public Algorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        public long getReplications() {
+            return waitingTime.getCount();
+        }
+
+        /**
+         * Tells whether the stopping rule was met before the maximum number of replications.
+         *
+         * @return true if the target metric reached the requested precision.
+         */
+        public boolean isConverged() {
+            return converged;
+        }
+
+        public Statistic getWaitingTime() {
+            return waitingTime;
+        }
+
+        public Statistic getTurnaroundTime() {
+            return turnaroundTime;
+        }
+
+        public Statistic getResponseTime() {
+            return responseTime;
+        }
+
+        public Statistic getThroughput() {
+            return throughput;
+        }
+
+        public Statistic getCpuPercent() {
+            return cpuPercent;
+        }
+    }
+
+    /**
+     * Splits a range of replications in halves until a single simulation is left.
+     */
+    private class ReplicationTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Summary> summaries;
+        private final List<long[]> points;
+        private final SchedulingResult[] results;
+        private final int from;
+        private final int to;
+
+        ReplicationTask(List<Summary> summaries, List<long[]> points, SchedulingResult[] results, int from, int to) {
+            this.summaries = summaries;
+            this.points = points;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from == 0) {
+                return;
+            }
+            if (to - from == 1) {
+                long[] point = points.get(from);
+                Algorithm algorithm = summaries.get((int) point[0]).getAlgorithm();
+                Scheduling scheduler = algorithm.create(workloads.apply(seedOf(point[1])), maximumTime, quantum);
+                results[from] = AlgorithmComparison.run(algorithm, quantum, scheduler);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ReplicationTask(summaries, points, results, from, middle),
+                    new ReplicationTask(summaries, points, results, middle, to));
+        }
+    }
+}
@@ -5,11 +5,19 @@ public class RoundRobin extends Scheduling {
     private int quantum;
 
     RoundRobin (PCB[] processes, int maximumTime, int quantum) {
+        this(ProcessTable.copyOf(processes), maximumTime, quantum);
+    }
+
+    RoundRobin (ProcessTable table, int maximumTime, int quantum) {
+        this(new TableSource(table), maximumTime, quantum);
+    }
+
+    RoundRobin (ProcessSource source, int maximumTime, int quantum) {
 
-        super(processes, maximumTime);
+        super(source, maximumTime);
         isPreemptive = true;
         readyQueue = new LinkedList<>();
-        waitingQueue = new LinkedList<>();
+        waitingQueue = new ComebackQueue();
         this.quantum = quantum;
 
     }
@@ -17,25 +25,26 @@ public class RoundRobin extends Scheduling {
     @Override
     protected void resetProperties(PCB process, int countWaiting) {
         process.setReadyQueueTime(countWaiting); //update the time of last comeback to the current time
-        process.setRemainingTime(process.burstTime); //reset the remaining time
+        process.setRemainingTime(process.getBurstTime()); //reset the remaining time
     }
 
     protected void interruptProcess (int time) {
 
-        if ((time - runningProcess.getDeploymentTime()) % quantum == 0) {
-
-            printGanttEntry(runningProcess, time);
-            runningProcess.setInterruptTime(time);
-
-            PCB tempProcess = runningProcess;
-            tempProcess.setReadyQueueTime(time);
-            runningProcess = readyQueue.poll();
-            runningProcess.waitingQueueTime += time - runningProcess.getReadyQueueTime();
-            runningProcess.setDeploymentTime(time);
-            runningProcess.hasExecuted = true;
-            readyQueue.offer(tempProcess);
+        if (!readyQueue.isEmpty() && (time - runningProcess.getDeploymentTime()) % quantum == 0) {
+            preempt(time);
         }
     }
-}
 
+    @Override
+    protected int getQuantum () {
+        return quantum;
+    }
+
+    @Override
+    protected int nextInterruptTime (int time) {
 
+        int deploymentTime = runningProcess.getDeploymentTime();
+        long next = deploymentTime + ((long) (time - deploymentTime) / quantum + 1) * quantum; //next end of a time slice
+        return (int) Math.min(next, Integer.MAX_VALUE);
+    }
+}
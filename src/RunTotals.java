@@ -0,0 +1,99 @@
+/**
+ * Running totals of the metrics of a run, added row by row from the columns of a process table,
+ * so the averages, the fairness index and the busy time need no PCB view per process.
+ */
+final class RunTotals {
+
+    /** Sums of the waiting and turnaround times of the executed processes, and their number. */
+    private long waiting;
+    private long turnaround;
+    private long executed;
+
+    /** Sum of the execution times of all processes. */
+    private long busy;
+
+    /** Sum of the CPU shares of the executed processes, of their squares, and their number. */
+    private double shareSum;
+    private double shareSumOfSquares;
+    private long shareCount;
+
+    /**
+     * Adds the metrics of a process.
+     *
+     * @param table The table holding the process.
+     * @param row   The row of the process.
+     */
+    void add(ProcessTable table, int row) {
+
+        busy += table.executionTime[row];
+        if (!table.hasExecuted[row]) {
+            return;
+        }
+        waiting += table.waitingQueueTime[row];
+        turnaround += table.interruptTime[row] - table.arrivalTime[row];
+        executed++;
+
+        long runnable = (long) table.executionTime[row] + table.waitingQueueTime[row];
+        if (runnable > 0) {
+            double share = (double) table.executionTime[row] / runnable;
+            shareSum += share;
+            shareSumOfSquares += share * share;
+            shareCount++;
+        }
+    }
+
+    /**
+     * Adds the metrics of every process of a table, in row order, leaving out the free rows.
+     *
+     * @param table The table.
+     */
+    void addAll(ProcessTable table) {
+
+        for (int row = 0; row < table.size(); row++) {
+            if (!table.isFree(row)) {
+                add(table, row);
+            }
+        }
+    }
+
+    /**
+     * Adds the totals of other processes.
+     *
+     * @param other The totals to add.
+     */
+    void add(RunTotals other) {
+
+        waiting += other.waiting;
+        turnaround += other.turnaround;
+        executed += other.executed;
+        busy += other.busy;
+        shareSum += other.shareSum;
+        shareSumOfSquares += other.shareSumOfSquares;
+        shareCount += other.shareCount;
+    }
+
+    double getAverageWaitingTime() {
+        return (double) waiting / executed;
+    }
+
+    double getAverageTurnaroundTime() {
+        return (double) turnaround / executed;
+    }
+
+    /**
+     * Gets Jain's fairness index of the CPU shares, as computed by PCB.calculateFairnessIndex.
+     *
+     * @return The fairness index, between 1/n and 1.
+     */
+    double getFairnessIndex() {
+        return shareSum * shareSum / (shareCount * shareSumOfSquares);
+    }
+
+    long getExecutedCount() {
+        return executed;
+    }
+
+    long getBusyTime() {
+        return busy;
+    }
+}
@@ -1,15 +1,20 @@
-import java.util.*;
-
 public class SJF extends Scheduling {
 
 
     SJF (PCB[] processes, int maximumTime) {
+        this(ProcessTable.copyOf(processes), maximumTime);
+    }
+
+    SJF (ProcessTable table, int maximumTime) {
+        this(new TableSource(table), maximumTime);
+    }
+
+    SJF (ProcessSource source, int maximumTime) {
 
-        super(processes, maximumTime);
+        super(source, maximumTime);
         isPreemptive = false;
-        readyQueue = new PriorityQueue<>(processes.length, Comparator.comparing(PCB::getBurstTime).
-                thenComparing(PCB::getReadyQueueTime));
-        waitingQueue = new LinkedList<>();
+        readyQueue = new IndexedHeap(process -> IndexedHeap.key(process.getBurstTime(), process.getReadyQueueTime()));
+        waitingQueue = new ComebackQueue();
 
     }
 
@@ -17,7 +22,7 @@ public class SJF extends Scheduling {
     @Override
     protected void resetProperties (PCB process, int countWaiting) {
         process.setReadyQueueTime(countWaiting); //update the time of last comeback to the current time
-        process.setRemainingTime(process.burstTime); //reset the remaining time
+        process.setRemainingTime(process.getBurstTime()); //reset the remaining time
     }
 }
 
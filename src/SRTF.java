@@ -1,16 +1,20 @@
-
-import java.util.*;
-
 public class SRTF extends Scheduling {
 
     SRTF(PCB[] processes, int maximumTime) {
+        this(ProcessTable.copyOf(processes), maximumTime);
+    }
+
+    SRTF(ProcessTable table, int maximumTime) {
+        this(new TableSource(table), maximumTime);
+    }
+
+    SRTF(ProcessSource source, int maximumTime) {
 
-        super(processes, maximumTime);
+        super(source, maximumTime);
         isPreemptive = true;
-        readyQueue = new PriorityQueue<>(processes.length, Comparator.comparing(PCB::getRemainingTime).
-                thenComparing(PCB::getReadyQueueTime));
+        readyQueue = new IndexedHeap(process -> IndexedHeap.key(process.getRemainingTime(), process.getReadyQueueTime()));
 
-        waitingQueue = new LinkedList<>();
+        waitingQueue = new ComebackQueue();
 
     }
 
@@ -18,23 +22,13 @@ public class SRTF extends Scheduling {
     @Override
     protected void resetProperties(PCB process, int countWaiting) {
         process.setReadyQueueTime(countWaiting); //update the time of last comeback to the current time
-        process.setRemainingTime(process.burstTime); //reset the remaining time
+        process.setRemainingTime(process.getBurstTime()); //reset the remaining time
     }
 
     protected void interruptProcess(int time) {
 
-        if (readyQueue.peek().getRemainingTime() < runningProcess.getRemainingTime()) {
-
-            printGanttEntry(runningProcess, time);
-            runningProcess.setInterruptTime(time);
-
-            PCB tempProcess = runningProcess;
-            tempProcess.setReadyQueueTime(time);
-            runningProcess = readyQueue.poll();
-            runningProcess.waitingQueueTime += time - runningProcess.getReadyQueueTime();
-            runningProcess.setDeploymentTime(time);
-            runningProcess.hasExecuted = true;
-            readyQueue.offer(tempProcess);
+        if (!readyQueue.isEmpty() && readyQueue.peek().getRemainingTime() < runningProcess.getRemainingTime()) {
+            preempt(time);
         }
     }
 }
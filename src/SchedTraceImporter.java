@@ -0,0 +1,484 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Builds a workload from the scheduler events of a Linux trace, as printed by perf sched script
+ * or read from the ftrace trace file with the sched_switch and sched_wakeup events enabled.
+ *
+ * Every task of the trace becomes one process. Its arrival is the first time it is seen, its burst
+ * the average time it ran between waking up and blocking, counting every slice until it left the
+ * CPU in a state other than runnable, its comeback time the average time it slept until its next
+ * wakeup, and its priority its nice value, the kernel priority minus 120, from 0 to 19; real-time
+ * and negative nice tasks get priority 0. A task that never blocked never comes back, and a task
+ * that never ran is left out. The idle task, pid 0, is ignored.
+ *
+ * The trace is read a line at a time and only a few values are kept per task, so captures much
+ * larger than the heap can be imported. Both the key=value form of the events, printed by ftrace and
+ * by kernels from 4.x on, and the compact form perf sched script prints, such as
+ * "comm:pid [prio] S ==> comm:pid [prio]" for a switch, are understood; other lines are skipped.
+ * Lines are expected in time order.
+ */
+public class SchedTraceImporter {
+
+    /** Number of microseconds in a time unit of the workload, when none is given. */
+    public static final int DEFAULT_TIME_UNIT = 1000;
+
+    /** Kernel priority of a task of nice 0. */
+    private static final int NICE_0_PRIORITY = 120;
+
+    /** Largest priority given to a process, for nice 19. */
+    private static final int MAXIMUM_PRIORITY = 19;
+
+    private static final long UNSET = -1;
+
+    /** Length of a time unit in nanoseconds. */
+    private final long unit;
+
+    /** Open-addressing map from pid to slot; a key of 0 marks a free entry, since pid 0 is never stored. */
+    private int[] keys = new int[64];
+    private int[] values = new int[64];
+
+    /** Per-task values by slot, slots being given in order of first appearance. */
+    private int[] pids = new int[16];
+    private int[] priorities = new int[16];
+    private long[] firstSeen = new long[16];
+    private long[] runningSince = new long[16];
+    private long[] sleepingSince = new long[16];
+    private long[] currentBurst = new long[16];
+    private long[] totalBurst = new long[16];
+    private long[] totalSleep = new long[16];
+    private int[] bursts = new int[16];
+    private int[] sleeps = new int[16];
+
+    /** Number of tasks seen. */
+    private int tasks;
+
+    private long lines;
+    private long events;
+
+    /**
+     * Constructs an importer with time units of DEFAULT_TIME_UNIT microseconds.
+     */
+    public SchedTraceImporter() {
+        this(DEFAULT_TIME_UNIT);
+    }
+
+    /**
+     * Constructs an importer.
+     *
+     * @param timeUnit The number of microseconds in a time unit of the workload.
+     */
+    public SchedTraceImporter(int timeUnit) {
+
+        if (timeUnit <= 0) {
+            throw new IllegalArgumentException("Time unit must be positive: " + timeUnit);
+        }
+        this.unit = timeUnit * 1000L;
+    }
+
+    /**
+     * Imports a trace file into a workload.
+     *
+     * @param path     The text output of perf sched script, or an ftrace trace file.
+     * @param timeUnit The number of microseconds in a time unit of the workload.
+     * @return A table holding one row per task, in order of arrival.
+     * @throws IOException if the file cannot be read.
+     */
+    public static ProcessTable importFile(Path path, int timeUnit) throws IOException {
+
+        SchedTraceImporter importer = new SchedTraceImporter(timeUnit);
+        try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            importer.read(in);
+        }
+        return importer.toTable();
+    }
+
+    /**
+     * Reads every line of a trace.
+     *
+     * @param in The text of the trace; it is not closed.
+     * @throws IOException if the text cannot be read.
+     */
+    public void read(Reader in) throws IOException {
+
+        BufferedReader reader = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in, 1 << 16);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            accept(line);
+        }
+    }
+
+    /**
+     * Reads a trace from the standard input, as when perf sched script is piped into the program.
+     *
+     * @throws IOException if the input cannot be read.
+     */
+    public void readStandardInput() throws IOException {
+        read(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads one line of a trace, skipping it if it is not a sched_switch or wakeup event.
+     *
+     * @param line A line of the trace.
+     */
+    public void accept(String line) {
+
+        lines++;
+        int event = line.indexOf("sched_switch:");
+        boolean isSwitch = event >= 0;
+        if (!isSwitch) {
+            event = line.indexOf("sched_wak"); //sched_wakeup, sched_wakeup_new and sched_waking
+            if (event < 0) {
+                return;
+            }
+        }
+        long time = timestampBefore(line, event);
+        if (time < 0) {
+            return;
+        }
+
+        if (isSwitch) {
+            int arrow = line.indexOf("prev_pid=", event) < 0 ? line.indexOf(" ==> ", event) : -1;
+            if (arrow >= 0) { //compact form: prev_comm:prev_pid [prev_prio] prev_state ==> next_comm:next_pid [next_prio]
+                int previousPriority = line.lastIndexOf('[', arrow);
+                int stateStart = line.indexOf(']', previousPriority) + 1;
+                int nextPriority = line.indexOf('[', arrow);
+                int previous = previousPriority > event ? pidBefore(line, previousPriority) : -1;
+                int next = nextPriority > 0 ? pidBefore(line, nextPriority) : -1;
+                String state = stateStart > 0 && stateStart < arrow ? line.substring(stateStart, arrow).trim() : "";
+                if (previous < 0 || next < 0 || state.isEmpty()) {
+                    return;
+                }
+                switchOut(previous, bracketedInt(line, previousPriority), state, time);
+                switchIn(next, bracketedInt(line, nextPriority), time);
+            }
+            else {
+                int previous = intField(line, "prev_pid=", event);
+                int next = intField(line, "next_pid=", event);
+                String state = field(line, "prev_state=", event);
+                if (previous < 0 || next < 0 || state == null) {
+                    return;
+                }
+                switchOut(previous, intField(line, "prev_prio=", event), state, time);
+                switchIn(next, intField(line, "next_prio=", event), time);
+            }
+        }
+        else {
+            int pid = intField(line, "pid=", event);
+            int priority = intField(line, "prio=", event);
+            if (pid < 0) { //compact form: comm:pid [prio], after the name of the event
+                int bracket = line.indexOf('[', line.indexOf(':', event));
+                pid = bracket > 0 ? pidBefore(line, bracket) : -1;
+                if (pid < 0) {
+                    return;
+                }
+                priority = bracketedInt(line, bracket);
+            }
+            wakeUp(pid, priority, time);
+        }
+        events++;
+    }
+
+    /**
+     * Builds the workload from the tasks seen so far. The first task arrives at time 0.
+     *
+     * @return A table holding one row per task that ran, in order of arrival.
+     */
+    public ProcessTable toTable() {
+
+        ProcessTable table = new ProcessTable(tasks);
+        long start = UNSET;
+        for (int slot = 0; slot < tasks; slot++) {
+
+            long cpu = totalBurst[slot];
+            int count = bursts[slot];
+            if (count == 0 && currentBurst[slot] > 0) { //a task that never blocked runs one long burst
+                cpu = currentBurst[slot];
+                count = 1;
+            }
+            if (count == 0) {
+                continue;
+            }
+            if (start == UNSET) {
+                start = firstSeen[slot];
+            }
+            int arrival = (int) Math.min(toUnits(firstSeen[slot] - start), Integer.MAX_VALUE);
+            int burst = (int) Math.max(1, Math.min(toUnits(cpu / count), Integer.MAX_VALUE));
+            int comeBack = sleeps[slot] == 0 ? 0
+                    : (int) Math.max(1, Math.min(toUnits(totalSleep[slot] / sleeps[slot]), Integer.MAX_VALUE));
+            int priority = Math.min(Math.max(priorities[slot] - NICE_0_PRIORITY, 0), MAXIMUM_PRIORITY);
+            table.add(pids[slot], arrival, burst, comeBack, priority);
+        }
+        return table;
+    }
+
+    /**
+     * Gets the number of tasks seen, including those that never ran.
+     *
+     * @return The number of tasks.
+     */
+    public int getTaskCount() {
+        return tasks;
+    }
+
+    /**
+     * Gets the number of lines read, including those that were skipped.
+     *
+     * @return The number of lines.
+     */
+    public long getLineCount() {
+        return lines;
+    }
+
+    /**
+     * Gets the number of sched_switch and wakeup events read.
+     *
+     * @return The number of events.
+     */
+    public long getEventCount() {
+        return events;
+    }
+
+    private void switchOut(int pid, int priority, String state, long time) {
+
+        if (pid == 0) {
+            return;
+        }
+        int slot = slotOf(pid, priority, time);
+        if (runningSince[slot] != UNSET) {
+            currentBurst[slot] += Math.max(0, time - runningSince[slot]);
+            runningSince[slot] = UNSET;
+        }
+        if (!state.startsWith("R")) { //the task blocked, which ends its burst
+            totalBurst[slot] += currentBurst[slot];
+            currentBurst[slot] = 0;
+            bursts[slot]++;
+            sleepingSince[slot] = time;
+        }
+    }
+
+    private void switchIn(int pid, int priority, long time) {
+
+        if (pid == 0) {
+            return;
+        }
+        int slot = slotOf(pid, priority, time);
+        endSleep(slot, time); //in case the wakeup was not traced
+        runningSince[slot] = time;
+    }
+
+    private void wakeUp(int pid, int priority, long time) {
+
+        if (pid == 0) {
+            return;
+        }
+        endSleep(slotOf(pid, priority, time), time);
+    }
+
+    private void endSleep(int slot, long time) {
+
+        if (sleepingSince[slot] != UNSET) {
+            totalSleep[slot] += Math.max(0, time - sleepingSince[slot]);
+            sleeps[slot]++;
+            sleepingSince[slot] = UNSET;
+        }
+    }
+
+    private long toUnits(long nanoseconds) {
+        return (nanoseconds + unit / 2) / unit;
+    }
+
+    /**
+     * Finds the slot of a task, giving a new one to a task seen for the first time.
+     */
+    private int slotOf(int pid, int priority, long time) {
+
+        int mask = keys.length - 1;
+        int i = mix(pid) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == pid) {
+                int slot = values[i];
+                if (priority >= 0) {
+                    priorities[slot] = priority;
+                }
+                return slot;
+            }
+            i = (i + 1) & mask;
+        }
+
+        int slot = tasks++;
+        keys[i] = pid;
+        values[i] = slot;
+        if (slot == pids.length) {
+            grow();
+        }
+        pids[slot] = pid;
+        priorities[slot] = priority >= 0 ? priority : NICE_0_PRIORITY;
+        firstSeen[slot] = time;
+        runningSince[slot] = UNSET;
+        sleepingSince[slot] = UNSET;
+        if (tasks * 2 > keys.length) {
+            rehash();
+        }
+        return slot;
+    }
+
+    private static int mix(int pid) {
+
+        int hash = pid * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private void rehash() {
+
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = mix(oldKeys[j]) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void grow() {
+
+        int capacity = pids.length * 2;
+        pids = Arrays.copyOf(pids, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        firstSeen = Arrays.copyOf(firstSeen, capacity);
+        runningSince = Arrays.copyOf(runningSince, capacity);
+        sleepingSince = Arrays.copyOf(sleepingSince, capacity);
+        currentBurst = Arrays.copyOf(currentBurst, capacity);
+        totalBurst = Arrays.copyOf(totalBurst, capacity);
+        totalSleep = Arrays.copyOf(totalSleep, capacity);
+        bursts = Arrays.copyOf(bursts, capacity);
+        sleeps = Arrays.copyOf(sleeps, capacity);
+    }
+
+    /**
+     * Parses the timestamp in seconds printed before an event, such as 1234.567890:, in nanoseconds.
+     *
+     * @return The timestamp, or -1 if there is none.
+     */
+    private static long timestampBefore(String line, int event) {
+
+        int end = line.lastIndexOf(':', event - 1);
+        while (end > 0) {
+            int begin = end;
+            while (begin > 0 && (Character.isDigit(line.charAt(begin - 1)) || line.charAt(begin - 1) == '.')) {
+                begin--;
+            }
+            int dot = line.indexOf('.', begin);
+            if (dot > begin && dot < end - 1 && (begin == 0 || line.charAt(begin - 1) == ' ')) {
+                try {
+                    long seconds = Long.parseLong(line, begin, dot, 10);
+                    String fraction = line.substring(dot + 1, end);
+                    long nanos = Long.parseLong(fraction.length() > 9 ? fraction.substring(0, 9) : fraction);
+                    for (int digits = fraction.length(); digits < 9; digits++) {
+                        nanos *= 10;
+                    }
+                    return seconds * 1_000_000_000L + nanos;
+                }
+                catch (NumberFormatException e) {
+                    //not a timestamp, keep looking further left
+                }
+            }
+            end = line.lastIndexOf(':', end - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the pid of a task printed as comm:pid in the compact form, before the bracket of its priority.
+     * The command may itself hold colons, so the pid is the number after the last one.
+     *
+     * @return The pid, or -1 if there is no comm:pid before the bracket.
+     */
+    private static int pidBefore(String line, int bracket) {
+
+        int end = bracket;
+        while (end > 0 && line.charAt(end - 1) == ' ') {
+            end--;
+        }
+        int begin = end;
+        while (begin > 0 && Character.isDigit(line.charAt(begin - 1))) {
+            begin--;
+        }
+        if (begin == end || begin == 0 || line.charAt(begin - 1) != ':' || end - begin > 9) {
+            return -1;
+        }
+        return Integer.parseInt(line, begin, end, 10);
+    }
+
+    /**
+     * Gets the number between a bracket and the next closing one, such as the priority in [120].
+     *
+     * @return The number, or -1 if it is missing or not a number.
+     */
+    private static int bracketedInt(String line, int bracket) {
+
+        int end = line.indexOf(']', bracket);
+        if (end < 0) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(line, bracket + 1, end, 10);
+        }
+        catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Gets the value of a key=value field after an event, up to the next space.
+     *
+     * @return The value, or null if the field is missing.
+     */
+    private static String field(String line, String key, int from) {
+
+        int start = line.indexOf(key, from);
+        while (start > 0 && line.charAt(start - 1) != ' ') { //prev_pid= must not match pid=
+            start = line.indexOf(key, start + 1);
+        }
+        if (start < 0) {
+            return null;
+        }
+        start += key.length();
+        int end = line.indexOf(' ', start);
+        return line.substring(start, end < 0 ? line.length() : end);
+    }
+
+    /**
+     * Gets the value of an integer key=value field after an event.
+     *
+     * @return The value, or -1 if the field is missing or not a number.
+     */
+    private static int intField(String line, String key, int from) {
+
+        String value = field(line, key, from);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(value);
+        }
+        catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -1,3 +1,6 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.*;
 
 
@@ -8,8 +11,14 @@ import java.util.*;
 
 public abstract class Scheduling {
 
-    /** Array of processes to be scheduled. */
-    protected PCB[] processes;
+    /** Table holding the state of the processes, one row per process; views are made as processes arrive. */
+    protected ProcessTable table;
+
+    /** Source of the processes that have not arrived yet, in order of arrival. */
+    private ProcessSource arrivals;
+
+    /** Number of processes consumed from the source so far. */
+    private long consumed;
 
     /** Currently running process. */
     protected PCB runningProcess;
@@ -17,8 +26,11 @@ public abstract class Scheduling {
     /** Queue of processes ready to execute. */
     protected Queue<PCB> readyQueue;
 
-    /** List of processes waiting to be scheduled. */
-    protected LinkedList<PCB> waitingQueue;
+    /** Processes waiting to come back to the ready queue, ordered by comeback time. */
+    protected ComebackQueue waitingQueue;
+
+    /** Devices the processes do their I/O on, or null for uncontended I/O of fixed length. */
+    private IoDevice[] ioDevices;
 
     /** Maximum time for which the algorithm runs. */
     protected int maximumTime;
@@ -27,9 +39,63 @@ public abstract class Scheduling {
 
     /** Indicates whether the algorithm is priority-based. */
     protected boolean isPriority;
-    /** Counter for tracking entries in the Gantt chart. */
+    /** Comeback time of a process that goes back to the ready queue as soon as it finishes. */
+    protected static final long IMMEDIATELY = Long.MIN_VALUE;
+
+    /** Counter for tracking entries in the Gantt chart, one per run of a process on the CPU. */
     protected int count;
 
+    /** Indicates whether the simulation jumps between events instead of stepping every time unit. */
+    protected boolean isEventDriven;
+
+    /** Number of times the state of the simulation was examined during the last run, one per tick or event. */
+    protected long eventCount;
+
+    /** Time up to which the simulation has been carried out. */
+    protected int currentTime;
+
+    /** Stream the results are printed to. */
+    protected PrintStream out = System.out;
+
+    /** Destination of the Gantt chart entries. */
+    protected GanttSink gantt = new ConsoleGanttSink(out);
+
+    /** Indicates whether the waiting time of every process is printed after the run. */
+    protected boolean isPrintingProcesses = true;
+
+    /** Receives the events of the simulation. */
+    protected SchedulingListener listener = SchedulingListener.NONE;
+
+    /** File the checkpoints of a run are written to, or null to write none. */
+    private Path checkpointFile;
+
+    /** Number of time units between two checkpoints. */
+    private int checkpointInterval;
+
+    /** Time at which the run stops and writes a last checkpoint instead of going on to the maximum time. */
+    private int stopTime = Integer.MAX_VALUE;
+
+    /** Indicates whether the state was restored from a checkpoint, so the next run continues it. */
+    private boolean isResumed;
+
+    /** Average waiting time of the last run. */
+    protected double averageWaitingTime;
+
+    /** Average turnaround time of the last run. */
+    protected double averageTurnaroundTime;
+
+    /** Jain's fairness index of the CPU shares of the last run. */
+    protected double fairnessIndex;
+
+    /** Number of processes that executed during the last run. */
+    private long executedCount;
+
+    /** Indicates whether the rows of the processes that leave for good are reused by later arrivals. */
+    private boolean isRecycling;
+
+    /** Totals of the processes whose rows were reused during the run. */
+    private RunTotals recycled = new RunTotals();
+
 
 
     /**
@@ -39,7 +105,31 @@ public abstract class Scheduling {
      * @param maximumTime The maximum time for which the algorithm runs.
      */
     public Scheduling(PCB[] processes, int maximumTime) {
-        setProcesses(processes);
+        this(ProcessTable.copyOf(processes), maximumTime);
+    }
+
+    /**
+     * Constructs a scheduling algorithm that works directly on the rows of a process table.
+     * The table is not copied, so pass {@code table.copy()} to keep the original intact.
+     *
+     * @param table       A table holding one row per process.
+     * @param maximumTime The maximum time for which the algorithm runs.
+     */
+    public Scheduling(ProcessTable table, int maximumTime) {
+        this(new TableSource(table), maximumTime);
+    }
+
+    /**
+     * Constructs a scheduling algorithm that reads its processes from a source as they arrive.
+     * The first process of the source starts on the CPU at time 0, unless other processes arrive
+     * at time 0 too: they then all enter the ready queue at time 0, the first process of the source
+     * first, and the algorithm picks the one that runs.
+     *
+     * @param source      The source of the processes, in order of arrival.
+     * @param maximumTime The maximum time for which the algorithm runs.
+     */
+    public Scheduling(ProcessSource source, int maximumTime) {
+        setProcesses(source);
         this.maximumTime = maximumTime;
         count = 0;
 
@@ -49,76 +139,760 @@ public abstract class Scheduling {
      * Executes the scheduling algorithm and prints Gantt chart entries.
      *
      * This method simulates the execution of the scheduling algorithm for the specified
-     * maximum time. It iterates through time units, updating the state of processes and
+     * maximum time. It iterates through time units (or jumps between events, see
+     * {@link #setEventDriven(boolean)}), updating the state of processes and
      * printing entries to the Gantt chart.
      *
      * @throws IllegalCallerException if the scheduling algorithm is preemptive or priority-based.
      */
     public void runAlgorithm() {
 
-        System.out.println("Outputs for " + getClass().getName() + "\n");
+        out.println("Outputs for " + getClass().getName() + "\n");
 
-        runningProcess = processes[0];
-        runningProcess.setDeploymentTime(0);
-        runningProcess.hasExecuted = true;
+        if (ioDevices != null && (checkpointFile != null || isResumed || stopTime < maximumTime)) {
+            throw new IllegalStateException("Checkpoints do not cover the queues of the I/O devices");
+        }
+        if (isResumed) {
+            gantt.begin(count); //the chart goes on from the entries of the run that was paused
+        }
+        else if (arrivals.peekArrivalTime() <= 0) { //others arrive with the first process, so the algorithm picks one
+            start(null);
+            admit(table.view(0), 0);
+            handleEvents(0);
+        }
+        else {
+            start(table.view(0));
+        }
 
-        System.out.println("\u001B[31m\u001B[1mGantt Chart\u001B[0m : ");
-        System.out.println("\u001B[1m" + "_".repeat(83));
+        int until = Math.min(stopTime, maximumTime);
+        Checkpoint.Writer checkpoints = checkpointFile == null ? null : new Checkpoint.Writer(checkpointFile);
+        try {
+            if (isEventDriven) {
+                runEvents(until, checkpoints);
+            }
+            else {
+                runTicks(until, checkpoints);
+            }
+
+            if (until < maximumTime) { //pause here, leaving the state to the last checkpoint
+                if (checkpoints != null) {
+                    checkpoints.submit(capture());
+                }
+                gantt.end();
+                out.println("\u001B[31m\u001B[1mPaused at time\u001B[0m : \u001B[1m" + until + "\n\u001B[0m");
+                return;
+            }
+        }
+        finally {
+            if (checkpoints != null) {
+                checkpoints.close();
+            }
+        }
+
+        finish();
+
+        if (isPrintingProcesses) {
+            printWaitingTimes();
+        }
+        calculateAverages();
 
-        for (int time = 1; time < maximumTime; time++) { //loop that simulates CPU scheduling
 
-            boolean flag = true;
+        out.println("\u001B[31m\u001B[1mAverage waiting time\u001B[0m : \u001B[1m" + averageWaitingTime);
+        out.println("\u001B[31m\u001B[1mAverage turnaround time\u001B[0m : \u001B[1m" + averageTurnaroundTime);
+        out.println("\u001B[31m\u001B[1mFairness index\u001B[0m : \u001B[1m" + fairnessIndex + "\n\u001B[0m");
 
-            if (runningProcess != null) {
-                runningProcess.incrementExecutionTime();
-                runningProcess.decrementRemainingTime();
+        if (ioDevices != null) {
+            for (IoDevice device : ioDevices) {
+                out.printf("\u001B[31m\u001B[1mI/O device %s (%s)\u001B[0m : \u001B[1mutilization %.1f%%, average I/O wait %.2f,"
+                                + " maximum queue %d%n\u001B[0m", device.getName(), device.getPolicy(),
+                        100 * device.getUtilization(maximumTime), device.getAverageWait(), device.getMaximumQueueLength());
             }
+            out.println();
+        }
+    }
 
-            if (isPriority) {
-                decreasePriority(time);
+
+    /**
+     * Selects the event-driven engine instead of the per-tick loop.
+     *
+     * Both engines produce the same Gantt chart and averages; the event-driven one
+     * skips the time units in which nothing can change.
+     *
+     * @param eventDriven true to jump from event to event, false to step every time unit.
+     */
+    public void setEventDriven(boolean eventDriven) {
+        this.isEventDriven = eventDriven;
+    }
+
+    /**
+     * Writes a checkpoint of the whole state of the simulation every given number of time units,
+     * from a background thread, so a long run that stops can be resumed from the last one.
+     * Each checkpoint replaces the previous one in the file.
+     *
+     * @param file     The checkpoint file, or null to stop writing checkpoints.
+     * @param interval The number of time units between two checkpoints.
+     */
+    public void setCheckpoints(Path file, int interval) {
+
+        if (file != null && interval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + interval);
+        }
+        this.checkpointFile = file;
+        this.checkpointInterval = interval;
+    }
+
+    /**
+     * Sends the processes that finish a CPU burst to simulated I/O devices instead of bringing
+     * them back after their comeback time whatever the load. The comeback time of a process is
+     * then the length of its I/O burst, served on device pid mod the number of devices; processes
+     * queue on a busy device, so a saturated device leaves the CPU idle. Processes whose comeback
+     * time is not positive still never come back. Checkpoints are not available with devices.
+     *
+     * @param devices The devices, or none for uncontended I/O.
+     */
+    public void setIoDevices(IoDevice... devices) {
+        this.ioDevices = devices == null || devices.length == 0 ? null : devices.clone();
+    }
+
+    /**
+     * Gets the I/O devices of the scheduler.
+     *
+     * @return The devices, empty for uncontended I/O.
+     */
+    public IoDevice[] getIoDevices() {
+        return ioDevices == null ? new IoDevice[0] : ioDevices.clone();
+    }
+
+    /**
+     * Makes the run pause at the given time instead of going on to the maximum time, writing a
+     * last checkpoint if checkpoints are enabled. A long horizon can then be run in chunks, each
+     * run by a new scheduler that resumes from the checkpoint of the previous one.
+     *
+     * @param stopTime The time at which the run pauses, or Integer.MAX_VALUE to run to the end.
+     */
+    public void setStopTime(int stopTime) {
+        this.stopTime = stopTime;
+    }
+
+    /**
+     * Restores the state saved in a checkpoint, so the next call to runAlgorithm continues that
+     * run instead of starting a new one. The scheduler must be new, of the same algorithm and
+     * created with the same parameters over the same workload as the one that wrote the checkpoint;
+     * its process source is read up to where the checkpoint was taken. The resumed run gives the
+     * same chart and results as the run it continues. Listeners only see the events that follow.
+     *
+     * @param file The checkpoint file.
+     * @throws IOException if the file cannot be read or is not a valid checkpoint.
+     * @throws IllegalArgumentException if the checkpoint does not belong to this algorithm, maximum time,
+     *                                  quantum and workload.
+     */
+    public void resume(Path file) throws IOException {
+
+        Checkpoint checkpoint = Checkpoint.read(file);
+
+        if (!checkpoint.algorithm.equals(getClass().getName())) {
+            throw new IllegalArgumentException("Checkpoint of " + checkpoint.algorithm + " cannot resume " + getClass().getName());
+        }
+        if (checkpoint.maximumTime != maximumTime || checkpoint.quantum != getQuantum()) {
+            throw new IllegalArgumentException("Checkpoint of a run up to " + checkpoint.maximumTime + " with quantum "
+                    + checkpoint.quantum + " cannot resume a run up to " + maximumTime + " with quantum " + getQuantum());
+        }
+        if (checkpoint.currentTime >= maximumTime) {
+            throw new IllegalArgumentException("Checkpoint at time " + checkpoint.currentTime + " is past the maximum time");
+        }
+        if (consumed > checkpoint.consumed) {
+            throw new IllegalArgumentException("The scheduler has read more processes than the checkpoint");
+        }
+        while (consumed < checkpoint.consumed) {
+            if (arrivals.peekArrivalTime() == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The workload is shorter than the one of the checkpoint");
             }
+            arrivals.next(table);
+            consumed++;
+        }
+        if (!table.hasSameProcesses(checkpoint.table)) {
+            throw new IllegalArgumentException("The workload differs from the one of the checkpoint");
+        }
 
-            checkForArrival(readyQueue, processes, time);
-            checkForComeback(waitingQueue, readyQueue, time);
+        table.copyRows(checkpoint.table);
+        runningProcess = checkpoint.runningRow < 0 ? null : table.view(checkpoint.runningRow);
+        restoreReadyQueue(checkpoint.readyQueue);
+        waitingQueue.restore(checkpoint.waitingQueue, table);
+        currentTime = checkpoint.currentTime;
+        count = checkpoint.count;
+        eventCount = checkpoint.eventCount;
+        isResumed = true;
+    }
 
-            if ((runningProcess != null) && (runningProcess.getRemainingTime() == 0)) {
+    /**
+     * Sets the stream the Gantt chart and the results are printed to. Each scheduler keeps
+     * its own stream and counters, so several schedulers can run on different threads.
+     * The Gantt chart is printed to the stream by a new ConsoleGanttSink.
+     *
+     * @param out The output stream.
+     */
+    public void setOutput(PrintStream out) {
+        this.out = out;
+        this.gantt = new ConsoleGanttSink(out);
+    }
 
-                flag = false; //flag to not interrupt the new process that is to be chosen
-                runningProcess.setFinishTime(time);
-                runningProcess.setInterruptTime(time);
-                waitingQueue.addLast(runningProcess);
-                printGanttEntry(runningProcess, time);
+    /**
+     * Selects whether the waiting time of every process is printed after the run. With a large
+     * workload, use a LatencyCollector for the distribution instead and turn this off: a run that
+     * reads a source owning its table, such as a WorkloadFile, and writes no checkpoints then
+     * reuses the rows of the processes that left for good, so it only holds the processes present
+     * at once.
+     *
+     * @param printingProcesses true to print one line per process, false to print only the averages.
+     */
+    public void setPrintingProcesses(boolean printingProcesses) {
+        this.isPrintingProcesses = printingProcesses;
+    }
 
-                if (readyQueue.isEmpty()) {
-                    runningProcess = null;
-                    continue;
-                }
-                runningProcess = readyQueue.poll();
-                runningProcess.waitingQueueTime += time - runningProcess.getReadyQueueTime();
-                runningProcess.setDeploymentTime(time);
-                runningProcess.hasExecuted = true;
+    /**
+     * Adds a listener that receives the events of the simulation, after the listeners added before it.
+     *
+     * @param listener The listener to add.
+     */
+    public void addListener(SchedulingListener listener) {
+
+        if (this.listener == SchedulingListener.NONE) {
+            this.listener = listener;
+        }
+        else if (this.listener instanceof CompositeListener) {
+            ((CompositeListener) this.listener).add(listener);
+        }
+        else {
+            this.listener = new CompositeListener(this.listener, listener);
+        }
+    }
+
+    /**
+     * Sets the destination of the Gantt chart, such as an AsyncGanttSink for long runs
+     * or a NullGanttSink when only the results matter.
+     *
+     * @param gantt The Gantt sink.
+     */
+    public void setGanttSink(GanttSink gantt) {
+        this.gantt = gantt;
+    }
+
+    public double getAverageWaitingTime() {
+        return averageWaitingTime;
+    }
+
+    public double getAverageTurnaroundTime() {
+        return averageTurnaroundTime;
+    }
+
+    /**
+     * Gets Jain's fairness index of the share of the CPU each executed process got while it was
+     * runnable, as computed by PCB.calculateFairnessIndex.
+     *
+     * @return The fairness index of the last run.
+     */
+    public double getFairnessIndex() {
+        return fairnessIndex;
+    }
+
+    /**
+     * Gets the number of entries printed to the Gantt chart, one per run of a process on the CPU.
+     * MetricsCollector counts the context switches.
+     *
+     * @return The number of Gantt chart entries.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public int getMaximumTime() {
+        return maximumTime;
+    }
+
+    /**
+     * Gets the number of times the last run examined the state of the simulation: every time unit
+     * for the per-tick loop, and every event for the event-driven engine.
+     *
+     * @return The number of ticks or events handled.
+     */
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Gets the total time the CPU spent executing processes.
+     *
+     * @return The sum of the execution times of all processes.
+     */
+    public long getBusyTime() {
+
+        long busy = recycled.getBusyTime();
+        for (int row = 0; row < table.size(); row++) {
+            if (!table.isFree(row)) {
+                busy += table.executionTime[row];
             }
-            if (flag && isPreemptive) { //no need to interrupt the process since it just started
-                interruptProcess(time);
+        }
+        return busy;
+    }
+
+    /**
+     * Gets the number of processes that executed during the last run.
+     *
+     * @return The number of executed processes.
+     */
+    public long getExecutedCount() {
+        return executedCount;
+    }
+
+    /**
+     * Gets the processes being scheduled, as new views of the rows of the process table. After a
+     * run that recycled rows, the processes that left for good are no longer among them.
+     *
+     * @return The array of processes.
+     */
+    public PCB[] getProcesses() {
+        return table.views();
+    }
+
+    /**
+     * Computes the averages and the fairness index of the run from the columns of the table,
+     * in a single pass, and from the totals of the processes whose rows were recycled.
+     */
+    void calculateAverages() {
+
+        RunTotals totals = new RunTotals();
+        totals.add(recycled);
+        totals.addAll(table);
+        averageWaitingTime = totals.getAverageWaitingTime();
+        averageTurnaroundTime = totals.getAverageTurnaroundTime();
+        fairnessIndex = totals.getFairnessIndex();
+        executedCount = totals.getExecutedCount();
+    }
+
+    /**
+     * Prints the waiting time of every process, followed by an empty line.
+     */
+    private void printWaitingTimes() {
+
+        for (int row = 0; row < table.size(); row++) {
+            out.println("P" + table.pid[row] + " Waiting time " + table.waitingQueueTime[row]);
+        }
+        out.println();
+    }
+
+    /**
+     * Starts a run at time 0, with the given process on the CPU.
+     *
+     * @param first The process that starts on the CPU, or null to start with an idle CPU.
+     */
+    void start(PCB first) {
+
+        currentTime = 0;
+        eventCount = 0;
+        runningProcess = first;
+        isRecycling = arrivals.isRecyclable() && checkpointFile == null && !isPrintingProcesses;
+        recycled = new RunTotals();
+        gantt.begin(0);
+        if (ioDevices != null) {
+            for (IoDevice device : ioDevices) {
+                device.reset();
             }
+        }
+
+        if (first != null) {
+            first.setDeploymentTime(0);
+            first.setHasExecuted(true);
+            listener.onArrive(first, 0);
+            listener.onDispatch(first, 0);
+        }
+    }
+
+    /**
+     * Runs the CPU up to the given time, then applies everything that happens at that time.
+     *
+     * @param time The time to move to, not before the current time.
+     */
+    void step(int time) {
 
+        if (runningProcess != null) {
+            runningProcess.incrementExecutionTime(time - currentTime);
+            runningProcess.decrementRemainingTime(time - currentTime);
         }
+        handleEvents(time);
+    }
+
+    /**
+     * Ends a run at the maximum time, leaving the running process on the CPU until then.
+     */
+    void finish() {
 
         if (runningProcess != null) {
+            runningProcess.incrementExecutionTime(maximumTime - currentTime); //the process keeps the CPU until the end
+            runningProcess.decrementRemainingTime(maximumTime - currentTime);
             runningProcess.setFinishTime(maximumTime);
             runningProcess.setInterruptTime(maximumTime);
             printGanttEntry(runningProcess, maximumTime);
         }
-        System.out.println("\n\u001B[1m" + "_".repeat(83));
+        listener.onFinish(maximumTime);
+        gantt.end();
+    }
+
+    /**
+     * Simulates the CPU one time unit at a time, from the current time up to the given time.
+     *
+     * @param until       The time before which the simulation stops.
+     * @param checkpoints The writer of the checkpoints, or null.
+     */
+    private void runTicks(int until, Checkpoint.Writer checkpoints) {
+
+        int nextCheckpoint = nextCheckpointTime(currentTime);
+        for (int time = currentTime + 1; time < until; time++) { //loop that simulates CPU scheduling
+            step(time);
+            if (checkpoints != null && time >= nextCheckpoint) {
+                checkpoints.submit(capture());
+                nextCheckpoint = nextCheckpointTime(time);
+            }
+        }
+    }
+
+    /**
+     * Simulates the CPU by jumping straight to the next time at which an arrival, completion,
+     * comeback, quantum expiry or aging boundary can happen, from the current time up to the given time.
+     *
+     * @param until       The time before which the simulation stops.
+     * @param checkpoints The writer of the checkpoints, or null.
+     */
+    private void runEvents(int until, Checkpoint.Writer checkpoints) {
+
+        int nextCheckpoint = nextCheckpointTime(currentTime);
+        int time = currentTime;
+        int next;
+        while ((next = nextEventTime(time)) < until) {
+            step(next);
+            time = next;
+            if (checkpoints != null && time >= nextCheckpoint) {
+                checkpoints.submit(capture());
+                nextCheckpoint = nextCheckpointTime(time);
+            }
+        }
+    }
+
+    /**
+     * Gets the first multiple of the checkpoint interval after the given time.
+     *
+     * @param time The current time.
+     * @return The time of the next checkpoint.
+     */
+    private int nextCheckpointTime(int time) {
+
+        if (checkpointInterval <= 0) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) Math.min(((long) time / checkpointInterval + 1) * checkpointInterval, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Copies the state of the simulation into a checkpoint. Only the copy is made here; the
+     * checkpoint is encoded and written elsewhere.
+     *
+     * @return A checkpoint of the current state.
+     */
+    private Checkpoint capture() {
+        return new Checkpoint(getClass().getName(), maximumTime, getQuantum(), currentTime, count, eventCount,
+                consumed, table.copy(), runningProcess == null ? -1 : runningProcess.getRow(),
+                saveReadyQueue(), waitingQueue.save());
+    }
+
+    /**
+     * Gets the quantum the scheduler was created with, which a checkpoint records so that only a
+     * scheduler with the same one resumes it.
+     *
+     * @return The time slice or aging interval, or 0 for an algorithm without a quantum.
+     */
+    protected int getQuantum() {
+        return 0;
+    }
+
+    /**
+     * Saves the ready queue for a checkpoint, as the table rows of its processes in iteration order.
+     * A list iterates in queue order and a PriorityQueue in heap order, and offering the rows again
+     * in that order rebuilds either of them exactly; queues with another layout override this.
+     *
+     * @return The layout of the ready queue.
+     */
+    protected int[] saveReadyQueue() {
+
+        int[] rows = new int[readyQueue.size()];
+        int i = 0;
+        for (PCB process : readyQueue) {
+            rows[i++] = process.getRow();
+        }
+        return rows;
+    }
+
+    /**
+     * Replaces the content of the ready queue with a layout saved by saveReadyQueue.
+     *
+     * @param saved The layout of the ready queue.
+     */
+    protected void restoreReadyQueue(int[] saved) {
+
+        readyQueue.clear();
+        for (int row : saved) {
+            readyQueue.offer(table.view(row));
+        }
+    }
+
+    /**
+     * Applies everything that happens at the given time: aging, arrivals, comebacks,
+     * completion of the running process, dispatching and preemption.
+     *
+     * @param time The current time.
+     */
+    private void handleEvents(int time) {
+
+        currentTime = time;
+        eventCount++;
+
+        if (isPriority) {
+            decreasePriority(time);
+        }
+
+        checkForArrival(readyQueue, time);
+        checkForComeback(waitingQueue, readyQueue, time);
+
+        boolean flag = true; //flag to not interrupt the new process that is to be chosen
+
+        if ((runningProcess != null) && (runningProcess.getRemainingTime() == 0)) {
+
+            PCB finished = runningProcess;
+            finished.setFinishTime(time);
+            finished.setInterruptTime(time);
+            boolean isBack = block(finished, time);
+            printGanttEntry(finished, time);
+            listener.onComplete(finished, time);
+            runningProcess = null;
+            if (isBack) {
+                comeBack(finished, time);
+            }
+        }
+
+        if (runningProcess == null) {
+            if (!readyQueue.isEmpty()) {
+                dispatch(time);
+            }
+            flag = false;
+        }
+
+        if (flag && isPreemptive) { //no need to interrupt the process since it just started
+            interruptProcess(time);
+        }
+    }
+
+    /**
+     * Moves the process at the head of the ready queue onto the CPU.
+     *
+     * @param time The current time.
+     */
+    private void dispatch(int time) {
+
+        runningProcess = pollReady(time);
+        runningProcess.addWaitingQueueTime(time - runningProcess.getReadyQueueTime());
+        runningProcess.setDeploymentTime(time);
+        runningProcess.setHasExecuted(true);
+        listener.onDispatch(runningProcess, time);
+    }
+
+    /**
+     * Interrupts the running process, puts it back in the ready queue and dispatches the
+     * process at the head of the queue in its place.
+     *
+     * @param time The current time.
+     */
+    protected void preempt(int time) {
+
+        printGanttEntry(runningProcess, time);
+        runningProcess.setInterruptTime(time);
+        listener.onPreempt(runningProcess, time);
+
+        PCB tempProcess = runningProcess;
+        tempProcess.setReadyQueueTime(time);
+        dispatch(time);
+        readyQueue.offer(tempProcess);
+    }
+
+    /**
+     * Removes the head of the ready queue, reporting the aging it went through.
+     *
+     * @param time The current time.
+     * @return The process at the head of the ready queue.
+     */
+    private PCB pollReady(int time) {
+
+        PCB process = readyQueue.peek();
+        int priority = process.getPriority();
+        readyQueue.poll();
+        if (process.getPriority() < priority) {
+            listener.onAge(process, priority, time);
+        }
+        return process;
+    }
 
-        double avgWaiting = PCB.calculateAverageWaitingTime(processes);
-        double avgTurnaround = PCB.calculateAverageTurnaroundTime(processes);
+    /**
+     * Puts a process that arrived at the given time in the ready queue, whether it was read from
+     * the process source or routed to this CPU from outside.
+     *
+     * @param process The process that arrived.
+     * @param time    The current time.
+     */
+    void admit(PCB process, int time) {
 
+        process.setReadyQueueTime(time);
+        readyQueue.offer(process);
+        listener.onArrive(process, time);
+    }
 
-        System.out.println("\u001B[31m\u001B[1mAverage waiting time\u001B[0m : \u001B[1m" + avgWaiting);
-        System.out.println("\u001B[31m\u001B[1mAverage turnaround time\u001B[0m : \u001B[1m" + avgTurnaround + "\n\u001B[0m");
+    /**
+     * Takes the process at the head of the ready queue away so it can move to another CPU.
+     * The time it waited so far is credited to it, and it starts waiting afresh from now.
+     *
+     * @param time The current time.
+     * @return The process, or null if the ready queue is empty.
+     */
+    PCB migrate(int time) {
+
+        if (readyQueue.isEmpty()) {
+            return null;
+        }
+        PCB process = pollReady(time);
+        process.addWaitingQueueTime(time - process.getReadyQueueTime());
+        process.setReadyQueueTime(time);
+        return process;
     }
 
+    /**
+     * Takes in a process moved from another CPU, dispatching it at once if this CPU is idle,
+     * or letting it preempt the running process like an arrival would.
+     *
+     * @param process The process taken from another CPU with migrate.
+     * @param time    The current time.
+     */
+    void receive(PCB process, int time) {
+
+        readyQueue.offer(process);
+        if (runningProcess == null) {
+            dispatch(time);
+        }
+        else if (isPreemptive) {
+            interruptProcess(time);
+        }
+    }
+
+    /**
+     * Gets the number of processes in the ready queue.
+     *
+     * @return The length of the ready queue.
+     */
+    int getReadyCount() {
+        return readyQueue.size();
+    }
+
+    /**
+     * Adds up the remaining time of the running process and of the ready queue, stopping once
+     * the limit is reached. The CPU cannot run out of work before this much time has passed,
+     * since comebacks and arrivals only add to it.
+     *
+     * @param limit The value beyond which the sum is not needed.
+     * @return The remaining work of the CPU, or the limit if it is at least that much.
+     */
+    long pendingWork(long limit) {
+
+        long work = runningProcess == null ? 0 : runningProcess.getRemainingTime();
+        Iterator<PCB> ready = readyQueue.iterator();
+        while (work < limit && ready.hasNext()) {
+            work += ready.next().getRemainingTime();
+        }
+        return Math.min(work, limit);
+    }
+
+    /**
+     * Gets the process on the CPU.
+     *
+     * @return The running process, or null if the CPU is idle.
+     */
+    PCB getRunningProcess() {
+        return runningProcess;
+    }
+
+    /**
+     * Finds the earliest time after the given one at which the state of the simulation can change.
+     *
+     * @param time The current time.
+     * @return The time of the next event, or a value of at least the maximum time if there is none.
+     */
+    protected int nextEventTime(int time) {
+
+        int next = maximumTime;
+
+        if (runningProcess != null) {
+            //a process with no remaining time still completes one time unit later
+            next = (int) Math.min(next, (long) time + Math.max(runningProcess.getRemainingTime(), 1));
+
+            if (isPreemptive) {
+                next = Math.min(next, nextInterruptTime(time));
+            }
+        }
+        if (isPriority) {
+            next = Math.min(next, nextAgingTime(time));
+        }
+        next = Math.min(next, nextArrivalTime(time));
+        next = Math.min(next, nextComebackTime(time));
+
+        return next;
+    }
+
+    /**
+     * Gets the earliest arrival after the given time.
+     *
+     * @param time The current time.
+     * @return The next arrival time, or Integer.MAX_VALUE if no more processes arrive.
+     */
+    protected int nextArrivalTime(int time) {
+        return arrivals.peekArrivalTime();
+    }
+
+    /**
+     * Gets the earliest comeback from the waiting queue after the given time.
+     *
+     * @param time The current time.
+     * @return The next comeback time, or Integer.MAX_VALUE if no process will come back.
+     */
+    protected int nextComebackTime(int time) {
+        return (int) Math.min(waitingQueue.peekTime(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the next time after the given one at which a preemptive algorithm may interrupt the
+     * running process even though no process arrived or came back. Algorithms whose preemption
+     * only depends on the ready queue never need such a time.
+     *
+     * @param time The current time.
+     * @return The next interrupt time, or Integer.MAX_VALUE if there is none.
+     */
+    protected int nextInterruptTime(int time) {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Gets the next time after the given one at which aging changes the priority of a process
+     * in the ready queue.
+     *
+     * @param time The current time.
+     * @return The next aging time, or Integer.MAX_VALUE if there is none.
+     */
+    protected int nextAgingTime(int time) {
+        return Integer.MAX_VALUE;
+    }
 
     /**
      * Sets the array of processes for the scheduling algorithm.
@@ -126,41 +900,135 @@ public abstract class Scheduling {
      * @param processes An array of PCB (Process Control Block) objects.
      */
     protected void setProcesses(PCB[] processes) {
-        this.processes = new PCB[processes.length];
-        copyArray(this.processes, processes);
+        setProcesses(ProcessTable.copyOf(processes));
+    }
+
+    /**
+     * Sets the table of processes for the scheduling algorithm.
+     *
+     * @param table A table holding one row per process.
+     */
+    protected void setProcesses(ProcessTable table) {
+        setProcesses(new TableSource(table));
+    }
+
+    /**
+     * Sets the source of the processes for the scheduling algorithm and admits its first process,
+     * which starts at time 0.
+     *
+     * @param source The source of the processes, in order of arrival.
+     */
+    protected void setProcesses(ProcessSource source) {
+        this.arrivals = source;
+        this.table = source.createTable();
+        this.consumed = 0;
+        if (source.peekArrivalTime() != Integer.MAX_VALUE) {
+            source.next(table);
+            consumed++;
+        }
     }
 
     /**
      * Checks for processes returning from the waiting queue.
      *
-     * @param waitingQueue  A linked list containing processes waiting to be scheduled.
+     * @param waitingQueue  A queue containing processes waiting to come back, ordered by comeback time.
      * @param readyQueue    A queue containing processes ready to execute.
      * @param countWaiting  The current count of waiting time.
      */
-    public void checkForComeback(LinkedList<PCB> waitingQueue, Queue<PCB> readyQueue, int countWaiting) {
-        ListIterator<PCB> iterator = waitingQueue.listIterator();
+    public void checkForComeback(ComebackQueue waitingQueue, Queue<PCB> readyQueue, int countWaiting) {
 
-        while (iterator.hasNext()) {
-            PCB process = iterator.next();
+        while (waitingQueue.peekTime() <= countWaiting) {
+            PCB process = waitingQueue.poll();
+            IoDevice device = ioDevices == null ? null : deviceOf(process);
+            if (device != null && device.isServing(process)) { //the device is free for its next request
+                long returnTime = device.getReturnTime(process);
+                PCB served = device.release(countWaiting);
+                if (served != null) {
+                    waitingQueue.add(served, device.getServiceEnd());
+                }
+                if (returnTime > countWaiting) { //served before its comeback time, such as its next release
+                    waitingQueue.add(process, returnTime);
+                    continue;
+                }
+            }
+            comeBack(process, countWaiting);
+        }
+    }
+
+    /**
+     * Puts a process back in the ready queue once its comeback time has come.
+     *
+     * @param process The process that comes back.
+     * @param time    The current time.
+     */
+    private void comeBack(PCB process, int time) {
+
+        resetProperties(process, time);
+        readyQueue.offer(process);
+        listener.onComeback(process, time);
+    }
 
-            if (hasComebackElapsed(process, countWaiting)) {
-                resetProperties(process, countWaiting);
-                readyQueue.offer(process);
-                iterator.remove();
+    /**
+     * Puts a process that just finished its CPU burst in the waiting queue until its comeback
+     * time, or, with I/O devices, on its device, where it waits until its request is served and
+     * its comeback time has come. A process without an I/O burst, such as a periodic task given only a period, waits for its
+     * comeback time without using a device.
+     *
+     * @param process The process that just finished.
+     * @param time    The current time.
+     * @return true if the process comes back at once, and must be put back in the ready queue.
+     */
+    private boolean block(PCB process, int time) {
+
+        long comeback = comebackTime(process);
+        if (comeback == IMMEDIATELY) {
+            return true;
+        }
+        if (comeback <= time) {
+            leave(process);
+        }
+        else if (ioDevices == null || process.getComeBack() <= 0) {
+            waitingQueue.add(process, comeback);
+        }
+        else {
+            IoDevice device = deviceOf(process);
+            if (device.request(process, time, comeback)) {
+                waitingQueue.add(process, device.getServiceEnd());
             }
         }
+        return false;
     }
 
     /**
-     * Checks if the comeback time has elapsed for a process.
+     * Lets go of a process that never comes back. When rows are recycled, its metrics are added
+     * to the totals of the run and its row is released for a process that arrives later.
      *
-     * @param process      The PCB (Process Control Block) object to be checked.
-     * @param countWaiting The current count of waiting time.
-     * @return true if the comeback time has elapsed, false otherwise.
+     * @param process The process that left for good.
      */
+    private void leave(PCB process) {
+
+        if (isRecycling) {
+            int row = process.getRow();
+            recycled.add(table, row);
+            releaseRow(row);
+            table.release(row);
+        }
+    }
+
+    private IoDevice deviceOf(PCB process) {
+        return ioDevices[Math.floorMod(process.getPid(), ioDevices.length)];
+    }
 
-    protected boolean hasComebackElapsed(PCB process, int countWaiting) {
-        return (process.getComeBack() + process.getFinishTime()) == countWaiting;
+    /**
+     * Gets the time at which a process that just finished comes back to the ready queue.
+     * A process whose comeback time is not after its finish time never comes back, unless the
+     * time is IMMEDIATELY.
+     *
+     * @param process The PCB (Process Control Block) object that just finished.
+     * @return The comeback time of the process, or IMMEDIATELY to put it back in the ready queue at once.
+     */
+    protected long comebackTime(PCB process) {
+        return (long) process.getComeBack() + process.getFinishTime();
     }
 
     /**
@@ -171,17 +1039,34 @@ public abstract class Scheduling {
      */
     protected abstract void resetProperties(PCB process, int countWaiting);
 
+    /**
+     * Forgets what the algorithm keeps about a row whose process left for good, before the row
+     * holds a process that arrives later. Only runs that recycle rows release them.
+     *
+     * @param row The row being released.
+     */
+    protected void releaseRow(int row) {
+    }
 
-    protected void checkForArrival(Queue<PCB> readyQueue, PCB[] processes, int countArrival) {
 
-        int i;
-        for (i = 1; i < processes.length; i++) {
+    /**
+     * Admits every process that arrives at the given time into the ready queue.
+     *
+     * Arrivals are taken from the process source in order of arrival time, so only the
+     * processes arriving now are touched. Processes that arrive at the same time are admitted
+     * in the order of the source. A process whose arrival time has already passed, which only
+     * a negative arrival time allows, is admitted now rather than dropped.
+     *
+     * @param readyQueue   A queue containing processes ready to execute.
+     * @param countArrival The current time.
+     */
+    protected void checkForArrival(Queue<PCB> readyQueue, int countArrival) {
 
-            if (processes[i].arrivalTime == countArrival) {
-                processes[i].setReadyQueueTime(countArrival);
-                readyQueue.offer(processes[i]);
-                break; //break after finding a process because the arrival time is different for each process
-            }
+        while (arrivals.peekArrivalTime() <= countArrival) {
+
+            PCB process = table.view(arrivals.next(table));
+            consumed++;
+            admit(process, countArrival);
         }
     }
 
@@ -206,35 +1091,14 @@ public abstract class Scheduling {
     }
 
     /**
-     * Copies the contents of one array to another.
-     *
-     * @param processes1 The destination array.
-     * @param processes2 The source array.
-     */
-    private static void copyArray (PCB[] processes1, PCB[] processes2) {
-        try {
-            for (int i = 0; i < processes2.length; i++) {
-                processes1[i] = (PCB) processes2[i].clone();
-            }
-        }
-        catch (CloneNotSupportedException e) {
-            throw new RuntimeException();
-        }
-    }
-
-    /**
-     * Prints a Gantt chart entry for a process at a specific time.
+     * Reports a Gantt chart entry for a process at a specific time to the Gantt sink.
      *
      * @param process The PCB (Process Control Block) object.
-     * @param time    The time at which the process is scheduled.
+     * @param time    The time at which the process leaves the CPU.
      */
     public void printGanttEntry (PCB process, int time) {
         count++;
-        System.out.printf("\u001B[1m%-3s\u001B[31m |%-2s|\u001B[0m \u001B[1m%-3s\t", process.getDeploymentTime(), process, time);
-        if (count % 5 == 0) {
-            System.out.println();
-        }
-
+        gantt.entry(process.getPid(), process.getDeploymentTime(), time);
     }
 
 }
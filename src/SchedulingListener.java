@@ -0,0 +1,82 @@
+/**
+ * Receives the events of a simulation as they happen. Every callback does nothing by default,
+ * so a listener only overrides the events it needs.
+ *
+ * The processes passed to the callbacks are the views the scheduler already holds, and the
+ * other arguments are primitives, so the scheduler allocates nothing to report an event. A
+ * listener that keeps its own state in primitive arrays can observe a run without allocating
+ * either. A view is only valid during the run and must not be modified by the listener.
+ */
+public interface SchedulingListener {
+
+    /** Listener that ignores every event. */
+    SchedulingListener NONE = new SchedulingListener() {
+    };
+
+    /**
+     * Called when a process arrives and joins the ready queue. The process that starts on the
+     * CPU at time 0 arrives at time 0 right before it is dispatched.
+     *
+     * @param process The process that arrived.
+     * @param time    The current time.
+     */
+    default void onArrive(PCB process, int time) {
+    }
+
+    /**
+     * Called when a process is put on the CPU.
+     *
+     * @param process The process that was dispatched.
+     * @param time    The current time.
+     */
+    default void onDispatch(PCB process, int time) {
+    }
+
+    /**
+     * Called when the running process is interrupted and put back in the ready queue,
+     * right before the process replacing it is dispatched.
+     *
+     * @param process The process that was preempted.
+     * @param time    The current time.
+     */
+    default void onPreempt(PCB process, int time) {
+    }
+
+    /**
+     * Called when the running process finishes its burst and leaves the CPU.
+     *
+     * @param process The process that completed.
+     * @param time    The current time.
+     */
+    default void onComplete(PCB process, int time) {
+    }
+
+    /**
+     * Called when a process comes back from the waiting queue to the ready queue.
+     *
+     * @param process The process that came back.
+     * @param time    The current time.
+     */
+    default void onComeback(PCB process, int time) {
+    }
+
+    /**
+     * Called when aging lowered the priority of a process. Aging is applied lazily, so this is
+     * reported when the process leaves the ready queue with its aged priority.
+     *
+     * @param process  The process that aged, holding its new priority.
+     * @param priority The priority the process had when it entered the ready queue.
+     * @param time     The current time.
+     */
+    default void onAge(PCB process, int priority, int time) {
+    }
+
+    /**
+     * Called once when the run reaches the maximum time, after the running process, if any,
+     * has been credited with the time it kept the CPU.
+     *
+     * @param time The maximum time.
+     */
+    default void onFinish(int time) {
+    }
+}
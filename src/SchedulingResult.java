@@ -0,0 +1,112 @@
+/**
+ * Summary of one run of a scheduling algorithm.
+ */
+public class SchedulingResult {
+
+    private final Algorithm algorithm;
+    private final int quantum;
+    private final int maximumTime;
+    private final double averageWaitingTime;
+    private final double averageTurnaroundTime;
+    private final double fairnessIndex;
+    private final int executedProcesses;
+    private final long contextSwitches;
+    private final long busyTime;
+    private final double cpuUtilization;
+    private final double averageResponseTime;
+    private final double throughput;
+
+    /**
+     * Constructs a result from a scheduler that has finished running.
+     *
+     * @param algorithm The algorithm that was run.
+     * @param quantum   The quantum the algorithm was run with.
+     * @param scheduler The scheduler after runAlgorithm returned.
+     * @param metrics   The collector that listened to the run.
+     */
+    public SchedulingResult(Algorithm algorithm, int quantum, Scheduling scheduler, MetricsCollector metrics) {
+
+        this.algorithm = algorithm;
+        this.quantum = quantum;
+        this.maximumTime = scheduler.getMaximumTime();
+        this.averageWaitingTime = scheduler.getAverageWaitingTime();
+        this.averageTurnaroundTime = scheduler.getAverageTurnaroundTime();
+        this.fairnessIndex = scheduler.getFairnessIndex();
+        this.contextSwitches = metrics.getContextSwitches();
+        this.busyTime = scheduler.getBusyTime();
+        this.cpuUtilization = metrics.getCpuUtilization();
+        this.averageResponseTime = metrics.getAverageResponseTime();
+        this.throughput = metrics.getThroughput();
+        this.executedProcesses = (int) scheduler.getExecutedCount();
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getQuantum() {
+        return quantum;
+    }
+
+    public int getMaximumTime() {
+        return maximumTime;
+    }
+
+    public double getAverageWaitingTime() {
+        return averageWaitingTime;
+    }
+
+    public double getAverageTurnaroundTime() {
+        return averageTurnaroundTime;
+    }
+
+    /**
+     * Gets Jain's fairness index of the CPU shares of the processes.
+     *
+     * @return The fairness index, 1 when every process got the same share.
+     */
+    public double getFairnessIndex() {
+        return fairnessIndex;
+    }
+
+    public int getExecutedProcesses() {
+        return executedProcesses;
+    }
+
+    /**
+     * Gets the number of times a process was put on the CPU after the first dispatch of the run,
+     * as counted by MetricsCollector.
+     *
+     * @return The number of context switches.
+     */
+    public long getContextSwitches() {
+        return contextSwitches;
+    }
+
+    public long getBusyTime() {
+        return busyTime;
+    }
+
+    public double getAverageResponseTime() {
+        return averageResponseTime;
+    }
+
+    /**
+     * Gets the number of bursts completed per time unit.
+     *
+     * @return The throughput of the run.
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * Gets the fraction of the run during which the CPU was executing a process, as measured by
+     * MetricsCollector.
+     *
+     * @return The CPU utilization, between 0 and 1.
+     */
+    public double getCpuUtilization() {
+        return cpuUtilization;
+    }
+}
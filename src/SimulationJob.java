@@ -0,0 +1,330 @@
+import java.io.*;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One non-interactive simulation: an algorithm, its parameters, a workload and the format of the
+ * result. Jobs are built from named options, the same for the command line and the simulation
+ * server, and every job runs on its own scheduler and output, so jobs can run concurrently.
+ *
+ * Options:
+ * <ul>
+ *   <li>algorithm: fcfs, sjf, srtf, round-robin, preemptive-priority, non-preemptive-priority, mlfq, cfs, edf or rate-monotonic (required)</li>
+ *   <li>quantum: time slice for Round Robin and the top level of MLFQ, minimum granularity of CFS, or aging interval for the priority algorithms (default 5)</li>
+ *   <li>max-time: maximum time of the run (default 200)</li>
+ *   <li>engine: event or tick (default event)</li>
+ *   <li>format: text for the Gantt chart and waiting times, csv or json for the metrics (default text)</li>
+ *   <li>workload: binary process trace written by WorkloadFile (default the built-in example); not accepted by the server</li>
+ *   <li>io: policies of the simulated I/O devices, comma-separated, each fifo, sstf or scan (default none, for uncontended I/O)</li>
+ *   <li>trace: file to write the schedule to as a Chrome trace, written by TraceExporter (default none); not accepted by the server</li>
+ * </ul>
+ */
+public class SimulationJob {
+
+    /** A JSON array of arrays of integers, the form of readJsonWorkload. */
+    private static final Pattern JSON_WORKLOAD =
+            Pattern.compile("\\[\\s*(\\[[-\\d\\s,]*\\]\\s*(,\\s*\\[[-\\d\\s,]*\\]\\s*)*)?\\]");
+
+    /** One process of a JSON workload. */
+    private static final Pattern JSON_PROCESS = Pattern.compile("\\[([-\\d\\s,]*)\\]");
+
+    /**
+     * How the result of a job is written.
+     */
+    public enum Format {
+
+        /** The Gantt chart and the waiting time of every process, as the menu prints them. */
+        TEXT("text/plain"),
+
+        /** A header line and a line of metrics. */
+        CSV("text/csv"),
+
+        /** An object holding the metrics. */
+        JSON("application/json");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    private final Algorithm algorithm;
+    private final int quantum;
+    private final int maximumTime;
+    private final boolean isEventDriven;
+    private final Format format;
+
+    /** Trace to read the workload from, or null to use the table. */
+    private final Path workloadFile;
+
+    /** Workload held in memory, used when there is no trace. */
+    private final ProcessTable workload;
+
+    /** Policies of the I/O devices, empty for uncontended I/O. */
+    private final IoDevice.Policy[] ioPolicies;
+
+    /** File to write the schedule to, or null to write none. */
+    private final Path traceFile;
+
+    /**
+     * Builds a job from named options.
+     *
+     * @param options  The options, by name without leading dashes.
+     * @param workload The workload to use if the options name no trace; it is not modified.
+     * @throws IllegalArgumentException if an option is missing, unknown or invalid.
+     */
+    public SimulationJob(Map<String, String> options, ProcessTable workload) {
+
+        for (String name : options.keySet()) {
+            if (!name.matches("algorithm|quantum|max-time|engine|format|workload|io|trace")) {
+                throw new IllegalArgumentException("Unknown option: " + name);
+            }
+        }
+        String algorithmName = options.get("algorithm");
+        if (algorithmName == null) {
+            throw new IllegalArgumentException("Missing option: algorithm");
+        }
+        this.algorithm = parseEnum(Algorithm.class, "algorithm", algorithmName);
+        this.quantum = parseInt(options, "quantum", 5);
+        this.maximumTime = parseInt(options, "max-time", 200);
+        if (quantum <= 0 || maximumTime <= 0) {
+            throw new IllegalArgumentException("quantum and max-time must be positive");
+        }
+
+        String engine = options.getOrDefault("engine", "event");
+        if (!engine.equals("event") && !engine.equals("tick")) {
+            throw new IllegalArgumentException("Invalid engine: " + engine);
+        }
+        this.isEventDriven = engine.equals("event");
+        this.format = parseEnum(Format.class, "format", options.getOrDefault("format", "text"));
+
+        String file = options.get("workload");
+        this.workloadFile = file == null ? null : Path.of(file);
+        this.workload = workload;
+
+        String io = options.get("io");
+        String[] policies = io == null ? new String[0] : io.split(",");
+        this.ioPolicies = new IoDevice.Policy[policies.length];
+        for (int i = 0; i < policies.length; i++) {
+            ioPolicies[i] = parseEnum(IoDevice.Policy.class, "io", policies[i].strip());
+        }
+
+        String trace = options.get("trace");
+        this.traceFile = trace == null ? null : Path.of(trace);
+    }
+
+    /**
+     * Reads a workload written as text, one process per line: pid, arrival time, burst time,
+     * comeback time and priority, optionally followed by the period and the relative deadline
+     * used by the real-time algorithms, separated by spaces or commas. Blank lines and lines starting
+     * with # are skipped. The first process starts at time 0.
+     *
+     * @param in The text to read.
+     * @return A table holding one row per process.
+     * @throws IOException if the text cannot be read.
+     * @throws IllegalArgumentException if a line is not a process.
+     */
+    public static ProcessTable readWorkload(Reader in) throws IOException {
+
+        ProcessTable table = new ProcessTable(16);
+        BufferedReader reader = new BufferedReader(in);
+        String line;
+        int number = 0;
+        while ((line = reader.readLine()) != null) {
+
+            number++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            addProcess(table, line.split("[\\s,]+"), "Line " + number, line);
+        }
+        return table;
+    }
+
+    /**
+     * Reads a workload written as a JSON array of processes, each an array of 5 or 7 integers in
+     * the order of readWorkload, such as [[1, 0, 10, 2, 3], [2, 1, 8, 4, 2]]. An empty text is an
+     * empty workload.
+     *
+     * @param in The text to read.
+     * @return A table holding one row per process.
+     * @throws IOException if the text cannot be read.
+     * @throws IllegalArgumentException if the text is not such an array.
+     */
+    public static ProcessTable readJsonWorkload(Reader in) throws IOException {
+
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[4096];
+        for (int read; (read = in.read(buffer)) > 0; ) {
+            text.append(buffer, 0, read);
+        }
+        ProcessTable table = new ProcessTable(16);
+        String json = text.toString().strip();
+        if (json.isEmpty()) {
+            return table;
+        }
+        if (!JSON_WORKLOAD.matcher(json).matches()) {
+            throw new IllegalArgumentException("The workload is not an array of arrays of integers");
+        }
+        Matcher process = JSON_PROCESS.matcher(json.substring(1, json.length() - 1));
+        int number = 0;
+        while (process.find()) {
+            number++;
+            String fields = process.group(1).strip();
+            addProcess(table, fields.split("\\s*,\\s*"), "Process " + number, "[" + fields + "]");
+        }
+        return table;
+    }
+
+    /**
+     * Adds a process read from a workload.
+     *
+     * @param table  The table to add it to.
+     * @param fields The pid, arrival time, burst time, comeback time and priority, optionally followed
+     *               by the period and the relative deadline.
+     * @param where  The position of the process in the workload, for the error message.
+     * @param text   The text of the process, for the error message.
+     */
+    private static void addProcess(ProcessTable table, String[] fields, String where, String text) {
+
+        if (fields.length != 5 && fields.length != 7) {
+            throw new IllegalArgumentException(where + " does not hold 5 or 7 fields: " + text);
+        }
+        try {
+            boolean isPeriodic = fields.length == 7;
+            table.add(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+                    Integer.parseInt(fields[3]), Integer.parseInt(fields[4]),
+                    isPeriodic ? Integer.parseInt(fields[5]) : 0, isPeriodic ? Integer.parseInt(fields[6]) : 0);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException(where + " is not a process: " + text);
+        }
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Runs the job and writes its result.
+     *
+     * @param out The stream the result is written to.
+     * @throws IOException if the trace cannot be read, or the schedule cannot be written.
+     */
+    public void run(PrintStream out) throws IOException {
+
+        if (format == Format.TEXT && (algorithm == Algorithm.EDF || algorithm == Algorithm.RATE_MONOTONIC)) {
+            if (workloadFile == null) {
+                RealTimeScheduling.analyze(new TableSource(workload.copy())).print(out);
+            }
+            else {
+                try (WorkloadFile file = new WorkloadFile(workloadFile)) {
+                    RealTimeScheduling.analyze(file).print(out);
+                }
+            }
+        }
+        if (workloadFile == null) {
+            run(new TableSource(workload.copy()), out);
+            return;
+        }
+        try (WorkloadFile file = new WorkloadFile(workloadFile)) {
+            run(file, out);
+        }
+    }
+
+    private void run(ProcessSource source, PrintStream out) throws IOException {
+
+        Scheduling scheduler = algorithm.create(source, maximumTime, quantum);
+        if (format == Format.TEXT) {
+            scheduler.setOutput(out);
+        }
+        else { //only the metrics are written
+            scheduler.setOutput(new PrintStream(OutputStream.nullOutputStream()));
+            scheduler.setGanttSink(NullGanttSink.INSTANCE);
+            scheduler.setPrintingProcesses(false);
+        }
+        if (workloadFile != null) { //a trace is too long to list, and its rows are reused once listing is off
+            scheduler.setPrintingProcesses(false);
+        }
+        scheduler.setEventDriven(isEventDriven);
+        IoDevice[] devices = new IoDevice[ioPolicies.length];
+        for (int i = 0; i < devices.length; i++) {
+            devices[i] = new IoDevice("io" + i, ioPolicies[i]);
+        }
+        scheduler.setIoDevices(devices);
+        MetricsCollector metrics = new MetricsCollector();
+        scheduler.addListener(metrics);
+        if (traceFile == null) {
+            scheduler.runAlgorithm();
+        }
+        else {
+            try (TraceExporter trace = new TraceExporter(traceFile)) {
+                scheduler.addListener(trace);
+                scheduler.runAlgorithm();
+            }
+            catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        SchedulingResult result = new SchedulingResult(algorithm, quantum, scheduler, metrics);
+
+        if (format == Format.TEXT) {
+            out.printf("Response time : %.2f%nThroughput : %.4f%nCPU utilization : %.1f%%%n",
+                    result.getAverageResponseTime(), result.getThroughput(), 100 * result.getCpuUtilization());
+        }
+        else if (format == Format.CSV) {
+            out.println("algorithm,quantum,max_time,average_waiting_time,average_turnaround_time,"
+                    + "average_response_time,fairness_index,throughput,cpu_utilization,context_switches,executed_processes");
+            out.printf(Locale.ROOT, "%s,%d,%d,%.4f,%.4f,%.4f,%.6f,%.6f,%.6f,%d,%d%n",
+                    algorithm.name(), quantum, maximumTime, result.getAverageWaitingTime(),
+                    result.getAverageTurnaroundTime(), result.getAverageResponseTime(), result.getFairnessIndex(),
+                    result.getThroughput(), result.getCpuUtilization(), result.getContextSwitches(),
+                    result.getExecutedProcesses());
+        }
+        else {
+            out.printf(Locale.ROOT, "{\"algorithm\":\"%s\",\"quantum\":%d,\"maxTime\":%d,\"averageWaitingTime\":%.4f,"
+                            + "\"averageTurnaroundTime\":%.4f,\"averageResponseTime\":%.4f,\"fairnessIndex\":%.6f,"
+                            + "\"throughput\":%.6f,\"cpuUtilization\":%.6f,\"contextSwitches\":%d,\"executedProcesses\":%d}%n",
+                    algorithm.name(), quantum, maximumTime, result.getAverageWaitingTime(),
+                    result.getAverageTurnaroundTime(), result.getAverageResponseTime(), result.getFairnessIndex(),
+                    result.getThroughput(), result.getCpuUtilization(), result.getContextSwitches(),
+                    result.getExecutedProcesses());
+        }
+    }
+
+    private static int parseInt(Map<String, String> options, String name, int defaultValue) {
+
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Finds a constant by name, ignoring case and accepting dashes for underscores.
+     */
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, String value) {
+
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Long-lived HTTP server on the loopback interface that runs simulation jobs, so tools submitting
+ * many small runs pay for JVM startup and JIT warm-up once. Jobs run concurrently on a fixed pool
+ * of threads, each on its own scheduler.
+ *
+ * Endpoints:
+ * <ul>
+ *   <li>POST /simulate?algorithm=round-robin&amp;quantum=5&amp;format=json runs a job with the options of
+ *   SimulationJob. The body holds the workload: with the type application/x-www-form-urlencoded, which
+ *   curl sends by default, as text with one process per line, as read by SimulationJob.readWorkload;
+ *   with the type application/json, as an array of processes, as read by SimulationJob.readJsonWorkload.
+ *   An empty body uses the built-in example.</li>
+ *   <li>GET /health answers ok.</li>
+ * </ul>
+ * Invalid jobs are answered with status 400 and the reason.
+ *
+ * Every program on the machine can reach the loopback interface, web pages included, so the server
+ * never touches the files of the machine on behalf of a client: options that name a file to read
+ * or write, workload and trace, are refused. Requests sent by a browser, which carry an Origin header, are refused with status 403,
+ * and bodies of any other type, such as the text/plain a page can post without a preflight, with 415.
+ */
+public class SimulationServer {
+
+    /** Options of SimulationJob that name a file on the machine of the server. */
+    private static final Set<String> FILE_OPTIONS = Set.of("workload", "trace");
+
+    private final HttpServer server;
+    private final ExecutorService pool;
+
+    /** Workload used by jobs that bring none. */
+    private final ProcessTable defaultWorkload;
+
+    /**
+     * Creates a server, without starting it.
+     *
+     * @param port            The port to listen on, or 0 for any free port.
+     * @param threads         The number of jobs run at the same time.
+     * @param defaultWorkload The workload of jobs that bring none; it is not modified.
+     * @throws IOException if the port cannot be bound.
+     */
+    public SimulationServer(int port, int threads, ProcessTable defaultWorkload) throws IOException {
+
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+        }
+        this.defaultWorkload = defaultWorkload;
+        this.pool = Executors.newFixedThreadPool(threads);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(pool);
+        server.createContext("/simulate", this::simulate);
+        server.createContext("/health", exchange -> respond(exchange, 200, "text/plain", "ok\n"));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting jobs, lets running jobs finish for up to the given delay, then stops the threads.
+     *
+     * @param delaySeconds The time given to running jobs, in seconds.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        pool.shutdown();
+    }
+
+    /**
+     * Gets the port the server listens on, which is useful when it was created with port 0.
+     *
+     * @return The port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Runs the job of a request and answers with its result.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException if the response cannot be sent.
+     */
+    private void simulate(HttpExchange exchange) throws IOException {
+
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                respond(exchange, 405, "text/plain", "Use POST\n");
+                return;
+            }
+            if (exchange.getRequestHeaders().containsKey("Origin")) {
+                respond(exchange, 403, "text/plain", "Requests from web pages are not accepted\n");
+                return;
+            }
+            String type = mediaType(exchange.getRequestHeaders().getFirst("Content-Type"));
+            boolean isJson = type.equals("application/json");
+            if (!isJson && !type.equals("application/x-www-form-urlencoded") && !type.isEmpty()) {
+                respond(exchange, 415, "text/plain", "Unsupported content type: " + type
+                        + "; use application/json or application/x-www-form-urlencoded\n");
+                return;
+            }
+
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            SimulationJob job;
+            try {
+                Map<String, String> options = parseQuery(exchange.getRequestURI().getRawQuery());
+                for (String name : options.keySet()) {
+                    if (FILE_OPTIONS.contains(name)) {
+                        throw new IllegalArgumentException("The " + name + " option names a file and is not accepted"
+                                + " by the server");
+                    }
+                }
+                Reader body = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8);
+                ProcessTable workload = isJson ? SimulationJob.readJsonWorkload(body) : SimulationJob.readWorkload(body);
+                if (type.isEmpty() && workload.size() > 0) {
+                    respond(exchange, 415, "text/plain", "Missing content type\n");
+                    return;
+                }
+                job = new SimulationJob(options, workload.size() > 0 ? workload : defaultWorkload);
+                job.run(new PrintStream(result, true, StandardCharsets.UTF_8));
+            }
+            catch (IllegalArgumentException | IOException e) {
+                respond(exchange, 400, "text/plain", e.getMessage() + "\n");
+                return;
+            }
+            catch (RuntimeException e) {
+                respond(exchange, 500, "text/plain", e + "\n");
+                return;
+            }
+            respond(exchange, 200, job.getFormat().getContentType(), result.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Splits a query string into named options.
+     *
+     * @param query The raw query of a request, or null.
+     * @return The options, in the order they appear.
+     */
+    static Map<String, String> parseQuery(String query) {
+
+        Map<String, String> options = new LinkedHashMap<>();
+        if (query == null || query.isEmpty()) {
+            return options;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            options.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return options;
+    }
+
+    /**
+     * Gets the media type of a Content-Type header, without its parameters.
+     *
+     * @param contentType The value of the header, or null.
+     * @return The media type in lower case, or an empty string if there is none.
+     */
+    private static String mediaType(String contentType) {
+
+        if (contentType == null) {
+            return "";
+        }
+        int semicolon = contentType.indexOf(';');
+        return (semicolon < 0 ? contentType : contentType.substring(0, semicolon)).strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,863 @@
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Simulates a symmetric multiprocessor: several CPUs, each running the same algorithm on its own
+ * ready queue, with arrivals sent to the least loaded CPU.
+ *
+ * Each CPU is a scheduler of its own, so it keeps the ordering, preemption and aging rules of
+ * the algorithm, and a process that finishes a burst comes back to the CPU it ran on. The CPUs
+ * share the process table and move forward in time together. Two mechanisms keep them busy:
+ * an idle CPU with an empty ready queue steals the head of the longest ready queue, and every
+ * balance interval processes are moved from the longest ready queues to the shortest until they
+ * differ by at most one. A moved process keeps the waiting time it had so far and starts waiting
+ * afresh on its new CPU.
+ *
+ * The Gantt chart is kept per CPU, as one lane per CPU. The report gives the utilization of
+ * every CPU, the number of migrations and the imbalance of the ready queues.
+ *
+ * A large simulation can run its CPUs on several host threads with runAlgorithm(ForkJoinPool).
+ * The CPUs only interact when arrivals are routed, when the queues are balanced and when an
+ * idle CPU steals work, so the run is cut into windows that end before the next such interaction
+ * can happen. Within a window every CPU runs its own events on its own thread; at the end of the
+ * window the CPUs meet at the same simulated time. The result is the same as the sequential run.
+ */
+public class SmpScheduling {
+
+    /**
+     * How arrivals are assigned to the CPUs.
+     */
+    public enum Routing {
+
+        /** To the CPU with the fewest running and ready processes, which needs the CPUs to meet at every arrival. */
+        LEAST_LOADED,
+
+        /** To the CPUs in turn, in order of arrival, which lets the CPUs run apart across arrivals. */
+        ROUND_ROBIN
+    }
+
+    /** Maximum number of arrivals routed ahead of a parallel window. */
+    private static final int WINDOW_ARRIVALS = 1 << 16;
+
+    private final Algorithm algorithm;
+    private final int maximumTime;
+
+    /** Table holding the state of the processes, shared by the CPUs. */
+    private final ProcessTable table;
+
+    /** Source of the processes that have not arrived yet. */
+    private final ProcessSource arrivals;
+
+    /** One scheduler per CPU. */
+    private final Scheduling[] cpus;
+
+    /** Busy time and dispatches of every CPU. */
+    private final MetricsCollector[] cpuMetrics;
+
+    /** Gantt chart of every CPU, buffered until the run ends, or null when the lanes are not printed. */
+    private ByteArrayOutputStream[] lanes;
+
+    /** Number of time units between two balancing passes, or 0 to never balance. */
+    private int balanceInterval = 100;
+
+    /** How arrivals are assigned to the CPUs. */
+    private Routing routing = Routing.LEAST_LOADED;
+
+    /** Number of processes routed so far. */
+    private long routed;
+
+    /** Indicates whether an idle CPU steals work from the others. */
+    private boolean isWorkStealing = true;
+
+    /** Indicates whether the simulation jumps between events instead of stepping every time unit. */
+    private boolean isEventDriven;
+
+    /** Stream the Gantt lanes and the report are printed to. */
+    private PrintStream out = System.out;
+
+    private long migrations;
+    private long steals;
+
+    /** Sum over time of the difference between the longest and the shortest ready queue. */
+    private long imbalanceArea;
+    private int maxImbalance;
+
+    private double averageWaitingTime;
+    private double averageTurnaroundTime;
+    private double fairnessIndex;
+
+    /**
+     * Constructs a simulation of several CPUs running the same algorithm.
+     *
+     * @param algorithm   The algorithm every CPU runs.
+     * @param source      The source of the processes, in order of arrival.
+     * @param cpuCount    The number of CPUs.
+     * @param maximumTime The maximum time for which the simulation runs.
+     * @param quantum     The time slice for Round Robin, or the aging interval for the priority algorithms.
+     */
+    public SmpScheduling(Algorithm algorithm, ProcessSource source, int cpuCount, int maximumTime, int quantum) {
+
+        if (cpuCount <= 0) {
+            throw new IllegalArgumentException("Number of CPUs must be positive: " + cpuCount);
+        }
+        this.algorithm = algorithm;
+        this.maximumTime = maximumTime;
+        this.arrivals = source;
+        this.table = source.createTable();
+
+        cpus = new Scheduling[cpuCount];
+        cpuMetrics = new MetricsCollector[cpuCount];
+        for (int i = 0; i < cpuCount; i++) {
+            cpus[i] = algorithm.create(new RoutedArrivals(table), maximumTime, quantum);
+            cpuMetrics[i] = new MetricsCollector();
+            cpus[i].addListener(cpuMetrics[i]);
+            if (cpus[i] instanceof RealTimeScheduling realTime && i > 0) { //jobs of a migrated task stay counted
+                realTime.shareJobCounts((RealTimeScheduling) cpus[0]);
+            }
+        }
+    }
+
+    /**
+     * Constructs a simulation of several CPUs that works directly on the rows of a process table.
+     *
+     * @param algorithm   The algorithm every CPU runs.
+     * @param table       A table holding one row per process.
+     * @param cpuCount    The number of CPUs.
+     * @param maximumTime The maximum time for which the simulation runs.
+     * @param quantum     The time slice for Round Robin, or the aging interval for the priority algorithms.
+     */
+    public SmpScheduling(Algorithm algorithm, ProcessTable table, int cpuCount, int maximumTime, int quantum) {
+        this(algorithm, new TableSource(table), cpuCount, maximumTime, quantum);
+    }
+
+    /**
+     * Runs all the CPUs up to the maximum time on the calling thread, then prints the Gantt lanes and the report.
+     */
+    public void runAlgorithm() {
+        run(null);
+    }
+
+    /**
+     * Runs all the CPUs up to the maximum time, spreading them over the threads of a pool
+     * between the times at which they interact, then prints the Gantt lanes and the report.
+     * The CPUs jump from event to event, and the results are those of the sequential run.
+     * Listeners added through addListener are called from several threads and must be thread-safe.
+     *
+     * @param pool The pool to run the CPUs in.
+     */
+    public void runAlgorithm(ForkJoinPool pool) {
+        run(pool);
+    }
+
+    /**
+     * Runs all the CPUs up to the maximum time.
+     *
+     * @param pool The pool to run windows of the simulation in, or null to run on the calling thread.
+     */
+    private void run(ForkJoinPool pool) {
+
+        lanes = null;
+        if (out != null) {
+            out.println("Outputs for " + algorithm.getDisplayName() + " on " + cpus.length + " CPUs\n");
+            lanes = new ByteArrayOutputStream[cpus.length];
+        }
+        for (int i = 0; i < cpus.length; i++) {
+            if (lanes != null) {
+                lanes[i] = new ByteArrayOutputStream();
+                cpus[i].setOutput(new PrintStream(lanes[i]));
+            }
+            cpus[i].start(null);
+        }
+
+        routed = 0;
+        if (arrivals.peekArrivalTime() != Integer.MAX_VALUE) { //the first process starts at time 0
+            routed++;
+            cpus[0].admit(table.view(arrivals.next(table)), 0);
+        }
+        handleEvents(0);
+
+        int time = 0;
+        while (time < maximumTime) {
+
+            int next = isEventDriven || pool != null ? nextEventTime(time) : time + 1;
+            next = Math.min(next, maximumTime);
+
+            if (pool != null) {
+                int until = windowEnd(time);
+                if (until > next) { //the CPUs can run apart up to this time
+                    time = runWindow(pool, time, until);
+                    if (time < maximumTime) {
+                        handleEvents(time);
+                    }
+                    continue;
+                }
+            }
+            imbalanceArea += (long) (next - time) * imbalance();
+            time = next;
+            if (time < maximumTime) {
+                handleEvents(time);
+            }
+        }
+
+        for (Scheduling cpu : cpus) {
+            cpu.finish();
+        }
+        calculateAverages();
+        printReport();
+    }
+
+    /**
+     * Sets the number of time units between two balancing passes.
+     *
+     * @param balanceInterval The balance interval, or 0 to never balance the ready queues.
+     */
+    public void setBalanceInterval(int balanceInterval) {
+
+        if (balanceInterval < 0) {
+            throw new IllegalArgumentException("Balance interval must not be negative: " + balanceInterval);
+        }
+        this.balanceInterval = balanceInterval;
+    }
+
+    /**
+     * Sets how arrivals are assigned to the CPUs. Round-robin routing lets a parallel run
+     * keep the CPUs apart across arrivals.
+     *
+     * @param routing The routing of arrivals.
+     */
+    public void setRouting(Routing routing) {
+        this.routing = routing;
+    }
+
+    /**
+     * Selects whether a CPU that runs out of work steals the head of the longest ready queue.
+     *
+     * @param workStealing true to let idle CPUs steal work, false otherwise.
+     */
+    public void setWorkStealing(boolean workStealing) {
+        this.isWorkStealing = workStealing;
+    }
+
+    /**
+     * Selects the event-driven engine instead of the per-tick loop. Both give the same results.
+     *
+     * @param eventDriven true to jump from event to event, false to step every time unit.
+     */
+    public void setEventDriven(boolean eventDriven) {
+        this.isEventDriven = eventDriven;
+        for (Scheduling cpu : cpus) {
+            cpu.setEventDriven(eventDriven);
+        }
+    }
+
+    /**
+     * Sets the stream the Gantt lanes and the report are printed to.
+     *
+     * @param out The output stream, or null to print nothing and keep no Gantt chart.
+     */
+    public void setOutput(PrintStream out) {
+
+        this.out = out;
+        if (out == null) {
+            for (Scheduling cpu : cpus) {
+                cpu.setOutput(new PrintStream(OutputStream.nullOutputStream()));
+                cpu.setGanttSink(NullGanttSink.INSTANCE);
+            }
+        }
+    }
+
+    /**
+     * Adds a listener that receives the events of every CPU. A listener that keeps per-process
+     * state, such as a LatencyCollector, sees a process move between CPUs; one that tracks the
+     * running process, such as a MetricsCollector, should be added to a single CPU through getCpus.
+     *
+     * @param listener The listener to add.
+     */
+    public void addListener(SchedulingListener listener) {
+        for (Scheduling cpu : cpus) {
+            cpu.addListener(listener);
+        }
+    }
+
+    /**
+     * Gets the schedulers of the CPUs. They share the process table, so the results each computes
+     * from it after a run, such as getAverageWaitingTime, getBusyTime and getProcesses, cover all
+     * the processes; getCpuUtilization(int) gives the busy share of a single CPU.
+     *
+     * @return One scheduler per CPU, in CPU order.
+     */
+    public Scheduling[] getCpus() {
+        return cpus.clone();
+    }
+
+    public int getCpuCount() {
+        return cpus.length;
+    }
+
+    /**
+     * Gets the fraction of the run during which a CPU was executing a process.
+     *
+     * @param cpu The index of the CPU.
+     * @return The utilization of the CPU, between 0 and 1.
+     */
+    public double getCpuUtilization(int cpu) {
+        return cpuMetrics[cpu].getCpuUtilization();
+    }
+
+    /**
+     * Gets the utilization of all the CPUs together.
+     *
+     * @return The busy time of all the CPUs over the time they had, between 0 and 1.
+     */
+    public double getCpuUtilization() {
+        return maximumTime == 0 ? 0 : (double) getBusyTime() / ((long) maximumTime * cpus.length);
+    }
+
+    /**
+     * Gets the total time the CPUs spent executing processes.
+     *
+     * @return The sum of the busy times of the CPUs.
+     */
+    public long getBusyTime() {
+
+        long busy = 0;
+        for (MetricsCollector metrics : cpuMetrics) {
+            busy += metrics.getBusyTime();
+        }
+        return busy;
+    }
+
+    /**
+     * Gets the number of processes moved from one CPU to another, by stealing or balancing.
+     *
+     * @return The number of migrations.
+     */
+    public long getMigrations() {
+        return migrations;
+    }
+
+    /**
+     * Gets the number of processes stolen by an idle CPU.
+     *
+     * @return The number of steals.
+     */
+    public long getSteals() {
+        return steals;
+    }
+
+    /**
+     * Gets the difference between the longest and the shortest ready queue, averaged over time.
+     *
+     * @return The average queue imbalance.
+     */
+    public double getAverageImbalance() {
+        return maximumTime == 0 ? 0 : (double) imbalanceArea / maximumTime;
+    }
+
+    public int getMaxImbalance() {
+        return maxImbalance;
+    }
+
+    public double getAverageWaitingTime() {
+        return averageWaitingTime;
+    }
+
+    public double getAverageTurnaroundTime() {
+        return averageTurnaroundTime;
+    }
+
+    public double getFairnessIndex() {
+        return fairnessIndex;
+    }
+
+    public int getMaximumTime() {
+        return maximumTime;
+    }
+
+    /**
+     * Applies everything that happens at the given time: arrivals are routed to the CPUs,
+     * every CPU handles its own events, then idle CPUs steal work and the ready queues are
+     * balanced if the balance interval is reached.
+     *
+     * @param time The current time.
+     */
+    private void handleEvents(int time) {
+
+        while (arrivals.peekArrivalTime() <= time) {
+            PCB process = table.view(arrivals.next(table));
+            cpus[route()].admit(process, time);
+        }
+
+        for (Scheduling cpu : cpus) {
+            cpu.step(time);
+        }
+
+        if (isWorkStealing) {
+            stealWork(time);
+        }
+        if (balanceInterval > 0 && time > 0 && time % balanceInterval == 0) {
+            balance(time);
+        }
+        maxImbalance = Math.max(maxImbalance, imbalance());
+    }
+
+    /**
+     * Finds the earliest time after the given one at which any CPU can change, a process
+     * arrives or the ready queues are balanced.
+     *
+     * @param time The current time.
+     * @return The time of the next event.
+     */
+    private int nextEventTime(int time) {
+
+        int next = arrivals.peekArrivalTime();
+        for (Scheduling cpu : cpus) {
+            next = Math.min(next, cpu.nextEventTime(time));
+        }
+        if (balanceInterval > 0) {
+            next = (int) Math.min(next, ((long) time / balanceInterval + 1) * balanceInterval);
+        }
+        return next;
+    }
+
+    /**
+     * Finds the latest time up to which the CPUs cannot interact: no arrival is routed by load,
+     * no balancing pass happens and no CPU can run out of work and steal.
+     *
+     * @param time The current time.
+     * @return The end of the window, at most the maximum time.
+     */
+    private int windowEnd(int time) {
+
+        long end = maximumTime;
+        if (routing == Routing.LEAST_LOADED) {
+            end = Math.min(end, arrivals.peekArrivalTime());
+        }
+        if (balanceInterval > 0) {
+            end = Math.min(end, ((long) time / balanceInterval + 1) * balanceInterval);
+        }
+        if (isWorkStealing) {
+            for (Scheduling cpu : cpus) {
+                end = Math.min(end, time + cpu.pendingWork(end - time));
+            }
+        }
+        return (int) end;
+    }
+
+    /**
+     * Runs every CPU on its own up to, but not including, the end of a window, with the arrivals
+     * of the window routed ahead of time, then accounts the queue imbalance over the window.
+     *
+     * @param pool  The pool to run the CPUs in.
+     * @param from  The current time.
+     * @param until The end of the window.
+     * @return The time the window actually ended at, earlier than until if too many processes arrive in it.
+     */
+    private int runWindow(ForkJoinPool pool, int from, int until) {
+
+        CpuWindow[] windows = new CpuWindow[cpus.length];
+        for (int i = 0; i < cpus.length; i++) {
+            windows[i] = new CpuWindow(cpus[i]);
+        }
+
+        int arrivalsRouted = 0;
+        int lastArrival = from;
+        while (arrivals.peekArrivalTime() < until) {
+
+            int time = arrivals.peekArrivalTime();
+            if (arrivalsRouted >= WINDOW_ARRIVALS && time != lastArrival) { //cut between two arrival times
+                until = time;
+                break;
+            }
+            windows[route()].addArrival(arrivals.next(table), time);
+            arrivalsRouted++;
+            lastArrival = time;
+        }
+
+        if (cpus[0] instanceof RealTimeScheduling realTime) { //the CPUs share the counts, sized before they run apart
+            realTime.reserveJobCounts(table.size());
+        }
+        pool.invoke(new WindowTask(windows, 0, windows.length, from, until));
+        accountImbalance(windows, from, until);
+        return until;
+    }
+
+    /**
+     * Adds the queue imbalance over a window to the totals, merging the changes of the
+     * ready queue lengths of all the CPUs in order of time.
+     *
+     * @param windows The windows the CPUs ran.
+     * @param from    The time the window started at.
+     * @param until   The time the window ended at.
+     */
+    private void accountImbalance(CpuWindow[] windows, int from, int until) {
+
+        QueueLengths lengths = new QueueLengths(windows);
+        int[] cursors = new int[windows.length]; //next change of every CPU, each CPU has at most one per time
+        int time = from;
+        while (true) {
+
+            int next = until;
+            for (int i = 0; i < windows.length; i++) {
+                if (cursors[i] < windows[i].changes) {
+                    next = Math.min(next, windows[i].changeTimes[cursors[i]]);
+                }
+            }
+            imbalanceArea += (long) (next - time) * lengths.imbalance();
+            time = next;
+            if (time == until) {
+                return;
+            }
+            for (int i = 0; i < windows.length; i++) {
+                if (cursors[i] < windows[i].changes && windows[i].changeTimes[cursors[i]] == time) {
+                    lengths.set(i, windows[i].changeLengths[cursors[i]++]);
+                }
+            }
+            maxImbalance = Math.max(maxImbalance, lengths.imbalance());
+        }
+    }
+
+    /**
+     * Lets every CPU that has nothing to run take the head of the longest ready queue.
+     *
+     * @param time The current time.
+     */
+    private void stealWork(int time) {
+
+        for (Scheduling thief : cpus) {
+            if (thief.getRunningProcess() == null && thief.getReadyCount() == 0) {
+
+                Scheduling victim = longestQueue();
+                if (victim.getReadyCount() == 0) {
+                    return; //no CPU has work waiting
+                }
+                thief.receive(victim.migrate(time), time);
+                steals++;
+                migrations++;
+            }
+        }
+    }
+
+    /**
+     * Moves processes from the longest ready queues to the shortest until their lengths differ by at most one.
+     *
+     * @param time The current time.
+     */
+    private void balance(int time) {
+
+        while (true) {
+            Scheduling longest = longestQueue();
+            Scheduling shortest = cpus[0];
+            for (Scheduling cpu : cpus) {
+                if (cpu.getReadyCount() < shortest.getReadyCount()) {
+                    shortest = cpu;
+                }
+            }
+            if (longest.getReadyCount() - shortest.getReadyCount() <= 1) {
+                return;
+            }
+            shortest.receive(longest.migrate(time), time);
+            migrations++;
+        }
+    }
+
+    /**
+     * Chooses the CPU the next arrival goes to.
+     *
+     * @return The index of the CPU.
+     */
+    private int route() {
+
+        long index = routed++;
+        return routing == Routing.ROUND_ROBIN ? (int) (index % cpus.length) : leastLoaded();
+    }
+
+    /**
+     * Finds the CPU with the fewest processes, running or ready, preferring the lowest index.
+     *
+     * @return The index of the least loaded CPU.
+     */
+    private int leastLoaded() {
+
+        int best = 0;
+        int bestLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < cpus.length; i++) {
+            int load = cpus[i].getReadyCount() + (cpus[i].getRunningProcess() != null ? 1 : 0);
+            if (load < bestLoad) {
+                best = i;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    private Scheduling longestQueue() {
+
+        Scheduling longest = cpus[0];
+        for (Scheduling cpu : cpus) {
+            if (cpu.getReadyCount() > longest.getReadyCount()) {
+                longest = cpu;
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * Gets the difference between the longest and the shortest ready queue.
+     *
+     * @return The current queue imbalance.
+     */
+    private int imbalance() {
+
+        int longest = 0;
+        int shortest = Integer.MAX_VALUE;
+        for (Scheduling cpu : cpus) {
+            longest = Math.max(longest, cpu.getReadyCount());
+            shortest = Math.min(shortest, cpu.getReadyCount());
+        }
+        return longest - shortest;
+    }
+
+    /**
+     * Computes the results of every CPU, which are those of the processes that executed on any
+     * CPU since the CPUs share the table, and takes the averages from them.
+     */
+    private void calculateAverages() {
+
+        for (Scheduling cpu : cpus) {
+            cpu.calculateAverages();
+        }
+        averageWaitingTime = cpus[0].getAverageWaitingTime();
+        averageTurnaroundTime = cpus[0].getAverageTurnaroundTime();
+        fairnessIndex = cpus[0].getFairnessIndex();
+    }
+
+    private void printReport() {
+
+        if (out == null) {
+            return;
+        }
+        for (int i = 0; i < cpus.length; i++) {
+            out.println("\u001B[31m\u001B[1mCPU " + i + "\u001B[0m");
+            out.print(lanes[i]);
+        }
+        out.println("\u001B[31m\u001B[1mCPU utilization\u001B[0m : ");
+        for (int i = 0; i < cpus.length; i++) {
+            out.printf("CPU %-4d %6.1f%%%s", i, 100 * getCpuUtilization(i), (i + 1) % 5 == 0 ? "\n" : "\t");
+        }
+        out.printf("%n\u001B[31m\u001B[1mTotal CPU utilization\u001B[0m : \u001B[1m%.1f%%\u001B[0m%n", 100 * getCpuUtilization());
+        out.println("\u001B[31m\u001B[1mMigrations\u001B[0m : \u001B[1m" + migrations + " (" + steals + " stolen)\u001B[0m");
+        out.printf("\u001B[31m\u001B[1mQueue imbalance\u001B[0m : \u001B[1maverage %.2f, max %d\u001B[0m%n",
+                getAverageImbalance(), maxImbalance);
+        out.println("\u001B[31m\u001B[1mAverage waiting time\u001B[0m : \u001B[1m" + averageWaitingTime);
+        out.println("\u001B[31m\u001B[1mAverage turnaround time\u001B[0m : \u001B[1m" + averageTurnaroundTime);
+        out.println("\u001B[31m\u001B[1mFairness index\u001B[0m : \u001B[1m" + fairnessIndex + "\n\u001B[0m");
+    }
+
+    /**
+     * The part of a parallel window run by one CPU: the arrivals routed to it ahead of time,
+     * and the length of its ready queue after each of its events.
+     */
+    private final class CpuWindow {
+
+        private final Scheduling cpu;
+
+        /** Ready queue length at the start of the window. */
+        private final int startLength;
+
+        private int[] arrivalRows = new int[0];
+        private int[] arrivalTimes = new int[0];
+        private int arrivalCount;
+
+        private int[] changeTimes = new int[16];
+        private int[] changeLengths = new int[16];
+        private int changes;
+
+        CpuWindow(Scheduling cpu) {
+            this.cpu = cpu;
+            this.startLength = cpu.getReadyCount();
+        }
+
+        void addArrival(int row, int time) {
+
+            if (arrivalCount == arrivalRows.length) {
+                arrivalRows = Arrays.copyOf(arrivalRows, Math.max(arrivalCount * 2, 16));
+                arrivalTimes = Arrays.copyOf(arrivalTimes, arrivalRows.length);
+            }
+            arrivalRows[arrivalCount] = row;
+            arrivalTimes[arrivalCount++] = time;
+        }
+
+        /**
+         * Runs the events of the CPU from the start of the window up to, but not including, its end.
+         *
+         * @param from  The time the window starts at.
+         * @param until The time the window ends at.
+         */
+        void run(int from, int until) {
+
+            int time = from;
+            int arrival = 0;
+            while (true) {
+
+                int next = cpu.nextEventTime(time);
+                if (arrival < arrivalCount) {
+                    next = Math.min(next, arrivalTimes[arrival]);
+                }
+                if (next >= until) {
+                    return;
+                }
+                while (arrival < arrivalCount && arrivalTimes[arrival] == next) {
+                    cpu.admit(table.view(arrivalRows[arrival++]), next);
+                }
+                cpu.step(next);
+                time = next;
+
+                if (changes == changeTimes.length) {
+                    changeTimes = Arrays.copyOf(changeTimes, changes * 2);
+                    changeLengths = Arrays.copyOf(changeLengths, changes * 2);
+                }
+                changeTimes[changes] = time;
+                changeLengths[changes++] = cpu.getReadyCount();
+            }
+        }
+    }
+
+    /**
+     * Splits the CPUs of a window in halves until a single CPU is left.
+     */
+    private static final class WindowTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CpuWindow[] windows;
+        private final int fromCpu;
+        private final int toCpu;
+        private final int from;
+        private final int until;
+
+        WindowTask(CpuWindow[] windows, int fromCpu, int toCpu, int from, int until) {
+            this.windows = windows;
+            this.fromCpu = fromCpu;
+            this.toCpu = toCpu;
+            this.from = from;
+            this.until = until;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (toCpu - fromCpu == 1) {
+                windows[fromCpu].run(from, until);
+                return;
+            }
+            int middle = (fromCpu + toCpu) >>> 1;
+            invokeAll(new WindowTask(windows, fromCpu, middle, from, until),
+                    new WindowTask(windows, middle, toCpu, from, until));
+        }
+    }
+
+    /**
+     * Lengths of the ready queues of all the CPUs, with the longest and the shortest kept up to
+     * date as single lengths change. Lengths are counted per value, so both bounds move by at most
+     * the size of the change.
+     */
+    private static final class QueueLengths {
+
+        private final int[] lengths;
+
+        /** Number of CPUs with each queue length. */
+        private int[] cpusWithLength;
+
+        private int longest;
+        private int shortest;
+
+        QueueLengths(CpuWindow[] windows) {
+
+            lengths = new int[windows.length];
+            cpusWithLength = new int[16];
+            shortest = Integer.MAX_VALUE;
+            for (int i = 0; i < windows.length; i++) {
+                lengths[i] = windows[i].startLength;
+                count(lengths[i], 1);
+                longest = Math.max(longest, lengths[i]);
+                shortest = Math.min(shortest, lengths[i]);
+            }
+        }
+
+        void set(int cpu, int length) {
+
+            count(lengths[cpu], -1);
+            count(length, 1);
+            lengths[cpu] = length;
+            longest = Math.max(longest, length);
+            shortest = Math.min(shortest, length);
+            while (cpusWithLength[longest] == 0) {
+                longest--;
+            }
+            while (cpusWithLength[shortest] == 0) {
+                shortest++;
+            }
+        }
+
+        int imbalance() {
+            return longest - shortest;
+        }
+
+        private void count(int length, int delta) {
+
+            if (length >= cpusWithLength.length) {
+                cpusWithLength = Arrays.copyOf(cpusWithLength, Math.max(cpusWithLength.length * 2, length + 1));
+            }
+            cpusWithLength[length] += delta;
+        }
+    }
+
+    /**
+     * Source of a CPU, which never reads arrivals itself: they are routed to it with admit, as
+     * rows of the table of the simulation, which it gives the CPU as its own.
+     */
+    private static final class RoutedArrivals implements ProcessSource {
+
+        private final ProcessTable table;
+
+        RoutedArrivals(ProcessTable table) {
+            this.table = table;
+        }
+
+        @Override
+        public int peekArrivalTime() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public int next(ProcessTable table) {
+            throw new NoSuchElementException();
+        }
+
+        /**
+         * Gives the CPU the table of the simulation, so it sees the rows of the processes routed to it.
+         *
+         * @return The shared table.
+         */
+        @Override
+        public ProcessTable createTable() {
+            return table;
+        }
+
+        /**
+         * Keeps the rows, since the processes of a CPU are rows of the table of the simulation.
+         *
+         * @return false.
+         */
+        @Override
+        public boolean isRecyclable() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Running mean and variance of a sample, with the 95% confidence interval of the mean.
+ * Values are added one at a time with Welford's method, so the sample is never stored.
+ */
+public class Statistic {
+
+    /** Two-sided 95% quantiles of Student's t distribution for 1 to 30 degrees of freedom. */
+    private static final double[] T_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042};
+
+    private long count;
+    private double mean;
+
+    /** Sum of the squared differences from the mean. */
+    private double squares;
+
+    /**
+     * Adds a value to the sample.
+     *
+     * @param value The value to add.
+     */
+    public void add(double value) {
+
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        squares += delta * (value - mean);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Gets the sample standard deviation.
+     *
+     * @return The standard deviation, or 0 with fewer than two values.
+     */
+    public double getStandardDeviation() {
+        return count < 2 ? 0 : Math.sqrt(squares / (count - 1));
+    }
+
+    /**
+     * Gets the half-width of the 95% confidence interval of the mean, from Student's t distribution.
+     *
+     * @return The half-width, or infinity with fewer than two values.
+     */
+    public double getHalfWidth() {
+
+        if (count < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return tQuantile(count - 1) * getStandardDeviation() / Math.sqrt(count);
+    }
+
+    /**
+     * Gets the 95% quantile of Student's t distribution, from the table up to 30 degrees of freedom
+     * and from the Cornish-Fisher expansion around the normal quantile above.
+     *
+     * @param degrees The degrees of freedom.
+     * @return The quantile.
+     */
+    private static double tQuantile(long degrees) {
+
+        if (degrees <= T_95.length) {
+            return T_95[(int) degrees - 1];
+        }
+        double z = 1.959964;
+        double z3 = z * z * z;
+        return z + (z3 + z) / (4.0 * degrees) + (5 * z3 * z * z + 16 * z3 + 3 * z) / (96.0 * degrees * degrees);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.2f +- %.2f", mean, count < 2 ? 0 : getHalfWidth());
+    }
+}
@@ -0,0 +1,86 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Supplies the rows of an in-memory process table in order of arrival. The first row comes first,
+ * then the other rows sorted by arrival time, keeping row order for processes that arrive at the
+ * same time. Admitting a process into its own table is free, since the row is already there.
+ */
+public class TableSource implements ProcessSource {
+
+    /** Table whose rows are supplied. */
+    private final ProcessTable table;
+
+    /** The rows of the table in the order they are supplied. */
+    private final int[] order;
+
+    /** Position in order of the next row to supply. */
+    private int cursor;
+
+    /**
+     * Constructs a source over the rows the table holds now.
+     *
+     * @param table A table holding one row per process.
+     */
+    public TableSource(ProcessTable table) {
+        this.table = table;
+        this.order = sortByArrival(table);
+    }
+
+    /**
+     * Sorts the rows after the first one by arrival time, keeping row order for processes that
+     * arrive at the same time.
+     *
+     * @param table A table holding one row per process.
+     * @return The first row followed by the other rows in order of arrival.
+     */
+    private static int[] sortByArrival(ProcessTable table) {
+
+        long[] keys = new long[Math.max(table.size() - 1, 0)];
+        for (int i = 1; i < table.size(); i++) {
+            keys[i - 1] = ((long) table.arrivalTime[i] << 32) | i; //arrival in the high bits, row breaks ties
+        }
+        Arrays.sort(keys);
+
+        int[] order = new int[table.size()];
+        for (int i = 0; i < keys.length; i++) {
+            order[i + 1] = (int) keys[i];
+        }
+        return order;
+    }
+
+    @Override
+    public int peekArrivalTime() {
+        return cursor == order.length ? Integer.MAX_VALUE : table.arrivalTime[order[cursor]];
+    }
+
+    @Override
+    public int next(ProcessTable target) {
+
+        if (cursor == order.length) {
+            throw new NoSuchElementException();
+        }
+        int row = order[cursor++];
+        return target == table ? row : target.addCopy(table, row);
+    }
+
+    /**
+     * Gets the table whose rows are supplied, so the scheduler works on it in place.
+     *
+     * @return The table of this source.
+     */
+    @Override
+    public ProcessTable createTable() {
+        return table;
+    }
+
+    /**
+     * Keeps every row, since the table belongs to the caller, who reads the results from it.
+     *
+     * @return false.
+     */
+    @Override
+    public boolean isRecyclable() {
+        return false;
+    }
+}
@@ -0,0 +1,354 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Listener that streams the schedule of a run as a trace in the Chrome Trace Event format, in its
+ * JSON array form, which the Perfetto UI and chrome://tracing open.
+ *
+ * The trace has two groups of tracks. "Processes" holds one track per process, named after its
+ * pid, with a span for every time it spent in the ready queue, on a CPU and in the waiting queue.
+ * "CPUs" holds one track per CPU with a span for every process it ran. A time unit of the
+ * simulation is one microsecond of the trace.
+ *
+ * A span is written once it ends, formatted straight into a fixed buffer that is written to the
+ * channel whenever it fills, so the trace of a long run is never held in memory; the exporter
+ * itself only keeps a few values per process. Spans still open when the run ends are closed at the
+ * maximum time. The trace is complete once close() has been called.
+ *
+ * To trace several CPUs, add the listener returned by forCpu to each of them. The exporter can be
+ * called from several threads at once.
+ */
+public class TraceExporter implements SchedulingListener, Closeable {
+
+    /** Trace pid of the group of process tracks. */
+    private static final int PROCESS_GROUP = 1;
+
+    /** Trace pid of the group of CPU tracks. */
+    private static final int CPU_GROUP = 2;
+
+    /** Space kept free in the buffer for one event, so an event never has to be split. */
+    private static final int EVENT_CAPACITY = 256;
+
+    private static final byte NONE = 0;
+    private static final byte READY = 1;
+    private static final byte RUNNING = 2;
+    private static final byte WAITING = 3;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    /** State of each process, indexed by row. */
+    private byte[] states = new byte[16];
+
+    /** Time at which each process entered its state, indexed by row. */
+    private int[] since = new int[16];
+
+    /** CPU each process was last seen on, indexed by row. */
+    private int[] cpus = new int[16];
+
+    /** Pid of each process, indexed by row. */
+    private int[] pids = new int[16];
+
+    /** Track of each process, indexed by row; a row reused by a later process gets a new track. */
+    private int[] tracks = new int[16];
+
+    /** Number of process tracks so far. */
+    private int trackCount;
+
+    /** Whether the track of each CPU has been named. */
+    private boolean[] namedCpus = new boolean[1];
+
+    /** Whether an event has been written, so the next one needs a separator. */
+    private boolean started;
+
+    private boolean closed;
+
+    /**
+     * Constructs an exporter writing to a new file.
+     *
+     * @param path The file to create or replace.
+     * @throws IOException if the file cannot be opened.
+     */
+    public TraceExporter(Path path) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Constructs an exporter writing to a channel, which close() closes.
+     *
+     * @param channel The channel to write the trace to.
+     */
+    public TraceExporter(WritableByteChannel channel) {
+
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(1 << 16);
+        Arrays.fill(cpus, -1);
+        put("[");
+        nameTrack("process_name", PROCESS_GROUP, 0);
+        put("\"Processes\"}}");
+        nameTrack("process_name", CPU_GROUP, 0);
+        put("\"CPUs\"}}");
+    }
+
+    /**
+     * Gets a listener that reports the events of one CPU to this exporter.
+     *
+     * @param cpu The index of the CPU, from 0.
+     * @return A listener to add to the scheduler of that CPU.
+     */
+    public SchedulingListener forCpu(int cpu) {
+
+        if (cpu < 0) {
+            throw new IllegalArgumentException("Invalid CPU: " + cpu);
+        }
+        return new SchedulingListener() {
+
+            @Override
+            public void onArrive(PCB process, int time) {
+                arrive(process, cpu, time);
+            }
+
+            @Override
+            public void onDispatch(PCB process, int time) {
+                enter(process, RUNNING, cpu, time);
+            }
+
+            @Override
+            public void onPreempt(PCB process, int time) {
+                enter(process, READY, cpu, time);
+            }
+
+            @Override
+            public void onComplete(PCB process, int time) {
+                enter(process, WAITING, cpu, time);
+            }
+
+            @Override
+            public void onComeback(PCB process, int time) {
+                enter(process, READY, cpu, time);
+            }
+
+            @Override
+            public void onFinish(int time) {
+                finish(cpu, time);
+            }
+        };
+    }
+
+    @Override
+    public void onArrive(PCB process, int time) {
+        arrive(process, 0, time);
+    }
+
+    @Override
+    public void onDispatch(PCB process, int time) {
+        enter(process, RUNNING, 0, time);
+    }
+
+    @Override
+    public void onPreempt(PCB process, int time) {
+        enter(process, READY, 0, time);
+    }
+
+    @Override
+    public void onComplete(PCB process, int time) {
+        enter(process, WAITING, 0, time);
+    }
+
+    @Override
+    public void onComeback(PCB process, int time) {
+        enter(process, READY, 0, time);
+    }
+
+    @Override
+    public void onFinish(int time) {
+        finish(0, time);
+    }
+
+    /**
+     * Writes what is left of the trace and closes the channel.
+     *
+     * @throws IOException if the trace cannot be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            put("\n]\n");
+            flush();
+        }
+        catch (UncheckedIOException e) {
+            channel.close();
+            throw e.getCause();
+        }
+        channel.close();
+    }
+
+    /**
+     * Starts the track of a process that arrived. If its row held a process that left for good,
+     * the span of that one ends here.
+     */
+    private synchronized void arrive(PCB process, int cpu, int time) {
+
+        int row = process.getRow();
+        if (row < states.length && states[row] != NONE) {
+            endSpan(row, time);
+            states[row] = NONE;
+        }
+        enter(process, READY, cpu, time);
+    }
+
+    /**
+     * Ends the span of the current state of a process and starts the next one.
+     */
+    private synchronized void enter(PCB process, byte state, int cpu, int time) {
+
+        int row = process.getRow();
+        if (row >= states.length) {
+            int capacity = Math.max(states.length * 2, row + 1);
+            states = Arrays.copyOf(states, capacity);
+            since = Arrays.copyOf(since, capacity);
+            pids = Arrays.copyOf(pids, capacity);
+            tracks = Arrays.copyOf(tracks, capacity);
+            int old = cpus.length;
+            cpus = Arrays.copyOf(cpus, capacity);
+            Arrays.fill(cpus, old, capacity, -1);
+        }
+        if (states[row] == NONE) {
+            pids[row] = process.getPid();
+            tracks[row] = trackCount++;
+            nameTrack("thread_name", PROCESS_GROUP, tracks[row]);
+            put("\"P").put(pids[row]).put("\"}}");
+        }
+        endSpan(row, time);
+        states[row] = state;
+        since[row] = time;
+        cpus[row] = cpu;
+    }
+
+    /**
+     * Closes the spans of the processes last seen on a CPU at the end of the run.
+     */
+    private synchronized void finish(int cpu, int time) {
+
+        for (int row = 0; row < states.length; row++) {
+            if (states[row] != NONE && cpus[row] == cpu) {
+                endSpan(row, time);
+                states[row] = NONE;
+            }
+        }
+    }
+
+    /**
+     * Writes the span of the current state of a process, ending at the given time, and its span
+     * on the track of the CPU if it was running. Empty spans are left out.
+     */
+    private void endSpan(int row, int time) {
+
+        byte state = states[row];
+        int start = since[row];
+        if (state == NONE || time <= start) {
+            return;
+        }
+        String name = state == READY ? "Ready" : state == RUNNING ? "Running" : "Waiting";
+        span(PROCESS_GROUP, tracks[row], name, start, time);
+        if (state == RUNNING) {
+            int cpu = cpus[row];
+            if (cpu >= namedCpus.length) {
+                namedCpus = Arrays.copyOf(namedCpus, cpu + 1);
+            }
+            if (!namedCpus[cpu]) {
+                namedCpus[cpu] = true;
+                nameTrack("thread_name", CPU_GROUP, cpu);
+                put("\"CPU ").put(cpu).put("\"}}");
+            }
+            separate();
+            put("{\"name\":\"P").put(pids[row]);
+            put("\",\"ph\":\"X\",\"pid\":").put(CPU_GROUP).put(",\"tid\":").put(cpu);
+            put(",\"ts\":").put(start).put(",\"dur\":").put((long) time - start).put("}");
+        }
+    }
+
+    private void span(int group, int track, String name, int start, int end) {
+
+        separate();
+        put("{\"name\":\"").put(name).put("\",\"ph\":\"X\",\"pid\":").put(group).put(",\"tid\":").put(track);
+        put(",\"ts\":").put(start).put(",\"dur\":").put((long) end - start).put("}");
+    }
+
+    /**
+     * Starts a metadata event naming a track, to be completed with the quoted name and "}}".
+     */
+    private void nameTrack(String kind, int group, int track) {
+
+        separate();
+        put("{\"name\":\"").put(kind).put("\",\"ph\":\"M\",\"pid\":").put(group).put(",\"tid\":").put(track);
+        put(",\"args\":{\"name\":");
+    }
+
+    private void separate() {
+
+        if (buffer.remaining() < EVENT_CAPACITY) {
+            flush();
+        }
+        if (started) {
+            put(",\n");
+        }
+        else {
+            put("\n");
+            started = true;
+        }
+    }
+
+    private TraceExporter put(String text) {
+
+        for (int i = 0; i < text.length(); i++) {
+            buffer.put((byte) text.charAt(i));
+        }
+        return this;
+    }
+
+    private TraceExporter put(long value) {
+
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + value / divisor % 10));
+        }
+        return this;
+    }
+
+    private void flush() {
+
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Cannot write trace", e);
+        }
+        finally {
+            buffer.clear();
+        }
+    }
+}
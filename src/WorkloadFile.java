@@ -0,0 +1,263 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary process trace read through a memory-mapped file, supplying its processes to a scheduler
+ * as they arrive instead of loading the whole workload up front.
+ *
+ * The file starts with a header holding a magic number, the format version and the number of
+ * records. Every record then takes RECORD_SIZE bytes: pid, arrival time, burst time, comeback
+ * time, priority, period and relative deadline, each a big-endian int. Traces of version 1, whose
+ * records of RECORD_SIZE_V1 bytes end with the priority, are still read, with neither period nor
+ * deadline. The first record is the process that starts at time 0; the records after it are
+ * sorted by arrival time. Only a window of the file is mapped at a time, and a scheduler reading
+ * it reuses the rows of the processes that left for good unless it lists their waiting times or
+ * writes checkpoints, so traces larger than the heap, or than a single mapping, can be replayed.
+ */
+public class WorkloadFile implements ProcessSource, Closeable {
+
+    /** Magic number at the start of every trace, "PCBT" in ASCII. */
+    public static final int MAGIC = 0x50434254;
+
+    /** Version of the format written by this class. */
+    public static final int VERSION = 2;
+
+    /** Size of the header in bytes. */
+    public static final int HEADER_SIZE = 16;
+
+    /** Size of a record in bytes. */
+    public static final int RECORD_SIZE = 28;
+
+    /** Size of a record of version 1 in bytes. */
+    public static final int RECORD_SIZE_V1 = 20;
+
+    /** Number of records mapped at a time. */
+    private static final int WINDOW_RECORDS = 1 << 22;
+
+    private final FileChannel channel;
+
+    /** Number of records in the file. */
+    private final long recordCount;
+
+    /** Size of the records of the file, which depends on its version. */
+    private final int recordSize;
+
+    /** Mapped part of the file. */
+    private MappedByteBuffer window;
+
+    /** Index of the first record in the window. */
+    private long windowStart;
+
+    /** Index of the record after the last one in the window. */
+    private long windowEnd;
+
+    /** Index of the next record to supply. */
+    private long nextRecord;
+
+    /** Arrival time of the last record supplied after the first one, to check the order. */
+    private int lastArrival = Integer.MIN_VALUE;
+
+    /**
+     * Opens a trace for reading.
+     *
+     * @param path The trace file.
+     * @throws IOException if the file cannot be read or is not a valid trace.
+     */
+    public WorkloadFile(Path path) throws IOException {
+
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                //keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IOException("Not a process trace: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION && version != 1) {
+                throw new IOException("Unsupported trace version " + version + ": " + path);
+            }
+            recordSize = version == 1 ? RECORD_SIZE_V1 : RECORD_SIZE;
+            recordCount = header.getLong();
+            if (recordCount < 0 || channel.size() < HEADER_SIZE + recordCount * recordSize) {
+                throw new IOException("Truncated process trace: " + path);
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the rows of a table as a trace, keeping the first row first and sorting the others
+     * by arrival time, so replaying the trace schedules the same processes as the table.
+     *
+     * @param path  The trace file to create or replace.
+     * @param table A table holding one row per process.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(Path path, ProcessTable table) throws IOException {
+        write(path, new TableSource(table));
+    }
+
+    /**
+     * Writes every process of a source as a trace, streaming through a fixed buffer.
+     *
+     * @param path   The trace file to create or replace.
+     * @param source The source of the processes, in order of arrival.
+     * @return The number of records written.
+     * @throws IOException if the file cannot be written.
+     */
+    public static long write(Path path, ProcessSource source) throws IOException {
+
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 4096);
+            ProcessTable scratch = new ProcessTable(1);
+            long count = 0;
+
+            buffer.position(HEADER_SIZE); //the header is written once the number of records is known
+            while (source.peekArrivalTime() != Integer.MAX_VALUE) {
+
+                scratch.clear();
+                int row = source.next(scratch);
+                if (buffer.remaining() < RECORD_SIZE) {
+                    buffer.flip();
+                    writeFully(out, buffer);
+                    buffer.clear();
+                }
+                buffer.putInt(scratch.pid[row])
+                        .putInt(scratch.arrivalTime[row])
+                        .putInt(scratch.burstTime[row])
+                        .putInt(scratch.comeBack[row])
+                        .putInt(scratch.initialPriority[row])
+                        .putInt(scratch.period[row])
+                        .putInt(scratch.deadline[row]);
+                count++;
+            }
+            buffer.flip();
+            if (count == 0) {
+                buffer.limit(HEADER_SIZE);
+            }
+            writeFully(out, buffer);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putLong(count);
+            header.flip();
+            out.position(0);
+            writeFully(out, header);
+            return count;
+        }
+    }
+
+    /**
+     * Reads a whole trace into a new table.
+     *
+     * @param path The trace file.
+     * @return A table holding one row per record, in file order.
+     * @throws IOException if the file cannot be read or is not a valid trace.
+     */
+    public static ProcessTable readTable(Path path) throws IOException {
+
+        try (WorkloadFile file = new WorkloadFile(path)) {
+            ProcessTable table = new ProcessTable((int) Math.min(file.recordCount, Integer.MAX_VALUE - 8));
+            while (file.peekArrivalTime() != Integer.MAX_VALUE) {
+                file.next(table);
+            }
+            return table;
+        }
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public int peekArrivalTime() {
+
+        if (nextRecord == recordCount) {
+            return Integer.MAX_VALUE;
+        }
+        return record(nextRecord).getInt(offset(nextRecord) + 4);
+    }
+
+    /**
+     * Consumes the next record and appends it to the given table.
+     *
+     * @param table The table the process is admitted into.
+     * @return The row of the process in the table.
+     * @throws IllegalStateException if the records after the first are not sorted by arrival time.
+     */
+    @Override
+    public int next(ProcessTable table) {
+
+        if (nextRecord == recordCount) {
+            throw new NoSuchElementException();
+        }
+        ByteBuffer buffer = record(nextRecord);
+        int offset = offset(nextRecord);
+        int arrival = buffer.getInt(offset + 4);
+
+        if (nextRecord > 0) {
+            if (arrival < lastArrival) {
+                throw new IllegalStateException("Trace is not sorted by arrival time at record " + nextRecord);
+            }
+            lastArrival = arrival;
+        }
+        nextRecord++;
+        if (recordSize == RECORD_SIZE_V1) {
+            return table.add(buffer.getInt(offset), arrival, buffer.getInt(offset + 8),
+                    buffer.getInt(offset + 12), buffer.getInt(offset + 16));
+        }
+        return table.add(buffer.getInt(offset), arrival, buffer.getInt(offset + 8), buffer.getInt(offset + 12),
+                buffer.getInt(offset + 16), buffer.getInt(offset + 20), buffer.getInt(offset + 24));
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    /**
+     * Gets the mapped window holding a record, mapping the next part of the file if needed.
+     *
+     * @param record The index of the record.
+     * @return The window holding the record.
+     */
+    private MappedByteBuffer record(long record) {
+
+        if (window == null || record < windowStart || record >= windowEnd) {
+            windowStart = record;
+            windowEnd = Math.min(recordCount, record + WINDOW_RECORDS);
+            try {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + windowStart * recordSize,
+                        (windowEnd - windowStart) * recordSize);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return window;
+    }
+
+    private int offset(long record) {
+        return (int) (record - windowStart) * recordSize;
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic workload drawn from configurable distributions, generated one process at a time as
+ * the scheduler asks for it, so a workload of any size is never held in memory.
+ *
+ * The same seed and distributions always give the same workload. The first process arrives at
+ * time 0 and the others follow the arrival process; processes are numbered from 1 in order of
+ * arrival. Drawn values are rounded to the nearest integer, bursts are at least 1 and comeback
+ * delays and priorities at least 0. Generation stops after the requested number of processes,
+ * or earlier if arrivals run past Integer.MAX_VALUE - 1.
+ */
+public class WorkloadGenerator implements ProcessSource {
+
+    private final SplittableRandom random;
+    private final long processes;
+    private final ArrivalProcess arrivals;
+    private final Distribution bursts;
+    private final Distribution comebacks;
+    private final Distribution priorities;
+
+    /** Number of processes generated so far, including the pending one. */
+    private long generated;
+
+    /** Arrival time of the pending process, as drawn. */
+    private double clock;
+
+    /** The process drawn but not consumed yet; its arrival is Integer.MAX_VALUE once the workload ends. */
+    private int pid;
+    private int arrivalTime = Integer.MAX_VALUE;
+    private int burstTime;
+    private int comeBack;
+    private int priority;
+
+    /**
+     * Constructs a generator.
+     *
+     * @param seed       The seed of the workload.
+     * @param processes  The number of processes to generate.
+     * @param arrivals   The arrival process; it must not be shared with another generator.
+     * @param bursts     The distribution of the burst times.
+     * @param comebacks  The distribution of the time a process spends in the waiting queue.
+     * @param priorities The distribution of the priorities, where lower values come first.
+     */
+    public WorkloadGenerator(long seed, long processes, ArrivalProcess arrivals, Distribution bursts,
+                             Distribution comebacks, Distribution priorities) {
+
+        if (processes < 0) {
+            throw new IllegalArgumentException("Number of processes must not be negative: " + processes);
+        }
+        this.random = new SplittableRandom(seed);
+        this.processes = processes;
+        this.arrivals = arrivals;
+        this.bursts = bursts;
+        this.comebacks = comebacks;
+        this.priorities = priorities;
+
+        if (processes > 0) {
+            generated = 1;
+            draw(0);
+        }
+    }
+
+    /**
+     * Constructs a generator of Poisson arrivals with exponential bursts that keep the CPU
+     * busy for the given fraction of the time, the classic M/M/1 workload.
+     *
+     * @param seed      The seed of the workload.
+     * @param processes The number of processes to generate.
+     * @param meanBurst The mean burst time.
+     * @param load      The offered load, the mean burst time times the arrival rate.
+     * @return A new generator.
+     */
+    public static WorkloadGenerator poisson(long seed, long processes, double meanBurst, double load) {
+        return new WorkloadGenerator(seed, processes, ArrivalProcess.poisson(load / meanBurst),
+                Distribution.exponential(meanBurst), Distribution.uniform(1, 10), Distribution.uniform(0, 9));
+    }
+
+    @Override
+    public int peekArrivalTime() {
+        return arrivalTime;
+    }
+
+    @Override
+    public int next(ProcessTable table) {
+
+        if (arrivalTime == Integer.MAX_VALUE) {
+            throw new NoSuchElementException();
+        }
+        int row = table.add(pid, arrivalTime, burstTime, comeBack, priority);
+
+        if (generated == processes) {
+            arrivalTime = Integer.MAX_VALUE;
+        }
+        else {
+            generated++;
+            clock = arrivals.next(clock, random);
+            draw(clock < Integer.MAX_VALUE - 1 ? (int) clock : Integer.MAX_VALUE);
+        }
+        return row;
+    }
+
+    /**
+     * Draws the properties of the pending process.
+     *
+     * @param arrival The arrival time of the process, or Integer.MAX_VALUE to end the workload.
+     */
+    private void draw(int arrival) {
+
+        arrivalTime = arrival;
+        if (arrival == Integer.MAX_VALUE) {
+            return;
+        }
+        pid = (int) generated;
+        burstTime = Math.max(1, round(bursts.sample(random)));
+        comeBack = Math.max(0, round(comebacks.sample(random)));
+        priority = Math.max(0, round(priorities.sample(random)));
+    }
+
+    private static int round(double value) {
+        return (int) Math.min(Math.round(value), Integer.MAX_VALUE);
+    }
+}
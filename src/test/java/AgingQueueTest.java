@@ -0,0 +1,88 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * AgingQueue must poll the process a plain list would give when scanned for the lowest effective
+ * priority, the priority less one per quantum waited, and then the earliest ready queue time.
+ */
+class AgingQueueTest {
+
+    @Test
+    void pollsLowestEffectivePriority() {
+
+        Random random = new Random(11);
+        int n = 300;
+        for (int quantum = 1; quantum <= 7; quantum++) {
+
+            ProcessTable table = new ProcessTable(n);
+            for (int i = 0; i < n; i++) {
+                table.add(i + 1, 0, 1, 0, 0);
+            }
+            PCB[] processes = table.views();
+            boolean[] isQueued = new boolean[n];
+            AgingQueue queue = new AgingQueue(quantum);
+            List<PCB> expected = new ArrayList<>();
+            int time = 0;
+
+            for (int step = 0; step < 50_000; step++) {
+
+                int operation = random.nextInt(10);
+                if (operation < 3) {
+                    time += random.nextInt(4);
+                    queue.advanceTo(time);
+                }
+                else if (operation < 7) {
+                    int row = random.nextInt(n);
+                    if (!isQueued[row]) {
+                        processes[row].setPriority(random.nextInt(10));
+                        processes[row].setReadyQueueTime(time);
+                        queue.offer(processes[row]);
+                        expected.add(processes[row]);
+                        isQueued[row] = true;
+                    }
+                }
+                else if (!expected.isEmpty()) {
+                    PCB best = expected.get(0);
+                    for (PCB process : expected) {
+                        if (compare(process, best, time, quantum) < 0) {
+                            best = process;
+                        }
+                    }
+                    int priority = effectivePriority(best, time, quantum);
+                    int readyQueueTime = best.getReadyQueueTime();
+                    PCB polled = queue.poll();
+                    assertEquals(priority, polled.getPriority(), "quantum " + quantum + " step " + step);
+                    assertEquals(readyQueueTime, polled.getReadyQueueTime(), "quantum " + quantum + " step " + step);
+                    assertTrue(expected.remove(polled));
+                    isQueued[polled.getRow()] = false;
+                }
+                assertEquals(expected.size(), queue.size());
+
+                int nextAging = queue.nextAgingTime();
+                assertTrue(nextAging > time);
+                for (PCB process : expected) {
+                    if (effectivePriority(process, time, quantum) > 0) {
+                        int waited = time - process.getReadyQueueTime();
+                        assertTrue(nextAging <= time + quantum - waited % quantum, "quantum " + quantum + " step " + step);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int compare(PCB a, PCB b, int time, int quantum) {
+
+        int byPriority = Integer.compare(effectivePriority(a, time, quantum), effectivePriority(b, time, quantum));
+        return byPriority != 0 ? byPriority : Integer.compare(a.getReadyQueueTime(), b.getReadyQueueTime());
+    }
+
+    private static int effectivePriority(PCB process, int time, int quantum) {
+        return Math.max(process.getPriority() - (time - process.getReadyQueueTime()) / quantum, 0);
+    }
+}
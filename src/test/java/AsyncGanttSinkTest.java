@@ -0,0 +1,55 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Chart printed by AsyncGanttSink from its writer thread.
+ */
+class AsyncGanttSinkTest {
+
+    private static final String HEADER = "\u001B[31m\u001B[1mGantt Chart\u001B[0m : " + System.lineSeparator()
+            + "\u001B[1m" + "_".repeat(83) + System.lineSeparator();
+
+    private static final String FOOTER = System.lineSeparator() + "\u001B[1m" + "_".repeat(83) + System.lineSeparator();
+
+    @Test
+    void printsAnEntryBetweenTheHeaderAndTheRule() {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        AsyncGanttSink sink = new AsyncGanttSink(new PrintStream(bytes, true, StandardCharsets.UTF_8), 2);
+        sink.begin(0);
+        sink.entry(1, 0, 3);
+        sink.end();
+
+        assertEquals(HEADER + "\u001B[1m0  \u001B[31m |P1|\u001B[0m \u001B[1m3  \t" + FOOTER,
+                bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Twelve entries in batches of five, in a chart resumed after three entries, so lines break
+     * after the 2nd, 7th and 12th entries, across the batches, as ConsoleGanttSink breaks them.
+     */
+    @Test
+    void printsTheChartOfConsoleGanttSinkAcrossBatches() {
+
+        ByteArrayOutputStream async = new ByteArrayOutputStream();
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        GanttSink[] sinks = {new AsyncGanttSink(new PrintStream(async, true, StandardCharsets.UTF_8), 5),
+                new ConsoleGanttSink(new PrintStream(console, true, StandardCharsets.UTF_8))};
+        for (GanttSink sink : sinks) {
+            sink.begin(3);
+            for (int i = 0; i < 12; i++) {
+                sink.entry(i % 3 + 1, 10 * i, 10 * i + 10);
+            }
+            sink.end();
+        }
+
+        String chart = async.toString(StandardCharsets.UTF_8);
+        assertEquals(console.toString(StandardCharsets.UTF_8), chart);
+        assertEquals(2 + 3 + 2, chart.split(System.lineSeparator(), -1).length - 1); //header, three breaks, rule
+    }
+}
@@ -0,0 +1,86 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * A run stopped at a checkpoint and resumed, in either engine, must give the same Gantt chart and
+ * results as the same run left uninterrupted.
+ */
+class CheckpointTest {
+
+    private static final int SEEDS = 40;
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @EnumSource(Algorithm.class)
+    void resumedRunMatchesUninterruptedRun(Algorithm algorithm) throws IOException {
+
+        Path file = directory.resolve("checkpoint.bin");
+        for (long seed = 0; seed < SEEDS; seed++) {
+
+            ProcessTable workload = Workloads.random(seed, 10 + (int) (seed * 11 % 150));
+            int maximumTime = Workloads.maximumTime(seed);
+            int quantum = Workloads.quantum(seed);
+            boolean firstEventDriven = seed % 2 == 0;
+            boolean secondEventDriven = seed % 3 == 0;
+
+            Workloads.GanttRecorder whole = new Workloads.GanttRecorder();
+            Scheduling uninterrupted = Workloads.quiet(algorithm.create(workload.copy(), maximumTime, quantum),
+                    firstEventDriven, whole);
+            uninterrupted.runAlgorithm();
+
+            Workloads.GanttRecorder before = new Workloads.GanttRecorder();
+            Scheduling first = Workloads.quiet(algorithm.create(workload.copy(), maximumTime, quantum),
+                    firstEventDriven, before);
+            first.setCheckpoints(file, 1 + (int) (seed % 50));
+            first.setStopTime(1 + (int) (seed * 13 % (maximumTime - 1)));
+            first.runAlgorithm();
+
+            Workloads.GanttRecorder after = new Workloads.GanttRecorder();
+            Scheduling second = Workloads.quiet(algorithm.create(workload.copy(), maximumTime, quantum),
+                    secondEventDriven, after);
+            second.resume(file);
+            second.runAlgorithm();
+
+            List<String> chart = new ArrayList<>(before.entries);
+            chart.addAll(after.entries);
+            assertEquals(Workloads.results(uninterrupted), Workloads.results(second), algorithm + " seed " + seed);
+            assertEquals(whole.entries, chart, algorithm + " seed " + seed);
+        }
+    }
+
+    /**
+     * A checkpoint only resumes a scheduler created with the maximum time and the quantum of the
+     * run that wrote it, since the rest of the run depends on both.
+     */
+    @ParameterizedTest
+    @EnumSource(Algorithm.class)
+    void resumeRejectsAnotherMaximumTimeOrQuantum(Algorithm algorithm) throws IOException {
+
+        Path file = directory.resolve("checkpoint.bin");
+        ProcessTable workload = Workloads.random(7, 30);
+        Scheduling first = Workloads.quiet(algorithm.create(workload.copy(), 300, 4), true,
+                new Workloads.GanttRecorder());
+        first.setCheckpoints(file, 50);
+        first.setStopTime(100);
+        first.runAlgorithm();
+
+        Scheduling longer = algorithm.create(workload.copy(), 400, 4);
+        assertThrows(IllegalArgumentException.class, () -> longer.resume(file));
+        if (algorithm.usesQuantum()) {
+            Scheduling otherQuantum = algorithm.create(workload.copy(), 300, 5);
+            assertThrows(IllegalArgumentException.class, () -> otherQuantum.resume(file));
+        }
+        algorithm.create(workload.copy(), 300, 4).resume(file);
+    }
+}
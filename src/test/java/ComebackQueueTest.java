@@ -0,0 +1,59 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ComebackQueue must release its processes as a priority queue ordered by comeback time and then
+ * by the order they were added.
+ */
+class ComebackQueueTest {
+
+    /** A process waiting in the reference queue, with its comeback time and insertion number. */
+    private record Waiting(long time, long sequence, PCB process) {
+    }
+
+    @Test
+    void releasesLikePriorityQueue() {
+
+        Random random = new Random(3);
+        ProcessTable table = new ProcessTable(100);
+        for (int i = 0; i < 100; i++) {
+            table.add(i + 1, 0, 1, 0, 0);
+        }
+        PCB[] processes = table.views();
+        ComebackQueue queue = new ComebackQueue();
+        PriorityQueue<Waiting> expected = new PriorityQueue<>(
+                Comparator.comparingLong(Waiting::time).thenComparingLong(Waiting::sequence));
+        long sequence = 0;
+
+        for (int step = 0; step < 200_000; step++) {
+
+            if (random.nextInt(5) < 3) {
+                long time = random.nextInt(20) == 0 ? ComebackQueue.NEVER : random.nextInt(200);
+                PCB process = processes[random.nextInt(processes.length)];
+                queue.add(process, time);
+                expected.add(new Waiting(time, sequence++, process));
+            }
+            else if (!expected.isEmpty()) {
+                assertSame(expected.poll().process(), queue.poll(), "step " + step);
+            }
+            assertEquals(expected.size(), queue.size());
+            assertEquals(expected.isEmpty() ? ComebackQueue.NEVER : expected.peek().time(), queue.peekTime());
+        }
+    }
+
+    @Test
+    void pollOnEmptyQueueThrows() {
+
+        ComebackQueue queue = new ComebackQueue();
+        assertEquals(ComebackQueue.NEVER, queue.peekTime());
+        assertThrows(NoSuchElementException.class, queue::poll);
+    }
+}
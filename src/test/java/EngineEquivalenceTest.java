@@ -0,0 +1,51 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * The event-driven engine must give the same Gantt chart and results as the per-tick loop, for
+ * every algorithm, with and without a simulated disk.
+ */
+class EngineEquivalenceTest {
+
+    private static final int SEEDS = 60;
+
+    @ParameterizedTest
+    @EnumSource(Algorithm.class)
+    void eventEngineMatchesTickLoop(Algorithm algorithm) {
+
+        for (long seed = 0; seed < SEEDS; seed++) {
+            ProcessTable workload = Workloads.random(seed, 10 + (int) (seed * 11 % 150));
+            assertSameRun(algorithm, workload, seed, null);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Algorithm.class)
+    void eventEngineMatchesTickLoopWithIo(Algorithm algorithm) {
+
+        for (long seed = 0; seed < SEEDS; seed++) {
+            ProcessTable workload = Workloads.random(seed, 10 + (int) (seed * 11 % 150));
+            assertSameRun(algorithm, workload, seed, IoDevice.Policy.values()[(int) (seed % IoDevice.Policy.values().length)]);
+        }
+    }
+
+    private static void assertSameRun(Algorithm algorithm, ProcessTable workload, long seed, IoDevice.Policy policy) {
+
+        String[] results = new String[2];
+        Workloads.GanttRecorder[] charts = new Workloads.GanttRecorder[2];
+        for (int engine = 0; engine < 2; engine++) {
+            charts[engine] = new Workloads.GanttRecorder();
+            Scheduling scheduler = Workloads.quiet(algorithm.create(workload.copy(), Workloads.maximumTime(seed),
+                    Workloads.quantum(seed)), engine == 1, charts[engine]);
+            if (policy != null) {
+                scheduler.setIoDevices(new IoDevice[]{new IoDevice("disk", policy, 100, 20)});
+            }
+            scheduler.runAlgorithm();
+            results[engine] = Workloads.results(scheduler);
+        }
+        assertEquals(results[0], results[1], algorithm + " seed " + seed);
+        assertEquals(charts[0].entries, charts[1].entries, algorithm + " seed " + seed);
+    }
+}
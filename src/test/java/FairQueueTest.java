@@ -0,0 +1,80 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * FairQueue must keep its processes in the order of a sorted map keyed on the virtual runtime and
+ * the order of insertion, and track the total weight of the queued processes.
+ */
+class FairQueueTest {
+
+    @Test
+    void ordersLikeSortedMap() {
+
+        Random random = new Random(1);
+        int n = 2000;
+        ProcessTable table = new ProcessTable(n);
+        for (int i = 0; i < n; i++) {
+            table.add(i + 1, 0, 1, 0, random.nextInt(40) - 20);
+        }
+        PCB[] processes = table.views();
+
+        for (int trial = 0; trial < 50; trial++) {
+
+            FairQueue queue = new FairQueue();
+            TreeMap<long[], Integer> expected = new TreeMap<>(
+                    (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+            boolean[] isQueued = new boolean[n];
+            long sequence = 0;
+            long weight = 0;
+            for (int step = 0; step < 5000; step++) {
+
+                int row = random.nextInt(n);
+                if (random.nextInt(3) != 0 && !isQueued[row]) {
+                    long vruntime = random.nextInt(50);
+                    queue.setVruntime(row, vruntime);
+                    queue.offer(processes[row]);
+                    expected.put(new long[]{vruntime, sequence++}, row);
+                    isQueued[row] = true;
+                    weight += FairQueue.weightOf(processes[row].getPriority());
+                }
+                else if (!expected.isEmpty()) {
+                    Map.Entry<long[], Integer> head = expected.pollFirstEntry();
+                    assertEquals(head.getKey()[0], queue.peekVruntime(), "trial " + trial + " step " + step);
+                    assertEquals((int) head.getValue(), queue.poll().getRow(), "trial " + trial + " step " + step);
+                    isQueued[head.getValue()] = false;
+                    weight -= FairQueue.weightOf(processes[head.getValue()].getPriority());
+                }
+                assertEquals(expected.size(), queue.size());
+                assertEquals(weight, queue.getTotalWeight());
+                if (step % 500 == 0) {
+                    Iterator<PCB> iterator = queue.iterator();
+                    for (int queuedRow : expected.values()) {
+                        assertEquals(queuedRow, iterator.next().getRow(), "trial " + trial + " step " + step);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void weightsFollowNiceLevels() {
+
+        assertEquals(FairQueue.NICE_0_WEIGHT, FairQueue.weightOf(0));
+        int[] weights = new int[40];
+        for (int nice = -20; nice < 20; nice++) {
+            weights[nice + 20] = FairQueue.weightOf(nice);
+        }
+        int[] sorted = weights.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals(sorted[weights.length - 1 - i], weights[i], "a higher nice level must weigh less");
+        }
+    }
+}
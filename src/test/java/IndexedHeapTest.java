@@ -0,0 +1,110 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * IndexedHeap must sift exactly as the java.util.PriorityQueue it replaced, so processes with equal
+ * keys leave it in the same order.
+ */
+class IndexedHeapTest {
+
+    private static final Comparator<PCB> ORDER =
+            Comparator.comparingInt(PCB::getBurstTime).thenComparingInt(PCB::getReadyQueueTime);
+
+    @Test
+    void pollsAndRemovesLikePriorityQueue() {
+
+        Random random = new Random(5);
+        int n = 2000;
+        PCB[] processes = table(random, n).views();
+        boolean[] isQueued = new boolean[n];
+        PriorityQueue<PCB> expected = new PriorityQueue<>(ORDER);
+        IndexedHeap heap = new IndexedHeap(process -> IndexedHeap.key(process.getBurstTime(), process.getReadyQueueTime()));
+
+        for (int step = 0; step < 300_000; step++) {
+
+            int operation = random.nextInt(10);
+            int row = random.nextInt(n);
+            if (operation < 5) {
+                if (!isQueued[row]) {
+                    processes[row].setReadyQueueTime(random.nextInt(3) - 1);
+                    expected.offer(processes[row]);
+                    heap.offer(processes[row]);
+                    isQueued[row] = true;
+                }
+            }
+            else if (operation < 9) {
+                PCB head = expected.poll();
+                assertSame(head, heap.poll(), "step " + step);
+                if (head != null) {
+                    isQueued[head.getRow()] = false;
+                }
+            }
+            else {
+                assertEquals(isQueued[row], heap.contains(processes[row]), "step " + step);
+                assertEquals(expected.remove(processes[row]), heap.remove(processes[row]), "step " + step);
+                isQueued[row] = false;
+            }
+            assertEquals(expected.size(), heap.size(), "step " + step);
+            assertSame(expected.peek(), heap.peek(), "step " + step);
+        }
+    }
+
+    @Test
+    void updateMovesAProcessToItsNewKey() {
+
+        Random random = new Random(7);
+        PCB[] processes = table(random, 500).views();
+        IndexedHeap heap = new IndexedHeap(process -> IndexedHeap.key(process.getBurstTime(), process.getReadyQueueTime()));
+        List<PCB> queued = new ArrayList<>();
+        for (PCB process : processes) {
+            heap.offer(process);
+            queued.add(process);
+        }
+        for (int i = 0; i < 2000; i++) {
+            PCB process = queued.get(random.nextInt(queued.size()));
+            process.setReadyQueueTime(random.nextInt(100_000));
+            heap.update(process);
+        }
+
+        PriorityQueue<PCB> expected = new PriorityQueue<>(ORDER);
+        expected.addAll(queued);
+        while (!expected.isEmpty()) {
+            assertEquals(0, ORDER.compare(expected.poll(), heap.poll()));
+        }
+        assertEquals(0, heap.size());
+    }
+
+    @Test
+    void keyOrdersByPrimaryThenSecondary() {
+
+        int[] values = {Integer.MIN_VALUE, -7, -1, 0, 1, 7, Integer.MAX_VALUE};
+        for (int a : values) {
+            for (int b : values) {
+                for (int c : values) {
+                    for (int d : values) {
+                        int expected = a != c ? Integer.compare(a, c) : Integer.compare(b, d);
+                        assertEquals(Integer.signum(expected),
+                                Integer.signum(Long.compare(IndexedHeap.key(a, b), IndexedHeap.key(c, d))));
+                    }
+                }
+            }
+        }
+    }
+
+    private static ProcessTable table(Random random, int n) {
+
+        ProcessTable table = new ProcessTable(n);
+        for (int i = 0; i < n; i++) {
+            table.add(i + 1, 0, 1 + random.nextInt(5), 0, random.nextInt(4));
+        }
+        return table;
+    }
+}
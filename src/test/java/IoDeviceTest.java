@@ -0,0 +1,128 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Behavior of the simulated I/O devices on small hand-built workloads.
+ */
+class IoDeviceTest {
+
+    /**
+     * A periodic task without an I/O burst shares the run with two tasks doing 100 units of I/O on
+     * one FIFO disk. Its comebacks must not free the disk while a request is served, and the task
+     * of period 300 must only run its jobs from their nominal releases, after its I/O.
+     */
+    @Test
+    void periodicTaskSharesDeviceWithIoTasks() {
+
+        for (int engine = 0; engine < 2; engine++) {
+
+            ProcessTable table = new ProcessTable(3);
+            table.add(1, 0, 3, 100, 0, 300, 0);
+            table.add(2, 0, 3, 100, 0);
+            table.add(3, 0, 1, 0, 0, 10, 0);
+            Workloads.GanttRecorder gantt = new Workloads.GanttRecorder();
+            Scheduling scheduler = Workloads.quiet(Algorithm.EDF.create(table, 1000, 4), engine == 1, gantt);
+            IoDevice disk = new IoDevice("disk", IoDevice.Policy.FIFO, 100, 20);
+            scheduler.setIoDevices(new IoDevice[]{disk});
+            scheduler.runAlgorithm();
+
+            //P2 is served from 4 to 106, P1 from 106 to 208, then P2 again until 309
+            assertEquals(List.of("1-4", "106-109", "309-312"), runsOf(gantt, 2).subList(0, 3));
+            assertEquals(List.of("4-7", "301-304", "601-604", "901-904"), runsOf(gantt, 1));
+            assertTrue(disk.getUtilization(1000) <= 1, "utilization " + disk.getUtilization(1000));
+        }
+    }
+
+    /**
+     * Five requests of 10 units made at time 0 on a disk of 100 tracks crossing 10 tracks per unit.
+     * At time 0, pids 1 to 5 hash to tracks 1, 39, 49, 11 and 37. The request of P1 is served at
+     * once, for 10 units plus one unit of seek, and the others queue behind it.
+     */
+    @Test
+    void fifoServesRequestsInOrderOfArrival() {
+
+        IoDevice disk = new IoDevice("disk", IoDevice.Policy.FIFO, 100, 10);
+        requests(disk, 1, 2, 3, 4, 5);
+
+        //from track 1: 38 tracks to 39, 10 to 49, 38 back to 11, 26 to 37
+        assertEquals(List.of("2:25", "3:36", "4:50", "5:63"), drain(disk));
+        assertEquals(5, disk.getServedRequests());
+        assertEquals(4, disk.getMaximumQueueLength());
+        assertEquals((11 + 25 + 36 + 50) / 5.0, disk.getAverageWait());
+        assertEquals(0.63, disk.getUtilization(100));
+        assertEquals(1.0, disk.getUtilization(50)); //the service running at 50 is cut by the end of the run
+    }
+
+    /**
+     * The same requests under SSTF: from track 1 the nearest are 11, then 37, 39 and 49, which
+     * shortens the seeks and the busy time.
+     */
+    @Test
+    void sstfServesTheNearestTrackFirst() {
+
+        IoDevice disk = new IoDevice("disk", IoDevice.Policy.SSTF, 100, 10);
+        requests(disk, 1, 2, 3, 4, 5);
+
+        assertEquals(List.of("4:22", "5:35", "2:46", "3:57"), drain(disk));
+        assertEquals(0.57, disk.getUtilization(100));
+    }
+
+    /**
+     * P2 on track 39 is served first, with P5 on 37, P3 on 49 and P6 on 3 queued. SSTF goes down
+     * to 37 first, while SCAN keeps moving up to 49 and then turns.
+     */
+    @Test
+    void scanKeepsTheDirectionOfTheHead() {
+
+        IoDevice sstf = new IoDevice("disk", IoDevice.Policy.SSTF, 100, 10);
+        requests(sstf, 2, 5, 3, 6);
+        assertEquals(List.of("5:25", "3:37", "6:52"), drain(sstf));
+
+        IoDevice scan = new IoDevice("disk", IoDevice.Policy.SCAN, 100, 10);
+        requests(scan, 2, 5, 3, 6);
+        assertEquals(List.of("3:25", "5:37", "6:51"), drain(scan));
+        assertEquals(0.51, scan.getUtilization(100));
+    }
+
+    /**
+     * Makes the request of every pid at time 0, each with an I/O burst of 10 units.
+     */
+    private static void requests(IoDevice device, int... pids) {
+
+        ProcessTable table = new ProcessTable(pids.length);
+        for (int pid : pids) {
+            device.request(table.view(table.add(pid, 0, 1, 10, 0)), 0, 0);
+        }
+    }
+
+    /**
+     * Ends every service in turn, giving the pid and the end of the service of each queued request.
+     */
+    private static List<String> drain(IoDevice device) {
+
+        List<String> served = new ArrayList<>();
+        for (PCB process = device.release((int) device.getServiceEnd()); process != null;
+             process = device.release((int) device.getServiceEnd())) {
+            served.add(process.getPid() + ":" + device.getServiceEnd());
+        }
+        assertNull(device.release((int) device.getServiceEnd()));
+        return served;
+    }
+
+    private static List<String> runsOf(Workloads.GanttRecorder gantt, int pid) {
+
+        List<String> runs = new ArrayList<>();
+        for (String entry : gantt.entries) {
+            if (entry.startsWith(pid + ":")) {
+                runs.add(entry.substring(entry.indexOf(':') + 1));
+            }
+        }
+        return runs;
+    }
+}
@@ -0,0 +1,85 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Percentiles of LatencyHistogram, exact below 128 and to the highest value of a bucket above.
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesAreExact() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 100; value >= 1; value--) {
+            histogram.record(value);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(50.5, histogram.getMean());
+        assertEquals(1, histogram.getMin());
+        assertEquals(100, histogram.getMax());
+        assertEquals(1, histogram.getPercentile(0));
+        assertEquals(50, histogram.getPercentile(50));
+        assertEquals(90, histogram.getPercentile(90));
+        assertEquals(99, histogram.getPercentile(99));
+        assertEquals(100, histogram.getPercentile(99.9));
+        assertEquals(100, histogram.getPercentile(100));
+    }
+
+    /**
+     * 128 and 129 share a bucket, as do 1000 to 1007 and 4992 to 5055, so a percentile falling in
+     * one of them is its highest value, but never more than the maximum recorded.
+     */
+    @Test
+    void largeValuesReportTheHighestValueOfTheirBucket() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(128);
+        histogram.record(1000);
+        histogram.record(1003);
+        histogram.record(5000);
+
+        assertEquals(129, histogram.getPercentile(25));
+        assertEquals(1007, histogram.getPercentile(50));
+        assertEquals(1007, histogram.getPercentile(75));
+        assertEquals(5000, histogram.getPercentile(100));
+        assertEquals(128, histogram.getMin());
+        assertEquals(7131 / 4.0, histogram.getMean());
+    }
+
+    @Test
+    void addMergesTheCountsAndBounds() {
+
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        first.record(20);
+        second.record(5);
+        second.record(Integer.MAX_VALUE);
+        first.add(second);
+
+        assertEquals(4, first.getCount());
+        assertEquals(5, first.getMin());
+        assertEquals(Integer.MAX_VALUE, first.getMax());
+        assertEquals(10, first.getPercentile(50));
+        assertEquals(20, first.getPercentile(75));
+        assertEquals(Integer.MAX_VALUE, first.getPercentile(100));
+    }
+
+    @Test
+    void emptyAndResetHistogramsReportZero() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(99));
+        assertEquals(0, histogram.getMin());
+        histogram.record(42);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(50));
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+    }
+}
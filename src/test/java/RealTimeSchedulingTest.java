@@ -0,0 +1,151 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Releases, deadline misses and lateness of EDF and Rate Monotonic on small hand-built task sets,
+ * in both engines.
+ */
+class RealTimeSchedulingTest {
+
+    /**
+     * Tasks (C=2, P=5) and (C=4, P=7) use 34/35 of the CPU, above the Rate Monotonic bound. EDF
+     * meets every deadline over the 35 units of the hyperperiod: 7 jobs of the first task and 5
+     * of the second.
+     */
+    @Test
+    void edfMeetsEveryDeadlineUpToFullUtilization() {
+
+        for (int engine = 0; engine < 2; engine++) {
+
+            Workloads.GanttRecorder gantt = new Workloads.GanttRecorder();
+            RealTimeScheduling edf = run(Algorithm.EDF, twoTasks(), 35, engine == 1, gantt);
+
+            assertEquals(List.of("1:0-2", "2:2-6", "1:6-8", "2:8-12", "1:12-14", "2:14-15", "1:15-17", "2:17-20",
+                    "1:20-22", "2:22-26", "1:26-28", "2:28-32", "1:32-34"), gantt.entries);
+            assertEquals(12, edf.getJobCount());
+            assertEquals(0, edf.getDeadlineMisses());
+            assertEquals(0, edf.getAverageLateness());
+            assertEquals(0, edf.getMaximumLateness());
+        }
+    }
+
+    /**
+     * Under Rate Monotonic the task of period 5 preempts the other, whose first job is still one
+     * unit short at its deadline 7 and ends at 8. Its second job was released at 7 and runs
+     * right after, so the releases stay on their nominal times.
+     */
+    @Test
+    void rateMonotonicMissesOneDeadline() {
+
+        for (int engine = 0; engine < 2; engine++) {
+
+            Workloads.GanttRecorder gantt = new Workloads.GanttRecorder();
+            RealTimeScheduling rm = run(Algorithm.RATE_MONOTONIC, twoTasks(), 35, engine == 1, gantt);
+
+            assertEquals(List.of("1:0-2", "2:2-5", "1:5-7", "2:7-8", "2:8-10", "1:10-12", "2:12-14"),
+                    gantt.entries.subList(0, 7));
+            assertEquals(12, rm.getJobCount());
+            assertEquals(1, rm.getDeadlineMisses());
+            assertEquals(1.0 / 12, rm.getMissRatio());
+            assertEquals(1.0, rm.getAverageLateness());
+            assertEquals(1, rm.getMaximumLateness());
+        }
+    }
+
+    /**
+     * A task of period 10 whose jobs of 3 units must end 2 units after their release misses every
+     * deadline by one unit.
+     */
+    @Test
+    void deadlineShorterThanPeriodIsMissedEveryJob() {
+
+        for (int engine = 0; engine < 2; engine++) {
+
+            ProcessTable table = new ProcessTable(1);
+            table.add(1, 0, 3, 0, 0, 10, 2);
+            Workloads.GanttRecorder gantt = new Workloads.GanttRecorder();
+            RealTimeScheduling edf = run(Algorithm.EDF, table, 30, engine == 1, gantt);
+
+            assertEquals(List.of("1:0-3", "1:10-13", "1:20-23"), gantt.entries);
+            assertEquals(3, edf.getJobCount());
+            assertEquals(3, edf.getDeadlineMisses());
+            assertEquals(1.0, edf.getAverageLateness());
+        }
+    }
+
+    /**
+     * A task without a period comes back after its comeback time, so it releases a job every burst
+     * plus comeback time, here 7 units.
+     */
+    @Test
+    void comebackTimeGivesThePeriod() {
+
+        for (int engine = 0; engine < 2; engine++) {
+
+            ProcessTable table = new ProcessTable(1);
+            table.add(1, 0, 3, 4, 0);
+            Workloads.GanttRecorder gantt = new Workloads.GanttRecorder();
+            RealTimeScheduling edf = run(Algorithm.EDF, table, 20, engine == 1, gantt);
+
+            assertEquals(List.of("1:0-3", "1:7-10", "1:14-17"), gantt.entries);
+            assertEquals(3, edf.getJobCount());
+            assertEquals(0, edf.getDeadlineMisses());
+        }
+    }
+
+    /**
+     * A single job of 10 units with a deadline of 4 is counted as a miss, and its lateness runs
+     * until it completes, or until the end of a run that stops before.
+     */
+    @Test
+    void unfinishedJobIsLateUntilItCompletes() {
+
+        for (int engine = 0; engine < 2; engine++) {
+            for (int maximumTime : new int[]{8, 20}) {
+
+                ProcessTable table = new ProcessTable(1);
+                table.add(1, 0, 10, 0, 0, 0, 4);
+                RealTimeScheduling edf = run(Algorithm.EDF, table, maximumTime, engine == 1,
+                        new Workloads.GanttRecorder());
+
+                assertEquals(1, edf.getJobCount());
+                assertEquals(1, edf.getDeadlineMisses());
+                assertEquals(Math.min(maximumTime, 10) - 4, edf.getMaximumLateness());
+            }
+        }
+    }
+
+    @Test
+    void analysisComparesUtilizationWithTheBounds() {
+
+        RealTimeScheduling.Analysis analysis = RealTimeScheduling.analyze(new TableSource(twoTasks()));
+
+        assertEquals(2, analysis.getTasks());
+        assertEquals(2.0 / 5 + 4.0 / 7, analysis.getUtilization(), 1e-12);
+        assertEquals(2 * (Math.sqrt(2) - 1), analysis.getRateMonotonicBound(), 1e-12);
+        assertTrue(analysis.isEdfSchedulable());
+        assertFalse(analysis.isRateMonotonicSchedulable());
+    }
+
+    private static ProcessTable twoTasks() {
+
+        ProcessTable table = new ProcessTable(2);
+        table.add(1, 0, 2, 0, 0, 5, 0);
+        table.add(2, 0, 4, 0, 0, 7, 0);
+        return table;
+    }
+
+    private static RealTimeScheduling run(Algorithm algorithm, ProcessTable table, int maximumTime,
+                                          boolean eventDriven, Workloads.GanttRecorder gantt) {
+
+        RealTimeScheduling scheduler = (RealTimeScheduling) Workloads.quiet(algorithm.create(table, maximumTime, 1),
+                eventDriven, gantt);
+        scheduler.runAlgorithm();
+        return scheduler;
+    }
+}
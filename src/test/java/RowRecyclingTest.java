@@ -0,0 +1,47 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * A streamed run, which reuses the rows of the processes that leave, must give the same Gantt
+ * chart and results as the same workload run from a table, which keeps every row.
+ */
+class RowRecyclingTest {
+
+    private static final int SEEDS = 40;
+
+    @ParameterizedTest
+    @EnumSource(Algorithm.class)
+    void streamedRunMatchesTableRun(Algorithm algorithm) {
+
+        boolean recycled = false;
+        for (long seed = 0; seed < SEEDS; seed++) {
+            for (int mode = 0; mode < 4; mode++) {
+
+                ProcessTable workload = Workloads.random(seed, 20 + (int) (seed * 11 % 300));
+                String[] results = new String[2];
+                Workloads.GanttRecorder[] charts = new Workloads.GanttRecorder[2];
+                for (int run = 0; run < 2; run++) {
+                    charts[run] = new Workloads.GanttRecorder();
+                    ProcessTable copy = workload.copy();
+                    Scheduling scheduler = Workloads.quiet(run == 0
+                                    ? algorithm.create(copy, Workloads.maximumTime(seed), Workloads.quantum(seed))
+                                    : algorithm.create(Workloads.stream(copy), Workloads.maximumTime(seed), Workloads.quantum(seed)),
+                            (mode & 1) == 1, charts[run]);
+                    if ((mode & 2) == 2) {
+                        scheduler.setIoDevices(new IoDevice[]{new IoDevice("disk", IoDevice.Policy.SSTF)});
+                    }
+                    scheduler.runAlgorithm();
+                    results[run] = Workloads.results(scheduler);
+                    recycled |= run == 1 && scheduler.getProcesses().length < workload.size();
+                }
+                String message = algorithm + " seed " + seed + " mode " + mode;
+                assertEquals(results[0], results[1], message);
+                assertEquals(charts[0].entries, charts[1].entries, message);
+            }
+        }
+        assertTrue(recycled, "no streamed run reused a row");
+    }
+}
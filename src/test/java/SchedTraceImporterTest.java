@@ -0,0 +1,80 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Import of the same short capture printed by perf sched script and read from the ftrace trace
+ * file. Task 100 runs 4 ms, sleeps 2 ms and runs 4 ms again; task 200, of nice 5 and with a colon
+ * in its command, arrives 4 ms in, runs 6 ms and sleeps 10 ms. Time units are milliseconds.
+ */
+class SchedTraceImporterTest {
+
+    private static final String PERF = String.join("\n",
+            "            bash   100 [001]     1.000000:       sched:sched_wakeup: bash:100 [120] CPU:001",
+            "         swapper     0 [001]     1.000000:       sched:sched_switch: swapper/1:0 [120] R ==> bash:100 [120]",
+            "            bash   100 [001]     1.004000:       sched:sched_switch: bash:100 [120] S ==> kworker/u8:2:200 [125]",
+            "    kworker/u8:2   200 [001]     1.006000:       sched:sched_wakeup: bash:100 [120] CPU:001",
+            "    kworker/u8:2   200 [001]     1.010000:       sched:sched_switch: kworker/u8:2:200 [125] S ==> bash:100 [120]",
+            "            bash   100 [001]     1.014000:       sched:sched_switch: bash:100 [120] S ==> swapper/1:0 [120]",
+            "         swapper     0 [001]     1.020000:       sched:sched_wakeup: kworker/u8:2:200 [125] CPU:001");
+
+    private static final String FTRACE = String.join("\n",
+            "# tracer: nop",
+            "            bash-100     [001] d..3     1.000000: sched_wakeup: comm=bash pid=100 prio=120 target_cpu=001",
+            "          <idle>-0       [001] d..2     1.000000: sched_switch: prev_comm=swapper/1 prev_pid=0 prev_prio=120 "
+                    + "prev_state=R ==> next_comm=bash next_pid=100 next_prio=120",
+            "            bash-100     [001] d..2     1.004000: sched_switch: prev_comm=bash prev_pid=100 prev_prio=120 "
+                    + "prev_state=S ==> next_comm=kworker/u8:2 next_pid=200 next_prio=125",
+            "    kworker/u8:2-200     [001] d..3     1.006000: sched_wakeup: comm=bash pid=100 prio=120 target_cpu=001",
+            "    kworker/u8:2-200     [001] d..2     1.010000: sched_switch: prev_comm=kworker/u8:2 prev_pid=200 "
+                    + "prev_prio=125 prev_state=S ==> next_comm=bash next_pid=100 next_prio=120",
+            "            bash-100     [001] d..2     1.014000: sched_switch: prev_comm=bash prev_pid=100 prev_prio=120 "
+                    + "prev_state=S ==> next_comm=swapper/1 next_pid=0 next_prio=120",
+            "          <idle>-0       [001] d..3     1.020000: sched_wakeup: comm=kworker/u8:2 pid=200 prio=125 "
+                    + "target_cpu=001");
+
+    @Test
+    void importsCompactPerfForm() throws IOException {
+        assertCapture(PERF, 7);
+    }
+
+    @Test
+    void importsKeyValueForm() throws IOException {
+        assertCapture(FTRACE, 8);
+    }
+
+    @Test
+    void recognizesNoEventInOtherLines() throws IOException {
+
+        SchedTraceImporter importer = new SchedTraceImporter(1000);
+        importer.read(new StringReader("bash 100 [001] 1.000000: sys_enter: NR 0\nnot a trace\n"));
+        assertEquals(0, importer.getEventCount());
+        assertEquals(2, importer.getLineCount());
+        assertEquals(0, importer.toTable().size());
+    }
+
+    private static void assertCapture(String capture, int lines) throws IOException {
+
+        SchedTraceImporter importer = new SchedTraceImporter(1000);
+        importer.read(new StringReader(capture));
+        assertEquals(lines, importer.getLineCount());
+        assertEquals(7, importer.getEventCount());
+        assertEquals(2, importer.getTaskCount());
+
+        ProcessTable table = importer.toTable();
+        assertEquals(2, table.size());
+        assertEquals(100, table.pid[0]);
+        assertEquals(0, table.arrivalTime[0]);
+        assertEquals(4, table.burstTime[0]);
+        assertEquals(2, table.comeBack[0]);
+        assertEquals(0, table.initialPriority[0]);
+        assertEquals(200, table.pid[1]);
+        assertEquals(4, table.arrivalTime[1]);
+        assertEquals(6, table.burstTime[1]);
+        assertEquals(10, table.comeBack[1]);
+        assertEquals(5, table.initialPriority[1]);
+    }
+}
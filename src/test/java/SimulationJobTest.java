@@ -0,0 +1,112 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Options, workloads and results of SimulationJob.
+ */
+class SimulationJobTest {
+
+    /** P1 runs from 0 to 10 and P2, which arrived at 1, from 10 to 18. */
+    private static final String WORKLOAD = "1 0 10 0 0\n2 1 8 0 0\n";
+
+    @Test
+    void readsTextWorkloads() throws IOException {
+
+        ProcessTable table = SimulationJob.readWorkload(new StringReader(
+                "# pid arrival burst comeback priority [period deadline]\n\n1 0 10 2 3\n 2,1,8,4,2,20,15 \n"));
+
+        assertEquals(2, table.size());
+        assertEquals(1, table.pid[0]);
+        assertEquals(10, table.burstTime[0]);
+        assertEquals(2, table.comeBack[0]);
+        assertEquals(3, table.initialPriority[0]);
+        assertEquals(0, table.period[0]);
+        assertEquals(1, table.arrivalTime[1]);
+        assertEquals(20, table.period[1]);
+        assertEquals(15, table.deadline[1]);
+
+        IllegalArgumentException fields = assertThrows(IllegalArgumentException.class,
+                () -> SimulationJob.readWorkload(new StringReader("1 0 10 2 3\n\n2 1 8\n")));
+        assertEquals("Line 3 does not hold 5 or 7 fields: 2 1 8", fields.getMessage());
+        IllegalArgumentException number = assertThrows(IllegalArgumentException.class,
+                () -> SimulationJob.readWorkload(new StringReader("1 0 ten 2 3\n")));
+        assertEquals("Line 1 is not a process: 1 0 ten 2 3", number.getMessage());
+    }
+
+    @Test
+    void readsJsonWorkloads() throws IOException {
+
+        ProcessTable table = SimulationJob.readJsonWorkload(new StringReader("[[1, 0, 10, 2, 3], [2, 1, 8, 4, 2, 20, 15]]"));
+        assertEquals(2, table.size());
+        assertEquals(3, table.initialPriority[0]);
+        assertEquals(4, table.comeBack[1]);
+        assertEquals(15, table.deadline[1]);
+
+        assertEquals(0, SimulationJob.readJsonWorkload(new StringReader("  ")).size());
+        assertEquals(0, SimulationJob.readJsonWorkload(new StringReader("[]")).size());
+        assertThrows(IllegalArgumentException.class, () -> SimulationJob.readJsonWorkload(new StringReader("[1, 0, 10, 2, 3]")));
+        IllegalArgumentException fields = assertThrows(IllegalArgumentException.class,
+                () -> SimulationJob.readJsonWorkload(new StringReader("[[1, 0, 10, 2, 3], [2, 1]]")));
+        assertEquals("Process 2 does not hold 5 or 7 fields: [2, 1]", fields.getMessage());
+    }
+
+    @Test
+    void rejectsInvalidOptions() throws IOException {
+
+        ProcessTable workload = SimulationJob.readWorkload(new StringReader(WORKLOAD));
+        assertEquals("Missing option: algorithm", invalid(Map.of("quantum", "3"), workload));
+        assertEquals("Unknown option: speed", invalid(Map.of("algorithm", "fcfs", "speed", "2"), workload));
+        assertEquals("Invalid algorithm: lottery", invalid(Map.of("algorithm", "lottery"), workload));
+        assertEquals("Invalid quantum: five", invalid(Map.of("algorithm", "fcfs", "quantum", "five"), workload));
+        assertEquals("quantum and max-time must be positive", invalid(Map.of("algorithm", "fcfs", "max-time", "0"), workload));
+        assertEquals("Invalid engine: fast", invalid(Map.of("algorithm", "fcfs", "engine", "fast"), workload));
+        assertEquals("Invalid format: xml", invalid(Map.of("algorithm", "fcfs", "format", "xml"), workload));
+        assertEquals("Invalid io: lifo", invalid(Map.of("algorithm", "fcfs", "io", "fifo, lifo"), workload));
+
+        SimulationJob job = new SimulationJob(Map.of("algorithm", "Round-Robin", "format", "JSON", "io", "fifo, scan"),
+                workload);
+        assertEquals(SimulationJob.Format.JSON, job.getFormat());
+    }
+
+    /**
+     * FCFS up to 30: waiting times 0 and 9, turnarounds 10 and 17, two bursts done in 30 units,
+     * 18 units busy and one switch after the first dispatch. The shares of the CPU, 10/10 and
+     * 8/17, give a fairness index of 0.885269.
+     */
+    @Test
+    void writesTheMetricsAsCsvAndJson() throws IOException {
+
+        ProcessTable workload = SimulationJob.readWorkload(new StringReader(WORKLOAD));
+
+        assertEquals("algorithm,quantum,max_time,average_waiting_time,average_turnaround_time,average_response_time,"
+                        + "fairness_index,throughput,cpu_utilization,context_switches,executed_processes\n"
+                        + "FCFS,5,30,4.5000,13.5000,4.5000,0.885269,0.066667,0.600000,1,2\n",
+                run(Map.of("algorithm", "fcfs", "max-time", "30", "format", "csv"), workload));
+        assertEquals("{\"algorithm\":\"FCFS\",\"quantum\":5,\"maxTime\":30,\"averageWaitingTime\":4.5000,"
+                        + "\"averageTurnaroundTime\":13.5000,\"averageResponseTime\":4.5000,\"fairnessIndex\":0.885269,"
+                        + "\"throughput\":0.066667,\"cpuUtilization\":0.600000,\"contextSwitches\":1,\"executedProcesses\":2}\n",
+                run(Map.of("algorithm", "fcfs", "max-time", "30", "format", "json", "engine", "tick"), workload));
+        assertEquals(2, workload.size()); //the job runs on a copy
+        assertEquals(10, workload.remainingTime[0]);
+    }
+
+    private static String invalid(Map<String, String> options, ProcessTable workload) {
+        return assertThrows(IllegalArgumentException.class, () -> new SimulationJob(options, workload)).getMessage();
+    }
+
+    private static String run(Map<String, String> options, ProcessTable workload) throws IOException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new SimulationJob(options, workload).run(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        return bytes.toString(StandardCharsets.UTF_8).replace(System.lineSeparator(), "\n");
+    }
+}
@@ -0,0 +1,116 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Answers of SimulationServer to valid and refused requests, over the loopback interface.
+ */
+class SimulationServerTest {
+
+    private static final String CSV = "?algorithm=fcfs&max-time=30&format=csv";
+
+    private static final String RESULT = "algorithm,quantum,max_time,average_waiting_time,average_turnaround_time,"
+            + "average_response_time,fairness_index,throughput,cpu_utilization,context_switches,executed_processes\n"
+            + "FCFS,5,30,4.5000,13.5000,4.5000,0.885269,0.066667,0.600000,1,2\n";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private SimulationServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+
+        server = new SimulationServer(0, 2, SimulationJob.readWorkload(new StringReader("1 0 10 0 0\n2 1 8 0 0\n")));
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void runsJobsWithTheirOwnOrTheDefaultWorkload() throws Exception {
+
+        HttpResponse<String> text = send(post(CSV, "application/x-www-form-urlencoded", "1 0 10 0 0\n2 1 8 0 0\n"));
+        assertEquals(200, text.statusCode());
+        assertEquals("text/csv; charset=utf-8", text.headers().firstValue("Content-Type").orElse(""));
+        assertEquals(RESULT, text.body());
+
+        assertEquals(RESULT, send(post(CSV, "application/json", "[[1, 0, 10, 0, 0], [2, 1, 8, 0, 0]]")).body());
+        assertEquals(RESULT, send(post(CSV, null, "")).body());
+
+        HttpResponse<String> health = send(HttpRequest.newBuilder(uri("/health", "")).GET().build());
+        assertEquals(200, health.statusCode());
+        assertEquals("ok\n", health.body());
+    }
+
+    @Test
+    void refusesRequestsFromWebPages() throws Exception {
+
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/simulate", CSV))
+                .header("Origin", "http://example.com")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("[]")).build());
+        assertEquals(403, response.statusCode());
+        assertEquals("Requests from web pages are not accepted\n", response.body());
+    }
+
+    @Test
+    void refusesOtherContentTypes() throws Exception {
+
+        HttpResponse<String> plain = send(post(CSV, "text/plain", "1 0 10 0 0\n"));
+        assertEquals(415, plain.statusCode());
+        assertEquals("Unsupported content type: text/plain; use application/json or application/x-www-form-urlencoded\n",
+                plain.body());
+
+        HttpResponse<String> missing = send(post(CSV, null, "1 0 10 0 0\n"));
+        assertEquals(415, missing.statusCode());
+        assertEquals("Missing content type\n", missing.body());
+    }
+
+    @Test
+    void answersInvalidJobsWithTheReason() throws Exception {
+
+        HttpResponse<String> file = send(post(CSV + "&workload=%2Fetc%2Fpasswd", "application/json", ""));
+        assertEquals(400, file.statusCode());
+        assertEquals("The workload option names a file and is not accepted by the server\n", file.body());
+
+        HttpResponse<String> algorithm = send(post("?algorithm=lottery", "application/json", ""));
+        assertEquals(400, algorithm.statusCode());
+        assertEquals("Invalid algorithm: lottery\n", algorithm.body());
+
+        HttpResponse<String> workload = send(post(CSV, "application/json", "[[1, 0, 10]]"));
+        assertEquals(400, workload.statusCode());
+        assertEquals("Process 1 does not hold 5 or 7 fields: [1, 0, 10]\n", workload.body());
+
+        assertEquals(405, send(HttpRequest.newBuilder(uri("/simulate", CSV)).GET().build()).statusCode());
+    }
+
+    private HttpRequest post(String query, String contentType, String body) {
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri("/simulate", query))
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (contentType != null) {
+            request.header("Content-Type", contentType);
+        }
+        return request.build();
+    }
+
+    private URI uri(String path, String query) {
+        return URI.create("http://127.0.0.1:" + server.getPort() + path + query);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,138 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * A single CPU must schedule as the algorithm does on its own, and several CPUs must give the same
+ * results in both engines.
+ */
+class SmpSchedulingTest {
+
+    private static final int SEEDS = 40;
+
+    /**
+     * Two CPUs running FCFS: CPU 0 runs P1 from 0 to 50 then P3 to 90, CPU 1 runs P2 from 0 to 60
+     * then P4 to 109. Every CPU sees the shared table, so its results cover the four processes.
+     */
+    @Test
+    void cpusShareTheTableOfTheSimulation() {
+
+        ProcessTable table = new ProcessTable(4);
+        table.add(1, 0, 50, 0, 0);
+        table.add(2, 0, 60, 0, 0);
+        table.add(3, 5, 40, 0, 0);
+        table.add(4, 10, 49, 0, 0);
+        SmpScheduling cpus = new SmpScheduling(Algorithm.FCFS, table, 2, 200, 4);
+        cpus.setOutput(null);
+        cpus.runAlgorithm();
+
+        assertEquals(199, cpus.getBusyTime());
+        assertEquals(95 / 4.0, cpus.getAverageWaitingTime());
+        assertEquals(294 / 4.0, cpus.getAverageTurnaroundTime());
+        assertEquals(0.45, cpus.getCpuUtilization(0));
+        assertEquals(0.545, cpus.getCpuUtilization(1));
+        for (Scheduling cpu : cpus.getCpus()) {
+            assertEquals(4, cpu.getProcesses().length);
+            assertEquals(199, cpu.getBusyTime());
+            assertEquals(95 / 4.0, cpu.getAverageWaitingTime());
+            assertEquals(294 / 4.0, cpu.getAverageTurnaroundTime());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Algorithm.class)
+    void singleCpuMatchesPlainScheduler(Algorithm algorithm) {
+
+        for (long seed = 0; seed < SEEDS; seed++) {
+
+            ProcessTable workload = Workloads.random(seed, 10 + (int) (seed * 11 % 150));
+            Scheduling plain = Workloads.quiet(algorithm.create(workload.copy(), Workloads.maximumTime(seed),
+                    Workloads.quantum(seed)), true, new Workloads.GanttRecorder());
+            plain.runAlgorithm();
+
+            SmpScheduling single = new SmpScheduling(algorithm, workload.copy(), 1, Workloads.maximumTime(seed),
+                    Workloads.quantum(seed));
+            single.setOutput(null);
+            single.setEventDriven(true);
+            single.runAlgorithm();
+
+            String message = algorithm + " seed " + seed;
+            assertEquals(plain.getAverageWaitingTime(), single.getAverageWaitingTime(), message);
+            assertEquals(plain.getAverageTurnaroundTime(), single.getAverageTurnaroundTime(), message);
+            assertEquals(plain.getBusyTime(), single.getBusyTime(), message);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Algorithm.class)
+    void eventEngineMatchesTickLoopOnSeveralCpus(Algorithm algorithm) {
+
+        for (long seed = 0; seed < SEEDS; seed++) {
+
+            ProcessTable workload = Workloads.random(seed, 10 + (int) (seed * 11 % 150));
+            String[] results = new String[2];
+            for (int engine = 0; engine < 2; engine++) {
+                SmpScheduling cpus = new SmpScheduling(algorithm, workload.copy(), 3, Workloads.maximumTime(seed),
+                        Workloads.quantum(seed));
+                cpus.setBalanceInterval(7);
+                cpus.setOutput(null);
+                cpus.setEventDriven(engine == 1);
+                LatencyCollector latencies = new LatencyCollector();
+                cpus.addListener(latencies);
+                cpus.runAlgorithm();
+                results[engine] = cpus.getAverageWaitingTime() + " " + cpus.getAverageTurnaroundTime() + " "
+                        + cpus.getBusyTime() + " " + cpus.getMigrations() + " " + cpus.getSteals() + " "
+                        + cpus.getMaxImbalance() + " " + latencies.getTurnaroundTimes().getPercentile(99);
+            }
+            assertEquals(results[0], results[1], algorithm + " seed " + seed);
+        }
+    }
+
+    /**
+     * The CPUs of a real-time run share the job counts of the processes. Run apart on a pool, they
+     * count the same jobs and misses as on a single thread, over workloads whose rows outgrow the
+     * first columns of the counts while the CPUs run.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"EDF", "RATE_MONOTONIC"})
+    void parallelRealTimeRunMatchesSequentialRun(Algorithm algorithm) {
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (long seed = 0; seed < SEEDS; seed++) {
+
+                ProcessTable workload = Workloads.random(seed, 100 + (int) (seed * 37 % 400));
+                String[] results = new String[2];
+                for (int run = 0; run < 2; run++) {
+                    SmpScheduling cpus = new SmpScheduling(algorithm, workload.copy(), 4, Workloads.maximumTime(seed),
+                            Workloads.quantum(seed));
+                    cpus.setRouting(SmpScheduling.Routing.ROUND_ROBIN);
+                    cpus.setBalanceInterval(0);
+                    cpus.setWorkStealing(false);
+                    cpus.setOutput(null);
+                    cpus.setEventDriven(true);
+                    if (run == 0) {
+                        cpus.runAlgorithm();
+                    }
+                    else {
+                        cpus.runAlgorithm(pool);
+                    }
+                    results[run] = cpus.getAverageWaitingTime() + " " + cpus.getBusyTime();
+                    for (Scheduling cpu : cpus.getCpus()) {
+                        RealTimeScheduling realTime = (RealTimeScheduling) cpu;
+                        results[run] += " " + realTime.getJobCount() + "/" + realTime.getDeadlineMisses();
+                    }
+                }
+                assertEquals(results[0], results[1], algorithm + " seed " + seed);
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+}
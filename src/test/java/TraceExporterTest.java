@@ -0,0 +1,53 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Chrome trace written for a short FCFS run.
+ */
+class TraceExporterTest {
+
+    /**
+     * P1 runs from 0 to 3 and waits 4 units; P2 arrives at 1, runs from 3 to 5 and waits past the
+     * end of the run; P1 runs again from 7 until the run ends at 9. Every span is written when it
+     * ends, the CPU track is named when its first span is, and the spans still open at 9 are closed there.
+     */
+    @Test
+    void writesTheSpansOfEveryProcessAndCpu() throws IOException {
+
+        ProcessTable table = new ProcessTable(2);
+        table.add(1, 0, 3, 4, 0);
+        table.add(2, 1, 2, 5, 0);
+        Scheduling scheduler = Workloads.quiet(Algorithm.FCFS.create(table, 9, 1), true,
+                new Workloads.GanttRecorder());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TraceExporter trace = new TraceExporter(Channels.newChannel(bytes))) {
+            scheduler.addListener(trace);
+            scheduler.runAlgorithm();
+        }
+
+        assertEquals(String.join("\n",
+                "[",
+                "{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":1,\"tid\":0,\"args\":{\"name\":\"Processes\"}},",
+                "{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":2,\"tid\":0,\"args\":{\"name\":\"CPUs\"}},",
+                "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":0,\"args\":{\"name\":\"P1\"}},",
+                "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":1,\"args\":{\"name\":\"P2\"}},",
+                "{\"name\":\"Running\",\"ph\":\"X\",\"pid\":1,\"tid\":0,\"ts\":0,\"dur\":3},",
+                "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":2,\"tid\":0,\"args\":{\"name\":\"CPU 0\"}},",
+                "{\"name\":\"P1\",\"ph\":\"X\",\"pid\":2,\"tid\":0,\"ts\":0,\"dur\":3},",
+                "{\"name\":\"Ready\",\"ph\":\"X\",\"pid\":1,\"tid\":1,\"ts\":1,\"dur\":2},",
+                "{\"name\":\"Running\",\"ph\":\"X\",\"pid\":1,\"tid\":1,\"ts\":3,\"dur\":2},",
+                "{\"name\":\"P2\",\"ph\":\"X\",\"pid\":2,\"tid\":0,\"ts\":3,\"dur\":2},",
+                "{\"name\":\"Waiting\",\"ph\":\"X\",\"pid\":1,\"tid\":0,\"ts\":3,\"dur\":4},",
+                "{\"name\":\"Running\",\"ph\":\"X\",\"pid\":1,\"tid\":0,\"ts\":7,\"dur\":2},",
+                "{\"name\":\"P1\",\"ph\":\"X\",\"pid\":2,\"tid\":0,\"ts\":7,\"dur\":2},",
+                "{\"name\":\"Waiting\",\"ph\":\"X\",\"pid\":1,\"tid\":1,\"ts\":5,\"dur\":4}",
+                "]",
+                ""), bytes.toString(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,77 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Reading back the binary traces written by WorkloadFile, in the current format and in version 1.
+ */
+class WorkloadFileTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * The period and relative deadline of every process survive a trace, so a real-time workload
+     * replays with the same releases and deadlines.
+     */
+    @Test
+    void periodAndDeadlineRoundTrip() throws IOException {
+
+        ProcessTable table = new ProcessTable(3);
+        table.add(1, 0, 3, 0, 2, 10, 7);
+        table.add(2, 4, 5, -1, 1);
+        table.add(3, 6, 2, 4, 0, 0, 5);
+        Path path = directory.resolve("trace.bin");
+        WorkloadFile.write(path, table);
+
+        assertEquals(WorkloadFile.HEADER_SIZE + 3 * WorkloadFile.RECORD_SIZE, Files.size(path));
+        ProcessTable read = WorkloadFile.readTable(path);
+        assertEquals(3, read.size());
+        for (int row = 0; row < 3; row++) {
+            assertEquals(table.pid[row], read.pid[row]);
+            assertEquals(table.arrivalTime[row], read.arrivalTime[row]);
+            assertEquals(table.burstTime[row], read.burstTime[row]);
+            assertEquals(table.comeBack[row], read.comeBack[row]);
+            assertEquals(table.initialPriority[row], read.initialPriority[row]);
+            assertEquals(table.period[row], read.period[row]);
+            assertEquals(table.deadline[row], read.deadline[row]);
+        }
+        assertEquals(10, read.period[0]);
+        assertEquals(7, read.deadline[0]);
+        assertEquals(5, read.deadline[2]);
+    }
+
+    /**
+     * A trace of version 1, whose records end with the priority, is still read, its processes
+     * having neither period nor deadline.
+     */
+    @Test
+    void readsVersionOneTraces() throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.allocate(WorkloadFile.HEADER_SIZE + 2 * WorkloadFile.RECORD_SIZE_V1);
+        buffer.putInt(WorkloadFile.MAGIC).putInt(1).putLong(2);
+        buffer.putInt(1).putInt(0).putInt(3).putInt(2).putInt(4);
+        buffer.putInt(2).putInt(5).putInt(6).putInt(0).putInt(1);
+        Path path = directory.resolve("v1.bin");
+        Files.write(path, buffer.array());
+
+        ProcessTable read = WorkloadFile.readTable(path);
+        assertEquals(2, read.size());
+        assertEquals(1, read.pid[0]);
+        assertEquals(3, read.burstTime[0]);
+        assertEquals(2, read.comeBack[0]);
+        assertEquals(4, read.initialPriority[0]);
+        assertEquals(2, read.pid[1]);
+        assertEquals(5, read.arrivalTime[1]);
+        assertEquals(6, read.burstTime[1]);
+        assertEquals(1, read.initialPriority[1]);
+        assertEquals(0, read.period[1]);
+        assertEquals(0, read.deadline[1]);
+    }
+}
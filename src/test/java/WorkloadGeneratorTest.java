@@ -0,0 +1,72 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Workloads drawn by WorkloadGenerator depend on the seed and the distributions only.
+ */
+class WorkloadGeneratorTest {
+
+    /**
+     * Arrivals 2.5 units apart are truncated to 0, 2, 5, 7 and 10; a burst of 3.6 rounds to 4, a
+     * comeback delay of -1 is raised to 0 and a priority of 2.4 rounds to 2.
+     */
+    @Test
+    void roundsTheDrawnValues() {
+
+        ProcessTable table = drain(new WorkloadGenerator(1, 5, (time, random) -> time + 2.5,
+                Distribution.constant(3.6), Distribution.constant(-1), Distribution.constant(2.4)));
+
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5}, Arrays.copyOf(table.pid, 5));
+        assertArrayEquals(new int[]{0, 2, 5, 7, 10}, Arrays.copyOf(table.arrivalTime, 5));
+        assertArrayEquals(new int[]{4, 4, 4, 4, 4}, Arrays.copyOf(table.burstTime, 5));
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0}, Arrays.copyOf(table.comeBack, 5));
+        assertArrayEquals(new int[]{2, 2, 2, 2, 2}, Arrays.copyOf(table.initialPriority, 5));
+    }
+
+    @Test
+    void sameSeedGivesTheSameWorkload() {
+
+        ProcessTable first = drain(WorkloadGenerator.poisson(42, 5, 20, 0.8));
+        assertEquals(5, first.size());
+        assertArrayEquals(new int[]{0, 10, 50, 67, 73}, Arrays.copyOf(first.arrivalTime, 5));
+        assertArrayEquals(new int[]{27, 1, 8, 14, 2}, Arrays.copyOf(first.burstTime, 5));
+        assertArrayEquals(new int[]{6, 2, 8, 8, 1}, Arrays.copyOf(first.comeBack, 5));
+        assertArrayEquals(new int[]{9, 2, 3, 8, 3}, Arrays.copyOf(first.initialPriority, 5));
+
+        ProcessTable again = drain(WorkloadGenerator.poisson(42, 10_000, 20, 0.8));
+        ProcessTable repeated = drain(WorkloadGenerator.poisson(42, 10_000, 20, 0.8));
+        ProcessTable other = drain(WorkloadGenerator.poisson(43, 10_000, 20, 0.8));
+        assertEquals(10_000, again.size());
+        assertArrayEquals(Arrays.copyOf(first.arrivalTime, 5), Arrays.copyOf(again.arrivalTime, 5));
+        assertArrayEquals(again.arrivalTime, repeated.arrivalTime);
+        assertArrayEquals(again.burstTime, repeated.burstTime);
+        assertArrayEquals(again.comeBack, repeated.comeBack);
+        assertArrayEquals(again.initialPriority, repeated.initialPriority);
+        assertFalse(Arrays.equals(again.burstTime, other.burstTime));
+    }
+
+    @Test
+    void endsAfterTheRequestedProcesses() {
+
+        WorkloadGenerator empty = WorkloadGenerator.poisson(1, 0, 20, 0.8);
+        assertEquals(Integer.MAX_VALUE, empty.peekArrivalTime());
+        assertThrows(NoSuchElementException.class, () -> empty.next(new ProcessTable(1)));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadGenerator.poisson(1, -1, 20, 0.8));
+    }
+
+    private static ProcessTable drain(WorkloadGenerator generator) {
+
+        ProcessTable table = new ProcessTable(16);
+        while (generator.peekArrivalTime() != Integer.MAX_VALUE) {
+            generator.next(table);
+        }
+        return table;
+    }
+}
@@ -0,0 +1,135 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random workloads and helpers shared by the tests of the scheduling engines.
+ */
+final class Workloads {
+
+    private Workloads() {
+    }
+
+    /**
+     * Builds a random workload in order of arrival, the first process arriving at 0. It mixes
+     * processes that come back and ones that leave, equal arrival times, and periodic tasks with
+     * and without a deadline of their own, so every algorithm meets each of its paths.
+     *
+     * @param seed The seed of the workload.
+     * @param n    The number of processes.
+     * @return A new table holding the workload.
+     */
+    static ProcessTable random(long seed, int n) {
+
+        Random random = new Random(seed);
+        ProcessTable table = new ProcessTable(n);
+        int arrival = 0;
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                arrival += random.nextInt(4);
+            }
+            int period = 5 + random.nextInt(40);
+            int comeBack = random.nextInt(4) == 0 ? 1 + random.nextInt(15) : -random.nextInt(2);
+            table.add(i + 1, arrival, 1 + random.nextInt(9), comeBack, random.nextInt(6),
+                    random.nextInt(5) == 0 ? period : 0, random.nextInt(4) == 0 ? 1 + random.nextInt(period) : 0);
+        }
+        return table;
+    }
+
+    /**
+     * Gets the maximum time of the run of a seed, from a few hundred to a few thousand units.
+     */
+    static int maximumTime(long seed) {
+        return 200 + (int) (seed * 37 % 2000);
+    }
+
+    /**
+     * Gets the quantum of the run of a seed.
+     */
+    static int quantum(long seed) {
+        return 1 + (int) (seed % 6);
+    }
+
+    /**
+     * Makes a scheduler print nothing and record its Gantt chart.
+     *
+     * @param scheduler   The scheduler.
+     * @param eventDriven true for the event engine, false for the tick engine.
+     * @param gantt       The recorder of the Gantt chart.
+     * @return The scheduler.
+     */
+    static <T extends Scheduling> T quiet(T scheduler, boolean eventDriven, GanttRecorder gantt) {
+
+        scheduler.setOutput(new PrintStream(OutputStream.nullOutputStream()));
+        scheduler.setPrintingProcesses(false);
+        scheduler.setGanttSink(gantt);
+        scheduler.setEventDriven(eventDriven);
+        return scheduler;
+    }
+
+    /**
+     * Gets the results of a finished run as one string, so two runs compare with assertEquals. The
+     * fairness index is rounded, as a run that recycles rows sums the shares in another order.
+     *
+     * @param scheduler The scheduler that ran.
+     * @return Its averages, fairness, busy time and counts, and its deadline misses for a real-time one.
+     */
+    static String results(Scheduling scheduler) {
+
+        String results = scheduler.getAverageWaitingTime() + " " + scheduler.getAverageTurnaroundTime() + " "
+                + String.format("%.9f", scheduler.getFairnessIndex()) + " " + scheduler.getBusyTime() + " "
+                + scheduler.getCount() + " " + scheduler.getExecutedCount();
+        if (scheduler instanceof RealTimeScheduling realTime) {
+            results += " jobs " + realTime.getJobCount() + " misses " + realTime.getDeadlineMisses() + " lateness "
+                    + realTime.getAverageLateness() + " " + realTime.getMaximumLateness();
+        }
+        return results;
+    }
+
+    /**
+     * Streams the rows of a table into the table of the scheduler, as a WorkloadFile does, so the
+     * scheduler owns its rows and reuses those of the processes that leave.
+     *
+     * @param table The workload.
+     * @return A source reading the workload in order.
+     */
+    static ProcessSource stream(ProcessTable table) {
+
+        TableSource rows = new TableSource(table);
+        return new ProcessSource() {
+
+            @Override
+            public int peekArrivalTime() {
+                return rows.peekArrivalTime();
+            }
+
+            @Override
+            public int next(ProcessTable target) {
+                return target.addCopy(table, rows.next(table));
+            }
+        };
+    }
+
+    /**
+     * Gantt sink keeping every entry, to compare the charts of two runs.
+     */
+    static final class GanttRecorder implements GanttSink {
+
+        final List<String> entries = new ArrayList<>();
+
+        @Override
+        public void begin(long count) {
+        }
+
+        @Override
+        public void entry(int pid, int start, int end) {
+            entries.add(pid + ":" + start + "-" + end);
+        }
+
+        @Override
+        public void end() {
+        }
+    }
+}